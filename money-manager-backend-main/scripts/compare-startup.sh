@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Compares cold start and resident memory of the container images.
+# Usage: MONGODB_URI=mongodb://host:27017/money-manager scripts/compare-startup.sh [runs]
+# Builds the jvm, jvm-aot and native targets, starts each image `runs` times (default 3) and
+# prints the "Startup metrics" line logged by StartupMetricsLogger for every run.
+set -euo pipefail
+
+: "${MONGODB_URI:?set MONGODB_URI to a MongoDB reachable from the containers}"
+RUNS="${1:-3}"
+cd "$(dirname "$0")/.."
+
+docker build -q -t money-manager-backend:jvm . >/dev/null
+docker build -q --target jvm-aot -t money-manager-backend:jvm-aot . >/dev/null
+docker build -q --target native -t money-manager-backend:native . >/dev/null
+
+for tag in jvm jvm-aot native; do
+  for run in $(seq 1 "$RUNS"); do
+    container=$(docker run -d -e MONGODB_URI="$MONGODB_URI" "money-manager-backend:$tag")
+    line=""
+    for _ in $(seq 1 120); do
+      line=$(docker logs "$container" 2>&1 | grep -m1 "Startup metrics" || true)
+      [ -n "$line" ] && break
+      sleep 0.5
+    done
+    # Idle RSS a few seconds after ready, as seen by the container runtime
+    sleep 5
+    settled=$(docker stats --no-stream --format '{{.MemUsage}}' "$container" | cut -d/ -f1)
+    docker rm -f "$container" >/dev/null
+    echo "$tag run $run: ${line#*Startup metrics: } settled_mem=${settled}"
+  done
+done
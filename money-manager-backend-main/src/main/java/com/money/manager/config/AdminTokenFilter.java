@@ -0,0 +1,63 @@
+package com.money.manager.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Operator-only routes require "Authorization: Bearer {admin.token}". With no token configured
+ * they are disabled outright, so a deployment that never set one cannot expose them by accident.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AdminTokenFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+    private static final List<String> ADMIN_PATHS = List.of("/api/fx/reload", "/api/admin/");
+
+    private final byte[] token;
+
+    public AdminTokenFilter(@Value("${admin.token:}") String token) {
+        this.token = token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Operator routes act across tenants, so TenantFilter leaves them unbound. */
+    public static boolean isAdminPath(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return ADMIN_PATHS.stream().anyMatch(path::startsWith);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !isAdminPath(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (token == null) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Admin endpoints are disabled (admin.token is not set)");
+            return;
+        }
+        String header = request.getHeader("Authorization");
+        byte[] presented = header != null && header.startsWith(BEARER)
+                ? header.substring(BEARER.length()).trim().getBytes(StandardCharsets.UTF_8) : null;
+        // Constant-time comparison, so response timing does not leak the token
+        if (presented == null || !MessageDigest.isEqual(token, presented)) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Admin token required");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
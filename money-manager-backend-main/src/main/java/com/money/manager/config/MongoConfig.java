@@ -0,0 +1,32 @@
+package com.money.manager.config;
+
+import com.money.manager.service.TenantUsageService;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MongoConfig {
+
+    /** Per-tenant command counts; the sync driver reports each command on the thread that issued it. */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer tenantCommandCounter(TenantUsageService tenantUsageService) {
+        CommandListener listener = new CommandListener() {
+            @Override
+            public void commandSucceeded(CommandSucceededEvent event) {
+                tenantUsageService.record(event.getCommandName(), event.getElapsedTime(TimeUnit.MICROSECONDS));
+            }
+
+            @Override
+            public void commandFailed(CommandFailedEvent event) {
+                tenantUsageService.record(event.getCommandName(), event.getElapsedTime(TimeUnit.MICROSECONDS));
+            }
+        };
+        return builder -> builder.addCommandListener(listener);
+    }
+}
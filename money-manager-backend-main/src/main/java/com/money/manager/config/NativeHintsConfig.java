@@ -0,0 +1,70 @@
+package com.money.manager.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image (mvn -Pnative native:compile). Controller
+ * payloads are covered by Spring's own AOT processing; these cover what it cannot see: DTOs written
+ * straight through ObjectMapper (SSE deltas, the ingestion journal, report jobs), enums read from
+ * requests and documents, Mongo documents and aggregation results, and the bundled FX table.
+ * Registered at build time only; no effect on the JVM build.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+public class NativeHintsConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        private static final MemberCategory[] MAPPED = {
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_METHODS};
+
+        // Package-private aggregation result types, so they are named rather than referenced
+        private static final String[] AGGREGATION_TYPES = {
+                "com.money.manager.service.impl.TransactionServiceImpl$DocumentWrapper",
+                "com.money.manager.service.impl.TransactionServiceImpl$GroupKey"};
+
+        private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            bindingHints.registerReflectionHints(hints.reflection(),
+                    classesIn("com.money.manager.dto", classLoader).toArray(Class<?>[]::new));
+            for (Class<?> type : classesIn("com.money.manager.enums", classLoader)) {
+                hints.reflection().registerType(type, MemberCategory.PUBLIC_FIELDS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            for (Class<?> type : classesIn("com.money.manager.model", classLoader)) {
+                hints.reflection().registerType(type, MAPPED);
+            }
+            for (String type : AGGREGATION_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type), MAPPED);
+            }
+            hints.resources().registerPattern("fx/*.csv");
+        }
+
+        /** Every top-level and static nested class in the package, scanned when the image is built. */
+        private static List<Class<?>> classesIn(String basePackage, ClassLoader classLoader) {
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter((reader, factory) -> true);
+            List<Class<?>> classes = new ArrayList<>();
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                classes.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+            }
+            return classes;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.money.manager.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NativeDetector;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Logs one "Startup metrics" line when the app is ready: process start to ready (JVM boot
+ * included, unlike Spring's own "Started ... in" line) and resident memory, so the JVM and
+ * native images can be compared from their logs (see scripts/compare-startup.sh).
+ */
+@Component
+public class StartupMetricsLogger {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupMetricsLogger.class);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logStartup(ApplicationReadyEvent event) {
+        Duration sinceProcessStart = ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()))
+                .orElse(event.getTimeTaken());
+        log.info("Startup metrics: mode={} ready_ms={} context_ms={} rss_mb={}",
+                NativeDetector.inNativeImage() ? "native" : "jvm",
+                sinceProcessStart.toMillis(), event.getTimeTaken().toMillis(), residentMegabytes());
+    }
+
+    // Linux only (containers); "n/a" elsewhere
+    private static String residentMegabytes() {
+        try {
+            List<String> status = Files.readAllLines(Path.of("/proc/self/status"));
+            for (String line : status) {
+                if (line.startsWith("VmRSS:")) {
+                    long kilobytes = Long.parseLong(line.replaceAll("\\D", ""));
+                    return String.valueOf(kilobytes / 1024);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // fall through
+        }
+        return "n/a";
+    }
+}
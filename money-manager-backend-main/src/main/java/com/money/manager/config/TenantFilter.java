@@ -0,0 +1,79 @@
+package com.money.manager.config;
+
+import com.money.manager.util.TenantContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the request's tenant from the X-Tenant-Id header. The dashboard stream is opened by a
+ * browser EventSource, which cannot set headers, so it may name the tenant in the tenant query
+ * parameter instead. A request naming neither belongs to tenant.default-id, unless
+ * tenant.header-required is on (the multitenant profile), in which case it is rejected. Operator
+ * routes (AdminTokenFilter) are not bound to a tenant. The tenant is trusted as sent, so a
+ * multi-tenant deployment must sit behind a gateway that authenticates the caller and sets it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Tenant-Id";
+    public static final String STREAM_PARAMETER = "tenant";
+
+    private static final String STREAM_PATH = "/api/dashboard/stream";
+
+    private final String defaultTenant;
+    private final boolean headerRequired;
+
+    public TenantFilter(@Value("${tenant.default-id:default}") String defaultTenant,
+            @Value("${tenant.header-required:false}") boolean headerRequired) {
+        this.defaultTenant = defaultTenant;
+        this.headerRequired = headerRequired;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return AdminTokenFilter.isAdminPath(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String tenantId = requestedTenant(request);
+        if (tenantId == null || tenantId.isBlank()) {
+            if (headerRequired) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, HEADER + " header is required");
+                return;
+            }
+            tenantId = defaultTenant;
+        } else if (!TenantContext.isValid(tenantId)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                    HEADER + " must be 1-64 letters, digits, '-' or '_'");
+            return;
+        }
+
+        TenantContext.set(tenantId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private static String requestedTenant(HttpServletRequest request) {
+        String header = request.getHeader(HEADER);
+        if (header != null && !header.isBlank()) {
+            return header;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.equals(STREAM_PATH) ? request.getParameter(STREAM_PARAMETER) : header;
+    }
+}
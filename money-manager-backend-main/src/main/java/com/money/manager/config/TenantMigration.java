@@ -0,0 +1,85 @@
+package com.money.manager.config;
+
+import com.money.manager.util.TenantContext;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Brings a database from before tenants existed up to date, and is a no-op once it has run:
+ * drops the single-tenant and superseded indexes (the tenant-leading ones replace them), creates the $text
+ * index with its tenantId prefix (annotations cannot express it), and assigns documents without
+ * a tenantId to tenant.default-id. Services that load state on startup depend on this bean.
+ */
+@Component
+public class TenantMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantMigration.class);
+    private static final String TEXT_INDEX = "tenant_text";
+
+    private static final Map<String, List<String>> LEGACY_INDEXES = Map.of(
+            "transactions", List.of("Transaction_TextIndex", "type", "category", "division", "transactionDate",
+                    "anomalous", "recurrenceKey", "fingerprint", "categoryPath_transactionDate",
+                    "tenant_recurrenceKey", "tenant_fingerprint"),
+            "categories", List.of("path", "parentId"),
+            "budgets", List.of("category_division_month", "tenant_category_division_month"));
+
+    private static final List<String> TENANT_COLLECTIONS = List.of("transactions", "categories",
+            "category_rewrites", "budgets", "anomaly_baselines", "recurring_templates");
+
+    private final MongoTemplate mongoTemplate;
+    private final String defaultTenantId;
+
+    public TenantMigration(MongoTemplate mongoTemplate, @Value("${tenant.default-id:default}") String defaultTenantId) {
+        this.mongoTemplate = mongoTemplate;
+        this.defaultTenantId = defaultTenantId;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        LEGACY_INDEXES.forEach(this::dropIndexes);
+        createTextIndex();
+        for (String collection : TENANT_COLLECTIONS) {
+            long assigned = mongoTemplate.updateMulti(new Query(Criteria.where(TenantContext.FIELD).exists(false)),
+                    new Update().set(TenantContext.FIELD, defaultTenantId), collection).getModifiedCount();
+            if (assigned > 0) {
+                log.info("Assigned {} {} documents to tenant {}", assigned, collection, defaultTenantId);
+            }
+        }
+    }
+
+    private void dropIndexes(String collection, List<String> names) {
+        Set<String> existing = mongoTemplate.indexOps(collection).getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet());
+        for (String name : names) {
+            if (existing.contains(name)) {
+                mongoTemplate.indexOps(collection).dropIndex(name);
+                log.info("Dropped superseded index {}.{}", collection, name);
+            }
+        }
+    }
+
+    // A collection has at most one text index, so the legacy one must be gone first
+    private void createTextIndex() {
+        MongoCollection<Document> transactions = mongoTemplate.getCollection("transactions");
+        transactions.createIndex(
+                new Document(TenantContext.FIELD, 1).append("category", "text").append("description", "text"),
+                new IndexOptions().name(TEXT_INDEX).weights(new Document("category", 2).append("description", 1)));
+    }
+}
@@ -0,0 +1,26 @@
+package com.money.manager.controller;
+
+import com.money.manager.dto.SpendingAnalytics;
+import com.money.manager.service.AnalyticsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    /** Largest expenses, top categories by count and median/p90 per category for a UTC month. */
+    @GetMapping("/analytics/spending")
+    public ResponseEntity<SpendingAnalytics> getSpendingAnalytics(
+            @RequestParam(required = false) String month,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(analyticsService.getSpendingAnalytics(month, limit));
+    }
+}
@@ -0,0 +1,26 @@
+package com.money.manager.controller;
+
+import com.money.manager.dto.TransactionResponse;
+import com.money.manager.service.AnomalyService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class AnomalyController {
+
+    private final AnomalyService anomalyService;
+
+    public AnomalyController(AnomalyService anomalyService) {
+        this.anomalyService = anomalyService;
+    }
+
+    /** Transactions flagged as unusual when they were recorded, newest first. */
+    @GetMapping("/anomalies")
+    public ResponseEntity<List<TransactionResponse>> getAnomalies(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(anomalyService.getAnomalies(limit));
+    }
+}
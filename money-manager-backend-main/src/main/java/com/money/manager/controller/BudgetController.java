@@ -0,0 +1,51 @@
+package com.money.manager.controller;
+
+import com.money.manager.dto.BudgetAlert;
+import com.money.manager.dto.BudgetRequest;
+import com.money.manager.dto.BudgetStatus;
+import com.money.manager.service.BudgetService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class BudgetController {
+
+    private final BudgetService budgetService;
+
+    public BudgetController(BudgetService budgetService) {
+        this.budgetService = budgetService;
+    }
+
+    @PostMapping("/budgets")
+    public ResponseEntity<BudgetStatus> saveBudget(@Valid @RequestBody BudgetRequest request) {
+        return ResponseEntity.ok(budgetService.saveBudget(request));
+    }
+
+    /** month is yyyy-MM (UTC); omit for all budgets. */
+    @GetMapping("/budgets")
+    public ResponseEntity<List<BudgetStatus>> getBudgets(@RequestParam(required = false) String month) {
+        return ResponseEntity.ok(budgetService.getBudgets(month));
+    }
+
+    @GetMapping("/budgets/{id}")
+    public ResponseEntity<BudgetStatus> getBudgetStatus(@PathVariable String id) {
+        return ResponseEntity.ok(budgetService.getBudgetStatus(id));
+    }
+
+    @DeleteMapping("/budgets/{id}")
+    public ResponseEntity<Void> deleteBudget(@PathVariable String id) {
+        budgetService.deleteBudget(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /** Poll with the last sequence seen to receive only new threshold crossings. */
+    @GetMapping("/budgets/alerts")
+    public ResponseEntity<List<BudgetAlert>> getAlerts(@RequestParam(defaultValue = "0") long after) {
+        return ResponseEntity.ok(budgetService.getAlerts(after));
+    }
+}
@@ -0,0 +1,49 @@
+package com.money.manager.controller;
+
+import com.money.manager.dto.CategoryRequest;
+import com.money.manager.dto.CategoryResponse;
+import com.money.manager.dto.CategoryRollup;
+import com.money.manager.service.CategoryService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class CategoryController {
+
+    private final CategoryService categoryService;
+
+    public CategoryController(CategoryService categoryService) {
+        this.categoryService = categoryService;
+    }
+
+    @GetMapping("/categories")
+    public ResponseEntity<List<CategoryResponse>> getCategories() {
+        return ResponseEntity.ok(categoryService.getCategories());
+    }
+
+    @PostMapping("/categories")
+    public ResponseEntity<CategoryResponse> createCategory(@Valid @RequestBody CategoryRequest request) {
+        return ResponseEntity.ok(categoryService.createCategory(request));
+    }
+
+    /** Rename or move; existing transactions are updated in the background. */
+    @PutMapping("/categories/{id}")
+    public ResponseEntity<CategoryResponse> updateCategory(@PathVariable String id,
+            @Valid @RequestBody CategoryRequest request) {
+        return ResponseEntity.ok(categoryService.updateCategory(id, request));
+    }
+
+    /** Totals at every level under category (e.g. "Food > Groceries"; omit for the whole tree). */
+    @GetMapping("/categories/rollup")
+    public ResponseEntity<List<CategoryRollup>> getRollup(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false, defaultValue = "monthly") String period,
+            @RequestParam(required = false) String currency) {
+        return ResponseEntity.ok(categoryService.getRollup(category, period, currency));
+    }
+}
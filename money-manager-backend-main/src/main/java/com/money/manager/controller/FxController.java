@@ -0,0 +1,34 @@
+package com.money.manager.controller;
+
+import com.money.manager.dto.FxRatesResponse;
+import com.money.manager.service.FxRateService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class FxController {
+
+    private final FxRateService fxRateService;
+
+    public FxController(FxRateService fxRateService) {
+        this.fxRateService = fxRateService;
+    }
+
+    /** Rates effective on date (yyyy-MM-dd, UTC); omit for today. */
+    @GetMapping("/fx/rates")
+    public ResponseEntity<FxRatesResponse> getRates(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(fxRateService.getRates(date));
+    }
+
+    /** Re-reads fx.rates-location and swaps the table in one step; admin token required. */
+    @PostMapping("/fx/reload")
+    public ResponseEntity<FxRatesResponse> reloadRates() {
+        return ResponseEntity.ok(fxRateService.reload());
+    }
+}
@@ -0,0 +1,52 @@
+package com.money.manager.controller;
+
+import com.money.manager.dto.RecurringRunResult;
+import com.money.manager.dto.RecurringTemplateRequest;
+import com.money.manager.dto.RecurringTemplateResponse;
+import com.money.manager.service.RecurringService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class RecurringController {
+
+    private final RecurringService recurringService;
+
+    public RecurringController(RecurringService recurringService) {
+        this.recurringService = recurringService;
+    }
+
+    @GetMapping("/recurring")
+    public ResponseEntity<List<RecurringTemplateResponse>> getTemplates() {
+        return ResponseEntity.ok(recurringService.getTemplates());
+    }
+
+    @PostMapping("/recurring")
+    public ResponseEntity<RecurringTemplateResponse> createTemplate(
+            @Valid @RequestBody RecurringTemplateRequest request) {
+        return ResponseEntity.ok(recurringService.createTemplate(request));
+    }
+
+    @PutMapping("/recurring/{id}")
+    public ResponseEntity<RecurringTemplateResponse> updateTemplate(@PathVariable String id,
+            @Valid @RequestBody RecurringTemplateRequest request) {
+        return ResponseEntity.ok(recurringService.updateTemplate(id, request));
+    }
+
+    @DeleteMapping("/recurring/{id}")
+    public ResponseEntity<Void> deleteTemplate(@PathVariable String id) {
+        recurringService.deleteTemplate(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /** Posts every due occurrence now instead of waiting for the next scheduled run. */
+    @PostMapping("/recurring/run")
+    public ResponseEntity<RecurringRunResult> run() {
+        return ResponseEntity.ok(recurringService.materializeDue());
+    }
+}
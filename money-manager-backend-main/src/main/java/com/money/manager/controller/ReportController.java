@@ -0,0 +1,54 @@
+package com.money.manager.controller;
+
+import com.money.manager.dto.ReportJob;
+import com.money.manager.dto.ReportRequest;
+import com.money.manager.enums.ReportStatus;
+import com.money.manager.service.ReportService;
+import jakarta.validation.Valid;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    private final ReportService reportService;
+
+    public ReportController(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    /** 200 when the same report over unchanged data is already done, otherwise 202; poll the job by id. */
+    @PostMapping("/reports")
+    public ResponseEntity<ReportJob> submitReport(@Valid @RequestBody ReportRequest request) {
+        ReportJob job = reportService.submit(request);
+        HttpStatus status = job.getStatus() == ReportStatus.COMPLETED ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(job);
+    }
+
+    @GetMapping("/reports/{id}")
+    public ResponseEntity<ReportJob> getReport(@PathVariable String id) {
+        return ResponseEntity.ok(reportService.getJob(id));
+    }
+
+    @GetMapping("/reports/{id}/download")
+    public ResponseEntity<Resource> downloadReport(@PathVariable String id) {
+        Path result = reportService.getResult(id);
+        String fileName = "statement-" + result.getFileName();
+        MediaType type = fileName.endsWith(".json") ? MediaType.APPLICATION_JSON : new MediaType("text", "csv");
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build()
+                        .toString())
+                .body(new FileSystemResource(result));
+    }
+}
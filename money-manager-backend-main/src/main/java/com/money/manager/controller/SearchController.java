@@ -0,0 +1,41 @@
+package com.money.manager.controller;
+
+import com.money.manager.dto.TransactionResponse;
+import com.money.manager.enums.Division;
+import com.money.manager.service.SearchService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /** Ranked search over description/category; startDate/endDate are UTC ISO-8601, end exclusive. */
+    @GetMapping("/transactions/search")
+    public ResponseEntity<List<TransactionResponse>> searchTransactions(
+            @RequestParam String q,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(required = false) Division division,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(searchService.search(q, startDate, endDate, division, limit));
+    }
+
+    @GetMapping("/categories/autocomplete")
+    public ResponseEntity<List<String>> autocompleteCategories(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(searchService.autocompleteCategories(prefix, limit));
+    }
+}
@@ -0,0 +1,26 @@
+package com.money.manager.controller;
+
+import com.money.manager.dto.TenantUsage;
+import com.money.manager.service.TenantUsageService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class TenantController {
+
+    private final TenantUsageService tenantUsageService;
+
+    public TenantController(TenantUsageService tenantUsageService) {
+        this.tenantUsageService = tenantUsageService;
+    }
+
+    /** Heaviest tenants by database time since startup, with read and write command counts. */
+    @GetMapping("/admin/tenants/usage")
+    public ResponseEntity<List<TenantUsage>> getUsage(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(tenantUsageService.getUsage(limit));
+    }
+}
@@ -2,16 +2,28 @@ package com.money.manager.controller;
 
 import com.money.manager.dto.CategorySummary;
 import com.money.manager.dto.DashboardStats;
+import com.money.manager.dto.ImportMapping;
+import com.money.manager.dto.ImportResult;
+import com.money.manager.dto.IngestionAck;
 import com.money.manager.dto.PagedResponse;
 import com.money.manager.dto.TransactionRequest;
 import com.money.manager.dto.TransactionResponse;
 import com.money.manager.enums.Division;
+import com.money.manager.service.DashboardStreamService;
+import com.money.manager.service.IngestionService;
+import com.money.manager.service.StatementImportService;
 import com.money.manager.service.TransactionService;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.List;
 
@@ -21,9 +33,16 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final IngestionService ingestionService;
+    private final StatementImportService statementImportService;
+    private final DashboardStreamService dashboardStreamService;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, IngestionService ingestionService,
+            StatementImportService statementImportService, DashboardStreamService dashboardStreamService) {
         this.transactionService = transactionService;
+        this.ingestionService = ingestionService;
+        this.statementImportService = statementImportService;
+        this.dashboardStreamService = dashboardStreamService;
     }
 
     @PostMapping("/transactions")
@@ -31,6 +50,21 @@ public class TransactionController {
         return ResponseEntity.ok(transactionService.createTransaction(request));
     }
 
+    /** Write-behind ingestion for high-rate sources: 202 with the assigned id once journaled. */
+    @PostMapping("/transactions/ingest")
+    public ResponseEntity<IngestionAck> ingestTransaction(@Valid @RequestBody TransactionRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ingestionService.accept(request));
+    }
+
+    /** Multipart "file" (CSV or OFX); column mapping comes from request params, see ImportMapping. */
+    @PostMapping(value = "/transactions/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportResult> importStatement(@RequestParam("file") MultipartFile file,
+            @Valid ImportMapping mapping) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(statementImportService.importStatement(input, mapping));
+        }
+    }
+
     @GetMapping("/transactions")
     public ResponseEntity<PagedResponse<TransactionResponse>> getAllTransactions(
             @RequestParam(defaultValue = "0") int page,
@@ -55,23 +89,30 @@ public class TransactionController {
     }
 
     @GetMapping("/dashboard/weekly")
-    public ResponseEntity<DashboardStats> getWeeklyDashboard() {
-        return ResponseEntity.ok(transactionService.getDashboardStats("weekly"));
+    public ResponseEntity<DashboardStats> getWeeklyDashboard(@RequestParam(required = false) String currency) {
+        return ResponseEntity.ok(transactionService.getDashboardStats("weekly", currency));
     }
 
     @GetMapping("/dashboard/monthly")
-    public ResponseEntity<DashboardStats> getMonthlyDashboard() {
-        return ResponseEntity.ok(transactionService.getDashboardStats("monthly"));
+    public ResponseEntity<DashboardStats> getMonthlyDashboard(@RequestParam(required = false) String currency) {
+        return ResponseEntity.ok(transactionService.getDashboardStats("monthly", currency));
     }
 
     @GetMapping("/dashboard/yearly")
-    public ResponseEntity<DashboardStats> getYearlyDashboard() {
-        return ResponseEntity.ok(transactionService.getDashboardStats("yearly"));
+    public ResponseEntity<DashboardStats> getYearlyDashboard(@RequestParam(required = false) String currency) {
+        return ResponseEntity.ok(transactionService.getDashboardStats("yearly", currency));
+    }
+
+    /** SSE feed of "delta" events: changed transactions plus refreshed stats for the periods they touch. */
+    @GetMapping(value = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboard() {
+        return dashboardStreamService.subscribe();
     }
 
     @GetMapping("/summary/categories")
     public ResponseEntity<List<CategorySummary>> getCategorySummary(
-            @RequestParam(required = false, defaultValue = "monthly") String period) {
-        return ResponseEntity.ok(transactionService.getCategorySummary(period));
+            @RequestParam(required = false, defaultValue = "monthly") String period,
+            @RequestParam(required = false) String currency) {
+        return ResponseEntity.ok(transactionService.getCategorySummary(period, currency));
     }
 }
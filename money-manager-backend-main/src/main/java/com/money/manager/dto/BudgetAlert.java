@@ -0,0 +1,90 @@
+package com.money.manager.dto;
+
+import com.money.manager.enums.Division;
+
+import java.time.Instant;
+
+/** Raised when a budget's spend crosses an alert threshold (percent of limit). */
+public class BudgetAlert {
+    private long sequence; // monotonically increasing; poll with ?after=<last seen sequence>
+    private String budgetId;
+    private String category;
+    private Division division;
+    private String month;
+    private int threshold;
+    private Double spent;
+    private Double limitAmount;
+    private Instant triggeredAt;
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getBudgetId() {
+        return budgetId;
+    }
+
+    public void setBudgetId(String budgetId) {
+        this.budgetId = budgetId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Division getDivision() {
+        return division;
+    }
+
+    public void setDivision(Division division) {
+        this.division = division;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(int threshold) {
+        this.threshold = threshold;
+    }
+
+    public Double getSpent() {
+        return spent;
+    }
+
+    public void setSpent(Double spent) {
+        this.spent = spent;
+    }
+
+    public Double getLimitAmount() {
+        return limitAmount;
+    }
+
+    public void setLimitAmount(Double limitAmount) {
+        this.limitAmount = limitAmount;
+    }
+
+    public Instant getTriggeredAt() {
+        return triggeredAt;
+    }
+
+    public void setTriggeredAt(Instant triggeredAt) {
+        this.triggeredAt = triggeredAt;
+    }
+}
@@ -0,0 +1,56 @@
+package com.money.manager.dto;
+
+import com.money.manager.enums.Division;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+public class BudgetRequest {
+
+    @NotBlank(message = "Category is required")
+    private String category;
+
+    @NotNull(message = "Division is required")
+    private Division division;
+
+    @NotNull(message = "Month is required")
+    @Pattern(regexp = "\\d{4}-(0[1-9]|1[0-2])", message = "Month must be yyyy-MM")
+    private String month;
+
+    @NotNull(message = "Limit is required")
+    @Min(value = 0, message = "Limit must be positive")
+    private Double limitAmount;
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Division getDivision() {
+        return division;
+    }
+
+    public void setDivision(Division division) {
+        this.division = division;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public Double getLimitAmount() {
+        return limitAmount;
+    }
+
+    public void setLimitAmount(Double limitAmount) {
+        this.limitAmount = limitAmount;
+    }
+}
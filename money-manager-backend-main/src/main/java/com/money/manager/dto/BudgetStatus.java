@@ -0,0 +1,78 @@
+package com.money.manager.dto;
+
+import com.money.manager.enums.Division;
+
+public class BudgetStatus {
+    private String id;
+    private String category;
+    private Division division;
+    private String month;
+    private Double limitAmount;
+    private Double spent;
+    private Double remaining;
+    private Double percentUsed;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Division getDivision() {
+        return division;
+    }
+
+    public void setDivision(Division division) {
+        this.division = division;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public Double getLimitAmount() {
+        return limitAmount;
+    }
+
+    public void setLimitAmount(Double limitAmount) {
+        this.limitAmount = limitAmount;
+    }
+
+    public Double getSpent() {
+        return spent;
+    }
+
+    public void setSpent(Double spent) {
+        this.spent = spent;
+    }
+
+    public Double getRemaining() {
+        return remaining;
+    }
+
+    public void setRemaining(Double remaining) {
+        this.remaining = remaining;
+    }
+
+    public Double getPercentUsed() {
+        return percentUsed;
+    }
+
+    public void setPercentUsed(Double percentUsed) {
+        this.percentUsed = percentUsed;
+    }
+}
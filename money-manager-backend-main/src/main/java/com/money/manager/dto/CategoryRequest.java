@@ -0,0 +1,30 @@
+package com.money.manager.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+/** Create, rename (new name) or move (new parentId; null = root) a category. */
+public class CategoryRequest {
+
+    @NotBlank(message = "Name is required")
+    @Pattern(regexp = "[^>]+", message = "Name must not contain '>'")
+    private String name;
+
+    private String parentId;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(String parentId) {
+        this.parentId = parentId;
+    }
+}
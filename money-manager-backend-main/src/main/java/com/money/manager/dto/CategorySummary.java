@@ -6,14 +6,16 @@ public class CategorySummary {
     private String category;
     private TransactionType type;
     private Double totalAmount;
+    private String currency;
 
     public CategorySummary() {
     }
 
-    public CategorySummary(String category, TransactionType type, Double totalAmount) {
+    public CategorySummary(String category, TransactionType type, Double totalAmount, String currency) {
         this.category = category;
         this.type = type;
         this.totalAmount = totalAmount;
+        this.currency = currency;
     }
 
     public String getCategory() {
@@ -39,4 +41,12 @@ public class CategorySummary {
     public void setTotalAmount(Double totalAmount) {
         this.totalAmount = totalAmount;
     }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
 }
@@ -0,0 +1,47 @@
+package com.money.manager.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One SSE "delta" message: the writes since the previous message plus fresh stats for only the
+ * dashboard periods (weekly/monthly/yearly) those writes touched.
+ */
+public class DashboardDelta {
+    private long sequence;
+    private List<TransactionChange> changes;
+    private boolean truncated; // more writes happened than are listed; refetch the list if needed
+    private Map<String, DashboardStats> stats;
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public List<TransactionChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<TransactionChange> changes) {
+        this.changes = changes;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public Map<String, DashboardStats> getStats() {
+        return stats;
+    }
+
+    public void setStats(Map<String, DashboardStats> stats) {
+        this.stats = stats;
+    }
+}
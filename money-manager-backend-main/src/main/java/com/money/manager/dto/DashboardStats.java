@@ -4,14 +4,16 @@ public class DashboardStats {
     private Double totalIncome;
     private Double totalExpense;
     private Double balance;
+    private String currency;
 
     public DashboardStats() {
     }
 
-    public DashboardStats(Double totalIncome, Double totalExpense, Double balance) {
+    public DashboardStats(Double totalIncome, Double totalExpense, Double balance, String currency) {
         this.totalIncome = totalIncome;
         this.totalExpense = totalExpense;
         this.balance = balance;
+        this.currency = currency;
     }
 
     public Double getTotalIncome() {
@@ -37,4 +39,12 @@ public class DashboardStats {
     public void setBalance(Double balance) {
         this.balance = balance;
     }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
 }
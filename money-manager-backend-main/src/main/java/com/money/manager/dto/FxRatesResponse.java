@@ -0,0 +1,43 @@
+package com.money.manager.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public class FxRatesResponse {
+    private String version;
+    private String baseCurrency;
+    private LocalDate date;
+    private Map<String, Double> ratesToBase; // base units per 1 unit of each currency on date
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public Map<String, Double> getRatesToBase() {
+        return ratesToBase;
+    }
+
+    public void setRatesToBase(Map<String, Double> ratesToBase) {
+        this.ratesToBase = ratesToBase;
+    }
+}
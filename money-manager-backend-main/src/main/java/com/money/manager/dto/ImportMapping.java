@@ -0,0 +1,174 @@
+package com.money.manager.dto;
+
+import com.money.manager.enums.Division;
+import com.money.manager.enums.StatementFormat;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * Column-to-TransactionRequest mapping for statement imports, bound from query/form params.
+ * Column references are header names, or zero-based indexes when the file has no header.
+ * OFX files ignore the column settings and use the standard STMTTRN fields.
+ */
+public class ImportMapping {
+
+    @NotNull(message = "Format is required")
+    private StatementFormat format = StatementFormat.CSV;
+
+    @NotNull(message = "Division is required")
+    private Division division;
+
+    private char delimiter = ',';
+    private boolean header = true;
+
+    // '.' (1,234.56) or ',' (1.234,56); the other one, spaces and apostrophes are digit grouping
+    private char decimalSeparator = '.';
+
+    @NotBlank(message = "Date column is required")
+    private String dateColumn = "date";
+
+    @NotBlank(message = "Date format is required")
+    private String dateFormat = "yyyy-MM-dd";
+
+    @NotBlank(message = "Amount column is required")
+    private String amountColumn = "amount";
+
+    @NotBlank(message = "Description column is required")
+    private String descriptionColumn = "description";
+
+    // Optional: when absent, defaultCategory is used
+    private String categoryColumn;
+    private String defaultCategory = "Uncategorized";
+
+    // Optional: INCOME/EXPENSE/CREDIT/DEBIT; when absent the amount sign decides (negative = expense)
+    private String typeColumn;
+
+    // Optional: per-row account; when absent, account (or the OFX ACCTID) is used
+    private String accountColumn;
+    private String account;
+
+    // Optional ISO 4217 code of the statement; defaults to the base currency
+    @Pattern(regexp = "[A-Za-z]{3}", message = "Currency must be a 3-letter ISO code")
+    private String currency;
+
+    public StatementFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(StatementFormat format) {
+        this.format = format;
+    }
+
+    public Division getDivision() {
+        return division;
+    }
+
+    public void setDivision(Division division) {
+        this.division = division;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public void setDelimiter(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    public char getDecimalSeparator() {
+        return decimalSeparator;
+    }
+
+    public void setDecimalSeparator(char decimalSeparator) {
+        this.decimalSeparator = decimalSeparator;
+    }
+
+    public boolean isHeader() {
+        return header;
+    }
+
+    public void setHeader(boolean header) {
+        this.header = header;
+    }
+
+    public String getDateColumn() {
+        return dateColumn;
+    }
+
+    public void setDateColumn(String dateColumn) {
+        this.dateColumn = dateColumn;
+    }
+
+    public String getDateFormat() {
+        return dateFormat;
+    }
+
+    public void setDateFormat(String dateFormat) {
+        this.dateFormat = dateFormat;
+    }
+
+    public String getAmountColumn() {
+        return amountColumn;
+    }
+
+    public void setAmountColumn(String amountColumn) {
+        this.amountColumn = amountColumn;
+    }
+
+    public String getDescriptionColumn() {
+        return descriptionColumn;
+    }
+
+    public void setDescriptionColumn(String descriptionColumn) {
+        this.descriptionColumn = descriptionColumn;
+    }
+
+    public String getCategoryColumn() {
+        return categoryColumn;
+    }
+
+    public void setCategoryColumn(String categoryColumn) {
+        this.categoryColumn = categoryColumn;
+    }
+
+    public String getDefaultCategory() {
+        return defaultCategory;
+    }
+
+    public void setDefaultCategory(String defaultCategory) {
+        this.defaultCategory = defaultCategory;
+    }
+
+    public String getTypeColumn() {
+        return typeColumn;
+    }
+
+    public void setTypeColumn(String typeColumn) {
+        this.typeColumn = typeColumn;
+    }
+
+    public String getAccountColumn() {
+        return accountColumn;
+    }
+
+    public void setAccountColumn(String accountColumn) {
+        this.accountColumn = accountColumn;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public void setAccount(String account) {
+        this.account = account;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+}
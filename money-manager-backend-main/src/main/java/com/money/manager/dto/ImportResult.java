@@ -0,0 +1,52 @@
+package com.money.manager.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResult {
+    private long totalRows;
+    private long imported;
+    private long duplicates;
+    private long rejected;
+    private List<String> errors = new ArrayList<>(); // first few rejected rows, "line N: reason"
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
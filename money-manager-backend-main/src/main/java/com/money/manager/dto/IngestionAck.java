@@ -0,0 +1,34 @@
+package com.money.manager.dto;
+
+/**
+ * Returned by the write-behind ingestion endpoint. The id is assigned up front,
+ * so clients can reference the transaction before it has been flushed to MongoDB.
+ */
+public class IngestionAck {
+    private String id;
+    private String status; // ACCEPTED (queued + journaled) or CREATED (written synchronously)
+
+    public IngestionAck() {
+    }
+
+    public IngestionAck(String id, String status) {
+        this.id = id;
+        this.status = status;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
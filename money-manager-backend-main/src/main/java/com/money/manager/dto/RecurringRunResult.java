@@ -0,0 +1,49 @@
+package com.money.manager.dto;
+
+public class RecurringRunResult {
+    private int templates; // templates that had due occurrences
+    private long created;
+    private long skipped; // occurrences already posted (restart or another instance)
+    private int failed; // templates that could not be expanded and were deactivated
+    private long durationMs;
+
+    public int getTemplates() {
+        return templates;
+    }
+
+    public void setTemplates(int templates) {
+        this.templates = templates;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+}
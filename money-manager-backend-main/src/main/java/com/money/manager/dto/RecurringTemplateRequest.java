@@ -0,0 +1,156 @@
+package com.money.manager.dto;
+
+import com.money.manager.enums.Division;
+import com.money.manager.enums.TransactionType;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+import java.time.Instant;
+
+/**
+ * cron uses Spring's six fields (second minute hour day month weekday) or the classic five
+ * (minute hour day month weekday), evaluated in UTC, e.g. "0 9 1 * *" = 09:00 UTC on the 1st.
+ * startDate defaults to now; occurrences before it are never created.
+ */
+public class RecurringTemplateRequest {
+
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    @NotBlank(message = "Cron schedule is required")
+    private String cron;
+
+    @NotNull(message = "Type is required")
+    private TransactionType type;
+
+    @NotNull(message = "Amount is required")
+    @Min(value = 0, message = "Amount must be positive")
+    private Double amount;
+
+    @Pattern(regexp = "[A-Za-z]{3}", message = "Currency must be a 3-letter ISO code")
+    private String currency;
+
+    @NotBlank(message = "Category is required")
+    private String category;
+
+    @NotNull(message = "Division is required")
+    private Division division;
+
+    @NotBlank(message = "Description is required")
+    private String description;
+
+    private String sourceAccount;
+    private String targetAccount;
+
+    private Instant startDate;
+    private Instant endDate;
+
+    // false pauses the template without deleting it
+    private Boolean active;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Division getDivision() {
+        return division;
+    }
+
+    public void setDivision(Division division) {
+        this.division = division;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getSourceAccount() {
+        return sourceAccount;
+    }
+
+    public void setSourceAccount(String sourceAccount) {
+        this.sourceAccount = sourceAccount;
+    }
+
+    public String getTargetAccount() {
+        return targetAccount;
+    }
+
+    public void setTargetAccount(String targetAccount) {
+        this.targetAccount = targetAccount;
+    }
+
+    public Instant getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(Instant startDate) {
+        this.startDate = startDate;
+    }
+
+    public Instant getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(Instant endDate) {
+        this.endDate = endDate;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+}
@@ -0,0 +1,162 @@
+package com.money.manager.dto;
+
+import com.money.manager.enums.Division;
+import com.money.manager.enums.TransactionType;
+
+import java.time.Instant;
+
+public class RecurringTemplateResponse {
+    private String id;
+    private String name;
+    private String cron;
+    private TransactionType type;
+    private Double amount;
+    private String currency;
+    private String category;
+    private Division division;
+    private String description;
+    private String sourceAccount;
+    private String targetAccount;
+    private Instant startDate;
+    private Instant endDate;
+    private Instant nextRun; // null once the schedule has ended
+    private Instant lastOccurrence;
+    private boolean active;
+    private String lastError; // set when the scheduler deactivated the template
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Division getDivision() {
+        return division;
+    }
+
+    public void setDivision(Division division) {
+        this.division = division;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getSourceAccount() {
+        return sourceAccount;
+    }
+
+    public void setSourceAccount(String sourceAccount) {
+        this.sourceAccount = sourceAccount;
+    }
+
+    public String getTargetAccount() {
+        return targetAccount;
+    }
+
+    public void setTargetAccount(String targetAccount) {
+        this.targetAccount = targetAccount;
+    }
+
+    public Instant getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(Instant startDate) {
+        this.startDate = startDate;
+    }
+
+    public Instant getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(Instant endDate) {
+        this.endDate = endDate;
+    }
+
+    public Instant getNextRun() {
+        return nextRun;
+    }
+
+    public void setNextRun(Instant nextRun) {
+        this.nextRun = nextRun;
+    }
+
+    public Instant getLastOccurrence() {
+        return lastOccurrence;
+    }
+
+    public void setLastOccurrence(Instant lastOccurrence) {
+        this.lastOccurrence = lastOccurrence;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -0,0 +1,133 @@
+package com.money.manager.dto;
+
+import com.money.manager.enums.Division;
+import com.money.manager.enums.ReportFormat;
+import com.money.manager.enums.ReportStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Report job state. id is derived from the report parameters and the ledger version, so the
+ * same statement over unchanged data always maps to the same job and file. A result looked up
+ * by id after a restart only carries id, status, format and size until it is submitted again.
+ */
+public class ReportJob {
+    private String id;
+    private ReportStatus status;
+    private ReportFormat format;
+    private Instant startDate;
+    private Instant endDate;
+    private List<Division> divisions;
+    private String currency;
+    private String ledgerVersion;
+    private Long rows;
+    private Long sizeBytes;
+    private String error;
+    private Instant submittedAt;
+    private Instant completedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public ReportStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReportStatus status) {
+        this.status = status;
+    }
+
+    public ReportFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(ReportFormat format) {
+        this.format = format;
+    }
+
+    public Instant getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(Instant startDate) {
+        this.startDate = startDate;
+    }
+
+    public Instant getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(Instant endDate) {
+        this.endDate = endDate;
+    }
+
+    public List<Division> getDivisions() {
+        return divisions;
+    }
+
+    public void setDivisions(List<Division> divisions) {
+        this.divisions = divisions;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getLedgerVersion() {
+        return ledgerVersion;
+    }
+
+    public void setLedgerVersion(String ledgerVersion) {
+        this.ledgerVersion = ledgerVersion;
+    }
+
+    public Long getRows() {
+        return rows;
+    }
+
+    public void setRows(Long rows) {
+        this.rows = rows;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,76 @@
+package com.money.manager.dto;
+
+import com.money.manager.enums.Division;
+import com.money.manager.enums.ReportFormat;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Statement range is startDate (inclusive) to endDate (exclusive), UTC; give both or neither,
+ * in which case the range comes from period (weekly, monthly, yearly; default monthly). Empty divisions = all;
+ * currency defaults to the base currency.
+ */
+public class ReportRequest {
+
+    private String period;
+    private Instant startDate;
+    private Instant endDate;
+    private List<Division> divisions;
+
+    @Pattern(regexp = "[A-Za-z]{3}", message = "Currency must be a 3-letter ISO code")
+    private String currency;
+
+    @NotNull(message = "Format is required")
+    private ReportFormat format;
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public Instant getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(Instant startDate) {
+        this.startDate = startDate;
+    }
+
+    public Instant getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(Instant endDate) {
+        this.endDate = endDate;
+    }
+
+    public List<Division> getDivisions() {
+        return divisions;
+    }
+
+    public void setDivisions(List<Division> divisions) {
+        this.divisions = divisions;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public ReportFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(ReportFormat format) {
+        this.format = format;
+    }
+}
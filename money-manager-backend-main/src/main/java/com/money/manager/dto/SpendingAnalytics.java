@@ -0,0 +1,70 @@
+package com.money.manager.dto;
+
+import java.util.List;
+
+/** Expense analytics for one UTC month; all amounts in the base currency. */
+public class SpendingAnalytics {
+    private String month;
+    private String currency;
+    private List<TopExpense> largestExpenses;
+    private List<CategorySpend> topCategoriesByCount;
+    private List<CategorySpend> categories;
+    private Double median;
+    private Double p90;
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public List<TopExpense> getLargestExpenses() {
+        return largestExpenses;
+    }
+
+    public void setLargestExpenses(List<TopExpense> largestExpenses) {
+        this.largestExpenses = largestExpenses;
+    }
+
+    public List<CategorySpend> getTopCategoriesByCount() {
+        return topCategoriesByCount;
+    }
+
+    public void setTopCategoriesByCount(List<CategorySpend> topCategoriesByCount) {
+        this.topCategoriesByCount = topCategoriesByCount;
+    }
+
+    public List<CategorySpend> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<CategorySpend> categories) {
+        this.categories = categories;
+    }
+
+    public Double getMedian() {
+        return median;
+    }
+
+    public void setMedian(Double median) {
+        this.median = median;
+    }
+
+    public Double getP90() {
+        return p90;
+    }
+
+    public void setP90(Double p90) {
+        this.p90 = p90;
+    }
+}
@@ -0,0 +1,50 @@
+package com.money.manager.dto;
+
+public class TenantUsage {
+    private String tenantId;
+    private long reads;
+    private long writes;
+    private long databaseTimeMs;
+
+    public TenantUsage() {
+    }
+
+    public TenantUsage(String tenantId, long reads, long writes, long databaseTimeMs) {
+        this.tenantId = tenantId;
+        this.reads = reads;
+        this.writes = writes;
+        this.databaseTimeMs = databaseTimeMs;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public long getReads() {
+        return reads;
+    }
+
+    public void setReads(long reads) {
+        this.reads = reads;
+    }
+
+    public long getWrites() {
+        return writes;
+    }
+
+    public void setWrites(long writes) {
+        this.writes = writes;
+    }
+
+    public long getDatabaseTimeMs() {
+        return databaseTimeMs;
+    }
+
+    public void setDatabaseTimeMs(long databaseTimeMs) {
+        this.databaseTimeMs = databaseTimeMs;
+    }
+}
@@ -0,0 +1,40 @@
+package com.money.manager.dto;
+
+public class TransactionChange {
+    private String action; // CREATED, UPDATED, DELETED
+    private String id;
+    private TransactionResponse transaction; // null for DELETED
+
+    public TransactionChange() {
+    }
+
+    public TransactionChange(String action, String id, TransactionResponse transaction) {
+        this.action = action;
+        this.id = id;
+        this.transaction = transaction;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public TransactionResponse getTransaction() {
+        return transaction;
+    }
+
+    public void setTransaction(TransactionResponse transaction) {
+        this.transaction = transaction;
+    }
+}
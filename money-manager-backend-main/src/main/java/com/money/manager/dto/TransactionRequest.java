@@ -5,6 +5,7 @@ import com.money.manager.enums.TransactionType;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 
 import java.time.Instant;
 
@@ -21,6 +22,11 @@ public class TransactionRequest {
     @Min(value = 0, message = "Amount must be positive")
     private Double amount;
 
+    // Optional ISO 4217 code; defaults to the base currency (fx.base-currency)
+    @Pattern(regexp = "[A-Za-z]{3}", message = "Currency must be a 3-letter ISO code")
+    private String currency;
+
+    // A flat name or a hierarchy path such as "Food > Groceries > Produce"; missing nodes are created
     @NotBlank(message = "Category is required")
     private String category;
 
@@ -53,6 +59,14 @@ public class TransactionRequest {
         this.amount = amount;
     }
 
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
     public String getCategory() {
         return category;
     }
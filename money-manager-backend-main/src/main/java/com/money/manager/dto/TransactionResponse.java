@@ -13,6 +13,7 @@ public class TransactionResponse {
     private String id;
     private TransactionType type;
     private Double amount;
+    private String currency;
     private String category;
     private Division division;
     private String description;
@@ -20,6 +21,8 @@ public class TransactionResponse {
     private Instant createdAt;
     private String sourceAccount;
     private String targetAccount;
+    private boolean anomalous;
+    private Double anomalyScore;
 
     public String getId() {
         return id;
@@ -45,6 +48,14 @@ public class TransactionResponse {
         this.amount = amount;
     }
 
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
     public String getCategory() {
         return category;
     }
@@ -100,4 +111,20 @@ public class TransactionResponse {
     public void setTargetAccount(String targetAccount) {
         this.targetAccount = targetAccount;
     }
+
+    public boolean isAnomalous() {
+        return anomalous;
+    }
+
+    public void setAnomalous(boolean anomalous) {
+        this.anomalous = anomalous;
+    }
+
+    public Double getAnomalyScore() {
+        return anomalyScore;
+    }
+
+    public void setAnomalyScore(Double anomalyScore) {
+        this.anomalyScore = anomalyScore;
+    }
 }
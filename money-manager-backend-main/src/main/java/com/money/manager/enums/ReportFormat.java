@@ -0,0 +1,6 @@
+package com.money.manager.enums;
+
+public enum ReportFormat {
+    CSV,
+    JSON
+}
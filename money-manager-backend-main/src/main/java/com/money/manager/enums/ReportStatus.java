@@ -0,0 +1,8 @@
+package com.money.manager.enums;
+
+public enum ReportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,31 @@
+package com.money.manager.event;
+
+/**
+ * Published when a category is renamed or moved, after the category tree has the new paths and
+ * before any transaction is re-pathed. fromPath and toPath are the paths of the moved node; its
+ * descendants move with it. The transaction rewrites that follow publish TransactionChangedEvent.moved.
+ */
+public class CategoryMovedEvent {
+
+    private final String tenantId;
+    private final String fromPath;
+    private final String toPath;
+
+    public CategoryMovedEvent(String tenantId, String fromPath, String toPath) {
+        this.tenantId = tenantId;
+        this.fromPath = fromPath;
+        this.toPath = toPath;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public String getFromPath() {
+        return fromPath;
+    }
+
+    public String getToPath() {
+        return toPath;
+    }
+}
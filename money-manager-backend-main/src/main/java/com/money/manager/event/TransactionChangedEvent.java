@@ -0,0 +1,69 @@
+package com.money.manager.event;
+
+import com.money.manager.model.Transaction;
+
+/**
+ * Published after a transaction has been written (API, ingestion flush, statement import).
+ * before is null for creates, after is null for deletes. Listeners run synchronously on the
+ * writing thread, so they must be cheap (in-memory index/counter updates). Listeners keep their
+ * state per tenant and must take the tenant from the event, not from the thread.
+ *
+ * An update made by a category rename or move also names the root of the moved subtree
+ * (movedFrom -> movedTo), for listeners that keep state keyed by category path and re-key it
+ * when the move happens (see CategoryMovedEvent).
+ */
+public class TransactionChangedEvent {
+
+    private final Transaction before;
+    private final Transaction after;
+    private final String movedFrom;
+    private final String movedTo;
+
+    private TransactionChangedEvent(Transaction before, Transaction after, String movedFrom, String movedTo) {
+        this.before = before;
+        this.after = after;
+        this.movedFrom = movedFrom;
+        this.movedTo = movedTo;
+    }
+
+    private TransactionChangedEvent(Transaction before, Transaction after) {
+        this(before, after, null, null);
+    }
+
+    public static TransactionChangedEvent created(Transaction after) {
+        return new TransactionChangedEvent(null, after);
+    }
+
+    public static TransactionChangedEvent updated(Transaction before, Transaction after) {
+        return new TransactionChangedEvent(before, after);
+    }
+
+    public static TransactionChangedEvent deleted(Transaction before) {
+        return new TransactionChangedEvent(before, null);
+    }
+
+    public static TransactionChangedEvent moved(Transaction before, Transaction after, String movedFrom,
+            String movedTo) {
+        return new TransactionChangedEvent(before, after, movedFrom, movedTo);
+    }
+
+    public Transaction getBefore() {
+        return before;
+    }
+
+    public Transaction getAfter() {
+        return after;
+    }
+
+    public String getMovedFrom() {
+        return movedFrom;
+    }
+
+    public String getMovedTo() {
+        return movedTo;
+    }
+
+    public String getTenantId() {
+        return after != null ? after.getTenantId() : before.getTenantId();
+    }
+}
@@ -0,0 +1,87 @@
+package com.money.manager.mapper;
+
+import com.money.manager.dto.TransactionRequest;
+import com.money.manager.dto.TransactionResponse;
+import com.money.manager.model.Category;
+import com.money.manager.model.Transaction;
+import com.money.manager.service.CategoryService;
+import com.money.manager.service.FxRateService;
+import com.money.manager.util.CategoryPath;
+import com.money.manager.util.TenantContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shared request/entity/response mapping so every write path (synchronous API,
+ * write-behind ingestion) stores exactly the same document shape. mapToEntity stamps the
+ * tenant bound to the calling thread.
+ */
+@Component
+public class TransactionMapper {
+
+    private final FxRateService fxRateService;
+    private final CategoryService categoryService;
+
+    public TransactionMapper(FxRateService fxRateService, CategoryService categoryService) {
+        this.fxRateService = fxRateService;
+        this.categoryService = categoryService;
+    }
+
+    public void mapToEntity(TransactionRequest request, Transaction transaction) {
+        transaction.setTenantId(TenantContext.current());
+        transaction.setType(request.getType());
+        transaction.setAmount(request.getAmount());
+        transaction.setCurrency(fxRateService.resolveCurrency(request.getCurrency()));
+        Category category = categoryService.resolve(request.getCategory());
+        transaction.setCategory(CategoryPath.display(category.getPath()));
+        transaction.setCategoryPath(category.getPath());
+        transaction.setDivision(request.getDivision());
+        transaction.setDescription(request.getDescription());
+        transaction.setTransactionDate(request.getTransactionDate());
+        transaction.setSourceAccount(request.getSourceAccount());
+        transaction.setTargetAccount(request.getTargetAccount());
+    }
+
+    /** Snapshot used as the "before" state of change events. */
+    public Transaction copy(Transaction source) {
+        Transaction copy = new Transaction();
+        copy.setId(source.getId());
+        copy.setTenantId(source.getTenantId());
+        copy.setType(source.getType());
+        copy.setAmount(source.getAmount());
+        copy.setCurrency(source.getCurrency());
+        copy.setCategory(source.getCategory());
+        copy.setCategoryPath(source.getCategoryPath());
+        copy.setDivision(source.getDivision());
+        copy.setDescription(source.getDescription());
+        copy.setTransactionDate(source.getTransactionDate());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setSourceAccount(source.getSourceAccount());
+        copy.setTargetAccount(source.getTargetAccount());
+        copy.setFingerprint(source.getFingerprint());
+        copy.setRecurrenceKey(source.getRecurrenceKey());
+        copy.setAnomalyScore(source.getAnomalyScore());
+        copy.setAnomalous(source.getAnomalous());
+        copy.setAnomalySample(source.getAnomalySample());
+        return copy;
+    }
+
+    public TransactionResponse mapToResponse(Transaction transaction) {
+        TransactionResponse response = new TransactionResponse();
+        response.setId(transaction.getId());
+        response.setType(transaction.getType());
+        response.setAmount(transaction.getAmount());
+        response.setCurrency(transaction.getCurrency() != null
+                ? transaction.getCurrency() : fxRateService.getTable().getBaseCurrency());
+        response.setCategory(transaction.getCategory());
+        response.setDivision(transaction.getDivision());
+        response.setDescription(transaction.getDescription());
+        response.setTransactionDate(transaction.getTransactionDate());
+        response.setCreatedAt(transaction.getCreatedAt());
+        response.setSourceAccount(transaction.getSourceAccount());
+        response.setTargetAccount(transaction.getTargetAccount());
+        response.setAnomalous(Boolean.TRUE.equals(transaction.getAnomalous()));
+        response.setAnomalyScore(transaction.getAnomalyScore());
+        return response;
+    }
+}
@@ -0,0 +1,97 @@
+package com.money.manager.model;
+
+import com.money.manager.enums.Division;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Persisted snapshot of one category + division expense baseline: exponentially weighted mean
+ * and variance of log(amount in base currency). The anomaly detector owns the live values in
+ * memory and writes these periodically. id is "tenantId|category|division".
+ */
+@Document(collection = "anomaly_baselines")
+public class AnomalyBaseline {
+
+    @Id
+    private String id;
+
+    private String tenantId;
+
+    private String category;
+
+    private Division division;
+
+    private Double mean;
+
+    private Double variance;
+
+    private Long count;
+
+    private Instant updatedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Division getDivision() {
+        return division;
+    }
+
+    public void setDivision(Division division) {
+        this.division = division;
+    }
+
+    public Double getMean() {
+        return mean;
+    }
+
+    public void setMean(Double mean) {
+        this.mean = mean;
+    }
+
+    public Double getVariance() {
+        return variance;
+    }
+
+    public void setVariance(Double variance) {
+        this.variance = variance;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
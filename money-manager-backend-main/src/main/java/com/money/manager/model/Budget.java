@@ -0,0 +1,132 @@
+package com.money.manager.model;
+
+import com.money.manager.enums.Division;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Monthly expense budget for one category subtree + division. month is "yyyy-MM" in UTC.
+ * categoryPath is the managed path (category is its display form); spending anywhere under it
+ * counts. spent is maintained in memory by the budget service and persisted periodically.
+ */
+@Document(collection = "budgets")
+@CompoundIndex(name = "tenant_categoryPath_division_month",
+        def = "{'tenantId': 1, 'categoryPath': 1, 'division': 1, 'month': 1}", unique = true,
+        partialFilter = "{'categoryPath': {$exists: true}}")
+public class Budget {
+
+    @Id
+    private String id;
+
+    private String tenantId;
+
+    private String category;
+
+    private String categoryPath;
+
+    private Division division;
+
+    private String month;
+
+    private Double limitAmount;
+
+    private Double spent;
+
+    // Highest alert threshold (percent) already reported for the current spend level
+    private Integer alertedThreshold;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getCategoryPath() {
+        return categoryPath;
+    }
+
+    public void setCategoryPath(String categoryPath) {
+        this.categoryPath = categoryPath;
+    }
+
+    public Division getDivision() {
+        return division;
+    }
+
+    public void setDivision(Division division) {
+        this.division = division;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public Double getLimitAmount() {
+        return limitAmount;
+    }
+
+    public void setLimitAmount(Double limitAmount) {
+        this.limitAmount = limitAmount;
+    }
+
+    public Double getSpent() {
+        return spent;
+    }
+
+    public void setSpent(Double spent) {
+        this.spent = spent;
+    }
+
+    public Integer getAlertedThreshold() {
+        return alertedThreshold;
+    }
+
+    public void setAlertedThreshold(Integer alertedThreshold) {
+        this.alertedThreshold = alertedThreshold;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
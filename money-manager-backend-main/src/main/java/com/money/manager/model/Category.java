@@ -0,0 +1,91 @@
+package com.money.manager.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Node of the category hierarchy. path is the materialized path of names ("Food>Groceries>"),
+ * denormalized onto every Transaction as categoryPath.
+ */
+@Document(collection = "categories")
+@CompoundIndexes({
+        @CompoundIndex(name = "tenant_path", def = "{'tenantId': 1, 'path': 1}", unique = true),
+        @CompoundIndex(name = "tenant_parentId", def = "{'tenantId': 1, 'parentId': 1}")
+})
+public class Category {
+
+    @Id
+    private String id;
+
+    private String tenantId;
+
+    private String name;
+
+    private String parentId;
+
+    private String path;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(String parentId) {
+        this.parentId = parentId;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,98 @@
+package com.money.manager.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Pending background rewrite of transactions after a category rename or move (or the one-off
+ * backfill of legacy flat categories, where fromPath is null and legacyCategory is matched).
+ * movedFrom/movedTo are the paths of the node the user moved, shared by the rewrites of its subtree.
+ * Deleted once no transaction matches, so unfinished work resumes after a restart. Rewrites only
+ * touch transactions of their own tenant.
+ */
+@Document(collection = "category_rewrites")
+public class CategoryRewrite {
+
+    @Id
+    private String id;
+
+    private String tenantId;
+
+    private String fromPath;
+
+    private String legacyCategory;
+
+    private String toPath;
+
+    private String movedFrom;
+
+    private String movedTo;
+
+    private Instant createdAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getFromPath() {
+        return fromPath;
+    }
+
+    public void setFromPath(String fromPath) {
+        this.fromPath = fromPath;
+    }
+
+    public String getLegacyCategory() {
+        return legacyCategory;
+    }
+
+    public void setLegacyCategory(String legacyCategory) {
+        this.legacyCategory = legacyCategory;
+    }
+
+    public String getToPath() {
+        return toPath;
+    }
+
+    public void setToPath(String toPath) {
+        this.toPath = toPath;
+    }
+
+    public String getMovedFrom() {
+        return movedFrom;
+    }
+
+    public void setMovedFrom(String movedFrom) {
+        this.movedFrom = movedFrom;
+    }
+
+    public String getMovedTo() {
+        return movedTo;
+    }
+
+    public void setMovedTo(String movedTo) {
+        this.movedTo = movedTo;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,228 @@
+package com.money.manager.model;
+
+import com.money.manager.enums.Division;
+import com.money.manager.enums.TransactionType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Template for a transaction that repeats on a cron schedule (evaluated in UTC). nextRun is the
+ * next occurrence not yet materialized; the scheduler advances it after writing occurrences.
+ * The scheduler scans due templates across all tenants, so active_nextRun is the one index that
+ * does not lead with tenantId; a manual run for one tenant uses tenant_active_nextRun.
+ */
+@Document(collection = "recurring_templates")
+@CompoundIndexes({
+        @CompoundIndex(name = "active_nextRun", def = "{'active': 1, 'nextRun': 1}"),
+        @CompoundIndex(name = "tenant_active_nextRun", def = "{'tenantId': 1, 'active': 1, 'nextRun': 1}"),
+        @CompoundIndex(name = "tenant_name", def = "{'tenantId': 1, 'name': 1}")
+})
+public class RecurringTemplate {
+
+    @Id
+    private String id;
+
+    private String tenantId;
+
+    private String name;
+
+    // Spring cron (second minute hour day month weekday), UTC
+    private String cron;
+
+    private TransactionType type;
+
+    private Double amount;
+
+    private String currency;
+
+    private String category;
+
+    private Division division;
+
+    private String description;
+
+    private String sourceAccount;
+
+    private String targetAccount;
+
+    private Instant startDate;
+
+    private Instant endDate;
+
+    private Instant nextRun;
+
+    private Instant lastOccurrence;
+
+    private boolean active;
+
+    // Why the scheduler deactivated the template; cleared when the template is saved again
+    private String lastError;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Division getDivision() {
+        return division;
+    }
+
+    public void setDivision(Division division) {
+        this.division = division;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getSourceAccount() {
+        return sourceAccount;
+    }
+
+    public void setSourceAccount(String sourceAccount) {
+        this.sourceAccount = sourceAccount;
+    }
+
+    public String getTargetAccount() {
+        return targetAccount;
+    }
+
+    public void setTargetAccount(String targetAccount) {
+        this.targetAccount = targetAccount;
+    }
+
+    public Instant getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(Instant startDate) {
+        this.startDate = startDate;
+    }
+
+    public Instant getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(Instant endDate) {
+        this.endDate = endDate;
+    }
+
+    public Instant getNextRun() {
+        return nextRun;
+    }
+
+    public void setNextRun(Instant nextRun) {
+        this.nextRun = nextRun;
+    }
+
+    public Instant getLastOccurrence() {
+        return lastOccurrence;
+    }
+
+    public void setLastOccurrence(Instant lastOccurrence) {
+        this.lastOccurrence = lastOccurrence;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -5,35 +5,68 @@ import com.money.manager.enums.TransactionType;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Sharded;
+import org.springframework.data.mongodb.core.mapping.ShardingStrategy;
 
 import java.time.Instant;
 
 /**
  * All date fields are stored in UTC (MongoDB BSON Date = UTC).
  * Never use server timezone for storage or querying.
+ *
+ * Every index leads with tenantId, so a tenant's queries only read its own key range, and the
+ * collection is laid out for the compound shard key {tenantId: 1, _id: "hashed"}: a tenant's
+ * queries are routed to the shards holding its range, and one large tenant still splits into
+ * chunks instead of pinning a single shard. A sharded collection only enforces unique indexes
+ * that start with the whole shard key, so recurring occurrences and imported rows are kept
+ * unique through an _id derived from their key (see TransactionBulkWriter) rather than a unique
+ * index. The $text index is created by TenantMigration because annotations cannot give it the
+ * tenantId prefix.
  */
 @Document(collection = "transactions")
+@Sharded(shardKey = {"tenantId", "_id"}, shardingStrategy = ShardingStrategy.HASH, immutableKey = true)
+@CompoundIndexes({
+        // Supports the shard key, so an existing collection can be sharded
+        @CompoundIndex(name = "tenant_id_hashed", def = "{'tenantId': 1, '_id': 'hashed'}"),
+        @CompoundIndex(name = "tenant_transactionDate", def = "{'tenantId': 1, 'transactionDate': 1}"),
+        @CompoundIndex(name = "tenant_division_transactionDate",
+                def = "{'tenantId': 1, 'division': 1, 'transactionDate': 1}"),
+        @CompoundIndex(name = "tenant_category_transactionDate",
+                def = "{'tenantId': 1, 'category': 1, 'transactionDate': 1}"),
+        @CompoundIndex(name = "tenant_categoryPath_transactionDate",
+                def = "{'tenantId': 1, 'categoryPath': 1, 'transactionDate': 1}"),
+        @CompoundIndex(name = "tenant_anomalous_transactionDate",
+                def = "{'tenantId': 1, 'anomalous': 1, 'transactionDate': -1}",
+                partialFilter = "{'anomalous': true}"),
+        @CompoundIndex(name = "tenant_fingerprint_lookup", def = "{'tenantId': 1, 'fingerprint': 1}",
+                partialFilter = "{'fingerprint': {'$exists': true}}")
+})
 public class Transaction {
 
     @Id
     private String id;
 
-    @Indexed
+    private String tenantId;
+
     private TransactionType type;
 
     private Double amount;
 
-    @Indexed
+    // ISO 4217 code; documents written before multi-currency support have none and are in the base currency
+    private String currency;
+
     private String category;
 
-    @Indexed
+    // Materialized path of category ("Food>Groceries>"); subtree queries are prefix matches on it
+    private String categoryPath;
+
     private Division division;
 
     private String description;
 
-    @Indexed
     private Instant transactionDate;
 
     @CreatedDate
@@ -46,6 +79,21 @@ public class Transaction {
     private String sourceAccount;
     private String targetAccount;
 
+    // Set on create and edit by the anomaly detector: z-score of log(amount) against the category/division baseline
+    private Double anomalyScore;
+
+    // Only stored when true, so the partial index holds just the flagged transactions
+    private Boolean anomalous;
+
+    // Samples its baseline had seen once this expense was folded in; a delete uses it to weigh the withdrawal
+    private Long anomalySample;
+
+    // Recurring occurrences only: "<templateId>@<occurrence epoch millis>"; the _id derives from it, so each occurrence posts once
+    private String recurrenceKey;
+
+    // Statement imports only: hash of (date, amount, description, account) for dedup; the _id derives from it
+    private String fingerprint;
+
     // Getters and Setters
 
     public String getId() {
@@ -56,6 +104,14 @@ public class Transaction {
         this.id = id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
     public TransactionType getType() {
         return type;
     }
@@ -72,6 +128,14 @@ public class Transaction {
         this.amount = amount;
     }
 
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
     public String getCategory() {
         return category;
     }
@@ -80,6 +144,14 @@ public class Transaction {
         this.category = category;
     }
 
+    public String getCategoryPath() {
+        return categoryPath;
+    }
+
+    public void setCategoryPath(String categoryPath) {
+        this.categoryPath = categoryPath;
+    }
+
     public Division getDivision() {
         return division;
     }
@@ -135,4 +207,44 @@ public class Transaction {
     public void setTargetAccount(String targetAccount) {
         this.targetAccount = targetAccount;
     }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public Double getAnomalyScore() {
+        return anomalyScore;
+    }
+
+    public void setAnomalyScore(Double anomalyScore) {
+        this.anomalyScore = anomalyScore;
+    }
+
+    public Boolean getAnomalous() {
+        return anomalous;
+    }
+
+    public void setAnomalous(Boolean anomalous) {
+        this.anomalous = anomalous;
+    }
+
+    public Long getAnomalySample() {
+        return anomalySample;
+    }
+
+    public void setAnomalySample(Long anomalySample) {
+        this.anomalySample = anomalySample;
+    }
+
+    public String getRecurrenceKey() {
+        return recurrenceKey;
+    }
+
+    public void setRecurrenceKey(String recurrenceKey) {
+        this.recurrenceKey = recurrenceKey;
+    }
 }
@@ -0,0 +1,9 @@
+package com.money.manager.repository;
+
+import com.money.manager.model.AnomalyBaseline;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AnomalyBaselineRepository extends MongoRepository<AnomalyBaseline, String> {
+}
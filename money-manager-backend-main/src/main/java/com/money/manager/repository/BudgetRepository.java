@@ -0,0 +1,14 @@
+package com.money.manager.repository;
+
+import com.money.manager.enums.Division;
+import com.money.manager.model.Budget;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BudgetRepository extends MongoRepository<Budget, String> {
+    Optional<Budget> findByTenantIdAndCategoryPathAndDivisionAndMonth(String tenantId, String categoryPath, Division division,
+            String month);
+}
@@ -0,0 +1,12 @@
+package com.money.manager.repository;
+
+import com.money.manager.model.Category;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CategoryRepository extends MongoRepository<Category, String> {
+    Optional<Category> findByTenantIdAndPath(String tenantId, String path);
+}
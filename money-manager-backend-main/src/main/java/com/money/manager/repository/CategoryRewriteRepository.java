@@ -0,0 +1,9 @@
+package com.money.manager.repository;
+
+import com.money.manager.model.CategoryRewrite;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CategoryRewriteRepository extends MongoRepository<CategoryRewrite, String> {
+}
@@ -0,0 +1,17 @@
+package com.money.manager.repository;
+
+import com.money.manager.model.RecurringTemplate;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecurringTemplateRepository extends MongoRepository<RecurringTemplate, String> {
+    List<RecurringTemplate> findByTenantId(String tenantId);
+
+    Optional<RecurringTemplate> findByIdAndTenantId(String id, String tenantId);
+
+    boolean existsByIdAndTenantId(String id, String tenantId);
+}
@@ -0,0 +1,84 @@
+package com.money.manager.repository;
+
+import com.money.manager.model.Transaction;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Unordered bulk inserts where a duplicate key (replayed id, fingerprint, occurrence key)
+ * means "already written" rather than an error. A recurring occurrence or an imported row gets
+ * an _id derived from its tenant and key, so the duplicate is caught by the _id index, which a
+ * collection sharded on {tenantId, _id} still enforces.
+ */
+@Component
+public class TransactionBulkWriter {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public TransactionBulkWriter(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /** Returns the transactions that were actually inserted. */
+    public List<Transaction> insertIgnoringDuplicates(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return transactions;
+        }
+        // Bulk inserts do not write generated ids back, and change events need them
+        for (Transaction transaction : transactions) {
+            if (transaction.getId() == null) {
+                transaction.setId(keyedId(transaction));
+            }
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class);
+        bulk.insert(transactions);
+        try {
+            bulk.execute();
+            return transactions;
+        } catch (BulkOperationException e) {
+            boolean onlyDuplicates = e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+            Set<Integer> skipped = e.getErrors().stream().map(BulkWriteError::getIndex).collect(Collectors.toSet());
+            List<Transaction> inserted = new ArrayList<>(transactions.size() - skipped.size());
+            for (int i = 0; i < transactions.size(); i++) {
+                if (!skipped.contains(i)) {
+                    inserted.add(transactions.get(i));
+                }
+            }
+            return inserted;
+        }
+    }
+
+    /** 24 hex digits, so it is stored as an ObjectId like generated ids. */
+    static String keyedId(Transaction transaction) {
+        String key = transaction.getRecurrenceKey() != null ? "recurrence|" + transaction.getRecurrenceKey()
+                : transaction.getFingerprint() != null ? "fingerprint|" + transaction.getFingerprint() : null;
+        if (key == null) {
+            return new ObjectId().toHexString();
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((transaction.getTenantId() + "|" + key).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package com.money.manager.repository;
 
 import com.money.manager.model.Transaction;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * All date queries use UTC Instant. End is exclusive (transactionDate < end).
+ * Every finder is scoped by tenantId; use these instead of the inherited id-only methods.
  */
 @Repository
 public interface TransactionRepository extends MongoRepository<Transaction, String> {
-    List<Transaction> findByTransactionDateGreaterThanEqualAndTransactionDateLessThanOrderByTransactionDateDesc(
-            Instant start, Instant end);
+    Optional<Transaction> findByIdAndTenantId(String id, String tenantId);
+
+    Page<Transaction> findByTenantId(String tenantId, Pageable pageable);
+
+    List<Transaction> findByTenantIdAndTransactionDateGreaterThanEqualAndTransactionDateLessThanOrderByTransactionDateDesc(
+            String tenantId, Instant start, Instant end);
 }
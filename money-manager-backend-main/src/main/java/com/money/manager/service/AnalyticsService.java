@@ -0,0 +1,8 @@
+package com.money.manager.service;
+
+import com.money.manager.dto.SpendingAnalytics;
+
+public interface AnalyticsService {
+    /** month is yyyy-MM (UTC), null = current month; limit caps both top-N lists. */
+    SpendingAnalytics getSpendingAnalytics(String month, int limit);
+}
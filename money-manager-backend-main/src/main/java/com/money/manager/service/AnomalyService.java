@@ -0,0 +1,23 @@
+package com.money.manager.service;
+
+import com.money.manager.dto.TransactionResponse;
+import com.money.manager.model.Transaction;
+
+import java.util.List;
+
+public interface AnomalyService {
+    /** Scores an expense against its category/division baseline before it is saved; O(1), in memory, no side effects. */
+    void score(Transaction transaction);
+
+    /** Scores an edited expense against its baseline without the previous version; no side effects. */
+    void rescore(Transaction before, Transaction after);
+
+    /** Folds a scored expense into its baseline; call once its write has been accepted. */
+    void observe(Transaction transaction);
+
+    /** Withdraws a stored expense from its baseline after it was deleted, or replaced by an edit. */
+    void unobserve(Transaction transaction);
+
+    /** Most recent flagged transactions first. */
+    List<TransactionResponse> getAnomalies(int limit);
+}
@@ -0,0 +1,21 @@
+package com.money.manager.service;
+
+import com.money.manager.dto.BudgetAlert;
+import com.money.manager.dto.BudgetRequest;
+import com.money.manager.dto.BudgetStatus;
+
+import java.util.List;
+
+public interface BudgetService {
+    /** Creates the budget for (category, division, month) or updates its limit. */
+    BudgetStatus saveBudget(BudgetRequest request);
+
+    List<BudgetStatus> getBudgets(String month); // yyyy-MM (UTC)
+
+    BudgetStatus getBudgetStatus(String id);
+
+    void deleteBudget(String id);
+
+    /** Alerts with sequence greater than after, oldest first. Only recent alerts are retained. */
+    List<BudgetAlert> getAlerts(long after);
+}
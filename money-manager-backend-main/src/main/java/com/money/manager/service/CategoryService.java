@@ -0,0 +1,23 @@
+package com.money.manager.service;
+
+import com.money.manager.dto.CategoryRequest;
+import com.money.manager.dto.CategoryResponse;
+import com.money.manager.dto.CategoryRollup;
+import com.money.manager.model.Category;
+
+import java.util.List;
+
+public interface CategoryService {
+    /** Resolves "A > B > C" (or a flat name) to its node, creating missing nodes. Cached; called on every write. */
+    Category resolve(String category);
+
+    List<CategoryResponse> getCategories();
+
+    CategoryResponse createCategory(CategoryRequest request);
+
+    /** Rename and/or move; transactions in the subtree are rewritten in the background. */
+    CategoryResponse updateCategory(String id, CategoryRequest request);
+
+    /** Totals for every node of the subtree under category (null = whole tree), descendants included. */
+    List<CategoryRollup> getRollup(String category, String period, String currency);
+}
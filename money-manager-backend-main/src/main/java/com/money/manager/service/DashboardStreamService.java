@@ -0,0 +1,8 @@
+package com.money.manager.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface DashboardStreamService {
+    /** Registers a live dashboard subscriber; deltas are pushed after each batch of writes. */
+    SseEmitter subscribe();
+}
@@ -0,0 +1,22 @@
+package com.money.manager.service;
+
+import com.money.manager.dto.FxRatesResponse;
+import com.money.manager.util.FxRateTable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public interface FxRateService {
+    /** Current table; swapped atomically on reload, so callers should grab it once per computation. */
+    FxRateTable getTable();
+
+    /** Resolves an optional requested currency to a supported code (null = base currency). */
+    String resolveCurrency(String currency);
+
+    /** Converts a stored amount (null currency = base) to the base currency at the rate for its UTC day. */
+    double toBase(double amount, String currency, Instant date);
+
+    FxRatesResponse getRates(LocalDate date);
+
+    FxRatesResponse reload();
+}
@@ -0,0 +1,12 @@
+package com.money.manager.service;
+
+import com.money.manager.dto.IngestionAck;
+import com.money.manager.dto.TransactionRequest;
+
+public interface IngestionService {
+    /**
+     * Accepts a transaction for write-behind persistence. Falls back to a synchronous
+     * create when the ingestion mode is disabled.
+     */
+    IngestionAck accept(TransactionRequest request);
+}
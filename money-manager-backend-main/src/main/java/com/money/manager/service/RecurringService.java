@@ -0,0 +1,20 @@
+package com.money.manager.service;
+
+import com.money.manager.dto.RecurringRunResult;
+import com.money.manager.dto.RecurringTemplateRequest;
+import com.money.manager.dto.RecurringTemplateResponse;
+
+import java.util.List;
+
+public interface RecurringService {
+    RecurringTemplateResponse createTemplate(RecurringTemplateRequest request);
+
+    List<RecurringTemplateResponse> getTemplates();
+
+    RecurringTemplateResponse updateTemplate(String id, RecurringTemplateRequest request);
+
+    void deleteTemplate(String id);
+
+    /** Posts every due occurrence (including missed ones) for the current tenant's active templates. */
+    RecurringRunResult materializeDue();
+}
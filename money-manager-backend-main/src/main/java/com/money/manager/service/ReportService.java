@@ -0,0 +1,16 @@
+package com.money.manager.service;
+
+import com.money.manager.dto.ReportJob;
+import com.money.manager.dto.ReportRequest;
+
+import java.nio.file.Path;
+
+public interface ReportService {
+    /** Returns the existing job when the same report over the same ledger version was already requested. */
+    ReportJob submit(ReportRequest request);
+
+    ReportJob getJob(String id);
+
+    /** File of a completed job; BusinessRuleException while it is still queued, running or failed. */
+    Path getResult(String id);
+}
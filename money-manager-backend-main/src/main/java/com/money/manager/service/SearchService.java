@@ -0,0 +1,18 @@
+package com.money.manager.service;
+
+import com.money.manager.dto.TransactionResponse;
+import com.money.manager.enums.Division;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SearchService {
+    /**
+     * Ranked full-text search over description and category, tolerant of prefixes and small typos.
+     * Date range is start inclusive, end exclusive (UTC); all filters are optional.
+     */
+    List<TransactionResponse> search(String query, Instant startDate, Instant endDate, Division division, int limit);
+
+    /** Distinct categories starting with prefix (case-insensitive), most used first. */
+    List<String> autocompleteCategories(String prefix, int limit);
+}
@@ -0,0 +1,11 @@
+package com.money.manager.service;
+
+import com.money.manager.dto.ImportMapping;
+import com.money.manager.dto.ImportResult;
+
+import java.io.InputStream;
+
+public interface StatementImportService {
+    /** Stream-parses a CSV/OFX statement; rows already imported (same fingerprint) are skipped. */
+    ImportResult importStatement(InputStream input, ImportMapping mapping);
+}
@@ -0,0 +1,13 @@
+package com.money.manager.service;
+
+import com.money.manager.dto.TenantUsage;
+
+import java.util.List;
+
+public interface TenantUsageService {
+    /** Counts one MongoDB command for the tenant bound to the calling thread. */
+    void record(String commandName, long elapsedMicros);
+
+    /** Tenants with the most database time since startup, heaviest first. */
+    List<TenantUsage> getUsage(int limit);
+}
@@ -23,7 +23,8 @@ public interface TransactionService {
     List<TransactionResponse> filterTransactions(Instant startDate, Instant endDate, String category,
             Division division);
 
-    DashboardStats getDashboardStats(String period); // weekly, monthly, yearly (UTC ranges)
+    /** period: weekly, monthly, yearly (UTC ranges); currency: report currency, null = base currency. */
+    DashboardStats getDashboardStats(String period, String currency);
 
-    List<CategorySummary> getCategorySummary(String period);
+    List<CategorySummary> getCategorySummary(String period, String currency);
 }
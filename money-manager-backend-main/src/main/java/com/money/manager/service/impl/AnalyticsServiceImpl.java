@@ -0,0 +1,466 @@
+package com.money.manager.service.impl;
+
+import com.money.manager.dto.CategorySpend;
+import com.money.manager.dto.SpendingAnalytics;
+import com.money.manager.dto.TopExpense;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.event.TransactionChangedEvent;
+import com.money.manager.exception.BusinessRuleException;
+import com.money.manager.model.Transaction;
+import com.money.manager.service.AnalyticsService;
+import com.money.manager.service.FxRateService;
+import com.money.manager.util.TDigest;
+import com.money.manager.util.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Expense analytics from per-month sketches instead of sorting result sets: per category a
+ * count, a total and a t-digest (median/p90), and per month a min-heap holding the
+ * largest expenses. Loaded months are updated from TransactionChangedEvents, so a report only
+ * reads the sketches.
+ *
+ * A month is built by one streaming scan into a fresh state outside any lock and swapped in
+ * when complete; changes that land during the scan are journaled by id and replayed onto the
+ * fresh state, replacing whatever version the cursor saw. Deletes and edits are applied to the
+ * current state: counts and totals exactly, the digest through a second digest of removed
+ * values, and the heap (kept at twice analytics.top-k-capacity) stays the exact top of what
+ * remains. Only when the heap runs short or removals outweigh half a digest is the month
+ * rebuilt in the background, while reads keep using the current state.
+ *
+ * Sketches belong to one tenant; each tenant keeps up to analytics.max-months of them.
+ */
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final FxRateService fxRateService;
+    private final int topCapacity;
+    private final double compression;
+    private final int maxMonths;
+
+    // tenantId -> month -> sketch
+    private final Map<String, Map<YearMonth, MonthSketch>> monthsByTenant = new ConcurrentHashMap<>();
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "analytics-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AnalyticsServiceImpl(MongoTemplate mongoTemplate, FxRateService fxRateService,
+            @Value("${analytics.top-k-capacity:100}") int topCapacity,
+            @Value("${analytics.digest-compression:200}") double compression,
+            @Value("${analytics.max-months:24}") int maxMonths) {
+        this.mongoTemplate = mongoTemplate;
+        this.fxRateService = fxRateService;
+        this.topCapacity = topCapacity;
+        this.compression = compression;
+        this.maxMonths = maxMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCurrentMonth() {
+        loader.execute(() -> {
+            try {
+                YearMonth current = YearMonth.now(ZoneOffset.UTC);
+                Query active = new Query(Criteria.where("transactionDate")
+                        .gte(current.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+                for (String tenantId : mongoTemplate.findDistinct(active, TenantContext.FIELD, "transactions",
+                        String.class)) {
+                    sketch(tenantId, current);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not warm spending analytics; the month will be built on first request", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    @Override
+    public SpendingAnalytics getSpendingAnalytics(String month, int limit) {
+        YearMonth yearMonth;
+        try {
+            yearMonth = month == null || month.isBlank() ? YearMonth.now(ZoneOffset.UTC) : YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new BusinessRuleException("Month must be yyyy-MM");
+        }
+        int top = Math.max(1, Math.min(limit, topCapacity));
+        MonthSketch sketch = sketch(TenantContext.current(), yearMonth);
+
+        SpendingAnalytics analytics = new SpendingAnalytics();
+        analytics.setMonth(yearMonth.toString());
+        analytics.setCurrency(fxRateService.getTable().getBaseCurrency());
+        boolean compact;
+        synchronized (sketch) {
+            MonthState state = sketch.state;
+            List<TopExpense> largest = new ArrayList<>(state.largest);
+            largest.sort(Comparator.comparingDouble(TopExpense::getBaseAmount).reversed());
+            analytics.setLargestExpenses(largest.size() > top ? largest.subList(0, top) : largest);
+
+            TDigest overall = new TDigest(compression);
+            TDigest overallRemoved = new TDigest(compression);
+            List<CategorySpend> categories = new ArrayList<>(state.categories.size());
+            // Bounded heap: the smallest of the current top-N by count sits on top
+            PriorityQueue<CategorySpend> byCount =
+                    new PriorityQueue<>(Comparator.comparingLong(CategorySpend::getCount));
+            for (Map.Entry<String, CategorySketch> entry : state.categories.entrySet()) {
+                CategorySketch category = entry.getValue();
+                if (category.count == 0) {
+                    continue;
+                }
+                overall.merge(category.digest);
+                overallRemoved.merge(category.removed);
+                CategorySpend spend = new CategorySpend();
+                spend.setCategory(entry.getKey());
+                spend.setCount(category.count);
+                spend.setTotal(category.total);
+                spend.setMedian(TDigest.quantile(category.digest, category.removed, 0.5));
+                spend.setP90(TDigest.quantile(category.digest, category.removed, 0.9));
+                categories.add(spend);
+                byCount.add(spend);
+                if (byCount.size() > top) {
+                    byCount.poll();
+                }
+            }
+            List<CategorySpend> topByCount = new ArrayList<>(byCount);
+            topByCount.sort(Comparator.comparingLong(CategorySpend::getCount).reversed());
+            categories.sort(Comparator.comparingDouble(CategorySpend::getTotal).reversed());
+            analytics.setTopCategoriesByCount(topByCount);
+            analytics.setCategories(categories);
+            analytics.setMedian(state.count > 0 ? TDigest.quantile(overall, overallRemoved, 0.5) : null);
+            analytics.setP90(state.count > 0 ? TDigest.quantile(overall, overallRemoved, 0.9) : null);
+            compact = needsRebuild(state) && sketch.build == null;
+            if (compact) {
+                startBuild(sketch);
+            }
+        }
+        if (compact) {
+            try {
+                loader.execute(() -> build(sketch));
+            } catch (RejectedExecutionException e) {
+                abandonBuild(sketch, e);
+            }
+        }
+        return analytics;
+    }
+
+    @EventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        Transaction before = expense(event.getBefore());
+        Transaction after = expense(event.getAfter());
+        if (before != null && after != null && sameSpend(before, after)) {
+            refreshLargest(after);
+            return;
+        }
+        if (before != null) {
+            change(before, null);
+        }
+        if (after != null) {
+            change(after, after);
+        }
+    }
+
+    /**
+     * Applies one side of a change to the transaction's month: {@code latest} is the version
+     * that now belongs there, or null when it left. A build in progress journals it as well.
+     */
+    private void change(Transaction transaction, Transaction latest) {
+        MonthSketch sketch = loadedSketch(transaction);
+        if (sketch == null) {
+            return;
+        }
+        synchronized (sketch) {
+            if (sketch.journal != null) {
+                sketch.journal.put(transaction.getId(), latest);
+            }
+            if (sketch.state != null) {
+                if (latest == null) {
+                    unrecord(sketch.state, transaction);
+                } else {
+                    record(sketch.state, latest);
+                }
+            }
+        }
+    }
+
+    /** Description-only edits and re-pathing with the same name leave the sketches as they are. */
+    private void refreshLargest(Transaction transaction) {
+        MonthSketch sketch = loadedSketch(transaction);
+        if (sketch == null) {
+            return;
+        }
+        synchronized (sketch) {
+            if (sketch.journal != null) {
+                sketch.journal.put(transaction.getId(), transaction);
+            }
+            if (sketch.state != null
+                    && sketch.state.largest.removeIf(entry -> entry.getId().equals(transaction.getId()))) {
+                sketch.state.largest.add(toTopExpense(transaction));
+            }
+        }
+    }
+
+    private MonthSketch loadedSketch(Transaction transaction) {
+        Map<YearMonth, MonthSketch> months = monthsByTenant.get(transaction.getTenantId());
+        return months != null ? months.get(monthOf(transaction)) : null;
+    }
+
+    /** The month's sketch with a state, building it (or waiting for the running build) first. */
+    private MonthSketch sketch(String tenantId, YearMonth month) {
+        Map<YearMonth, MonthSketch> months =
+                monthsByTenant.computeIfAbsent(tenantId, id -> new ConcurrentSkipListMap<>());
+        MonthSketch sketch = months.computeIfAbsent(month, m -> new MonthSketch(tenantId, m));
+        CompletableFuture<Void> pending;
+        boolean builder = false;
+        synchronized (sketch) {
+            if (sketch.state != null) {
+                return sketch;
+            }
+            if (sketch.build == null) {
+                startBuild(sketch);
+                builder = true;
+            }
+            pending = sketch.build;
+        }
+        if (builder) {
+            build(sketch);
+            evictOldMonths(months);
+        } else {
+            pending.join();
+        }
+        return sketch;
+    }
+
+    private void startBuild(MonthSketch sketch) {
+        sketch.build = new CompletableFuture<>();
+        sketch.journal = new HashMap<>();
+    }
+
+    /** Scans the month into a fresh state without holding the sketch's monitor, then swaps it in. */
+    private void build(MonthSketch sketch) {
+        CompletableFuture<Void> done;
+        try {
+            MonthState fresh = new MonthState();
+            Map<String, Transaction> scanned = new HashMap<>();
+            try (Stream<Transaction> expenses = streamExpenses(sketch)) {
+                expenses.forEach(transaction -> {
+                    scanned.put(transaction.getId(), transaction);
+                    record(fresh, transaction);
+                });
+            }
+            synchronized (sketch) {
+                // The cursor may have seen an older version, the latest one, or none of a journaled id
+                sketch.journal.forEach((id, latest) -> {
+                    Transaction seen = scanned.get(id);
+                    if (seen != null && latest != null && sameSpend(seen, latest)) {
+                        return;
+                    }
+                    if (seen != null) {
+                        unrecord(fresh, seen);
+                    }
+                    if (latest != null) {
+                        record(fresh, latest);
+                    }
+                });
+                sketch.state = fresh;
+                sketch.journal = null;
+                done = sketch.build;
+                sketch.build = null;
+            }
+        } catch (RuntimeException e) {
+            abandonBuild(sketch, e);
+            throw e;
+        }
+        done.complete(null);
+    }
+
+    private void abandonBuild(MonthSketch sketch, RuntimeException cause) {
+        CompletableFuture<Void> done;
+        synchronized (sketch) {
+            sketch.journal = null;
+            done = sketch.build;
+            sketch.build = null;
+        }
+        if (done != null) {
+            done.completeExceptionally(cause);
+        }
+    }
+
+    private void evictOldMonths(Map<YearMonth, MonthSketch> months) {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (YearMonth month : months.keySet()) {
+            if (months.size() <= maxMonths) {
+                break;
+            }
+            if (!month.equals(current)) {
+                months.remove(month);
+            }
+        }
+    }
+
+    private void record(MonthState state, Transaction transaction) {
+        double amount = toBase(transaction);
+        CategorySketch category = state.categories.computeIfAbsent(transaction.getCategory(),
+                c -> new CategorySketch(compression));
+        category.count++;
+        category.total += amount;
+        category.digest.add(amount);
+        // The heap is the exact top of the month: a value joins when the heap holds every
+        // expense or the value beats its smallest entry
+        PriorityQueue<TopExpense> largest = state.largest;
+        if (largest.size() == state.count || (!largest.isEmpty() && amount > largest.peek().getBaseAmount())) {
+            largest.add(toTopExpense(transaction));
+            if (largest.size() > topCapacity * 2) {
+                largest.poll();
+            }
+        }
+        state.count++;
+    }
+
+    private void unrecord(MonthState state, Transaction transaction) {
+        CategorySketch category = state.categories.get(transaction.getCategory());
+        if (category == null || category.count == 0) {
+            return;
+        }
+        double amount = toBase(transaction);
+        category.count--;
+        category.total -= amount;
+        if (category.count == 0) {
+            category.reset(compression);
+        } else {
+            category.removed.add(amount);
+        }
+        state.largest.removeIf(entry -> entry.getId().equals(transaction.getId()));
+        state.count--;
+    }
+
+    private boolean needsRebuild(MonthState state) {
+        if (state.largest.size() < Math.min(topCapacity, state.count)) {
+            return true;
+        }
+        for (CategorySketch category : state.categories.values()) {
+            if (category.removed.count() * 2 > category.digest.count()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Stream<Transaction> streamExpenses(MonthSketch sketch) {
+        YearMonth month = sketch.month;
+        Query query = new Query(Criteria.where(TenantContext.FIELD).is(sketch.tenantId).and("transactionDate")
+                .gte(month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant())
+                .lt(month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant())
+                .and("type").is(TransactionType.EXPENSE));
+        query.fields().include("amount", "currency", "category", "description", "transactionDate");
+        return mongoTemplate.stream(query, Transaction.class);
+    }
+
+    private static Transaction expense(Transaction transaction) {
+        return transaction != null && transaction.getType() == TransactionType.EXPENSE
+                && transaction.getAmount() != null && transaction.getTransactionDate() != null ? transaction : null;
+    }
+
+    private static boolean sameSpend(Transaction before, Transaction after) {
+        return Objects.equals(before.getAmount(), after.getAmount())
+                && Objects.equals(before.getCurrency(), after.getCurrency())
+                && Objects.equals(before.getCategory(), after.getCategory())
+                && before.getTransactionDate().atZone(ZoneOffset.UTC).toLocalDate()
+                        .equals(after.getTransactionDate().atZone(ZoneOffset.UTC).toLocalDate());
+    }
+
+    private static YearMonth monthOf(Transaction transaction) {
+        return YearMonth.from(transaction.getTransactionDate().atZone(ZoneOffset.UTC));
+    }
+
+    private double toBase(Transaction transaction) {
+        return fxRateService.toBase(transaction.getAmount(), transaction.getCurrency(),
+                transaction.getTransactionDate());
+    }
+
+    private TopExpense toTopExpense(Transaction transaction) {
+        TopExpense expense = new TopExpense();
+        expense.setId(transaction.getId());
+        expense.setCategory(transaction.getCategory());
+        expense.setDescription(transaction.getDescription());
+        expense.setTransactionDate(transaction.getTransactionDate());
+        expense.setAmount(transaction.getAmount());
+        expense.setCurrency(transaction.getCurrency() != null
+                ? transaction.getCurrency() : fxRateService.getTable().getBaseCurrency());
+        expense.setBaseAmount(toBase(transaction));
+        return expense;
+    }
+
+    /**
+     * One tenant's UTC month. The current state (null until the first build completes), the
+     * running build and its journal are guarded by this monitor.
+     */
+    private static final class MonthSketch {
+        private final String tenantId;
+        private final YearMonth month;
+        private MonthState state;
+        private CompletableFuture<Void> build;
+        // transaction id -> the version that belongs to this month now, null when it left
+        private Map<String, Transaction> journal;
+
+        private MonthSketch(String tenantId, YearMonth month) {
+            this.tenantId = tenantId;
+            this.month = month;
+        }
+    }
+
+    private static final class MonthState {
+        private final Map<String, CategorySketch> categories = new HashMap<>();
+        private final PriorityQueue<TopExpense> largest =
+                new PriorityQueue<>(Comparator.comparingDouble(TopExpense::getBaseAmount));
+        private long count;
+    }
+
+    private static final class CategorySketch {
+        private long count;
+        private double total;
+        private TDigest digest;
+        private TDigest removed;
+
+        private CategorySketch(double compression) {
+            reset(compression);
+        }
+
+        private void reset(double compression) {
+            digest = new TDigest(compression);
+            removed = new TDigest(compression);
+        }
+    }
+}
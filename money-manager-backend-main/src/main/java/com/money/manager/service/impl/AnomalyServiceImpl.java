@@ -0,0 +1,423 @@
+package com.money.manager.service.impl;
+
+import com.money.manager.dto.TransactionResponse;
+import com.money.manager.enums.Division;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.mapper.TransactionMapper;
+import com.money.manager.model.AnomalyBaseline;
+import com.money.manager.model.Transaction;
+import com.money.manager.repository.AnomalyBaselineRepository;
+import com.money.manager.service.AnomalyService;
+import com.money.manager.service.FxRateService;
+import com.money.manager.util.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Write-path anomaly detection for expenses. Each category + division keeps an exponentially
+ * weighted mean and variance of log(amount in base currency); a new expense is scored as a
+ * z-score against it and flagged when the score reaches anomaly.z-threshold. Working in log
+ * space makes "5x the usual amount" the same distance for a 200 coffee and a 20000 rent.
+ *
+ * Scoring and the baseline update are O(1) on an in-memory table; baselines are flushed to
+ * MongoDB on a fixed delay and reloaded on startup. Only unusually large amounts are flagged,
+ * and a baseline must have seen anomaly.min-samples expenses before it flags anything.
+ * Baselines are per tenant: one household's rent never moves another's baseline.
+ *
+ * Scoring is pure; a write folds the expense into its baseline only once it has been accepted,
+ * so a rejected write and its retry are counted once. Each expense records how many samples its
+ * baseline had seen, so a delete, or an edit's old version, is withdrawn with the weight it has
+ * decayed to since (exactly when it is still the latest). A category + division with expenses but
+ * no stored baseline is seeded on startup from its most recent history, so existing data is
+ * scored against its own past from the first write.
+ */
+@Service
+@DependsOn("tenantMigration")
+public class AnomalyServiceImpl implements AnomalyService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnomalyServiceImpl.class);
+    // Floor for the standard deviation (log space, ~5%) so near-constant categories do not flag every change
+    private static final double MIN_STD = 0.05;
+    private static final int MAX_LIMIT = 500;
+    // Below this a withdrawn sample's weight no longer measurably moves the baseline
+    private static final double MIN_WEIGHT = 1e-9;
+
+    private final AnomalyBaselineRepository baselineRepository;
+    private final MongoTemplate mongoTemplate;
+    private final FxRateService fxRateService;
+    private final TransactionMapper transactionMapper;
+    private final double alpha;
+    private final double threshold;
+    private final long minSamples;
+
+    private final Map<String, Baseline> baselines = new ConcurrentHashMap<>();
+
+    public AnomalyServiceImpl(AnomalyBaselineRepository baselineRepository, MongoTemplate mongoTemplate,
+            FxRateService fxRateService, TransactionMapper transactionMapper,
+            @Value("${anomaly.alpha:0.05}") double alpha,
+            @Value("${anomaly.z-threshold:3.0}") double threshold,
+            @Value("${anomaly.min-samples:10}") long minSamples) {
+        this.baselineRepository = baselineRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.fxRateService = fxRateService;
+        this.transactionMapper = transactionMapper;
+        this.alpha = alpha;
+        this.threshold = threshold;
+        this.minSamples = minSamples;
+    }
+
+    @PostConstruct
+    public void loadBaselines() {
+        List<String> legacyIds = new ArrayList<>();
+        for (AnomalyBaseline stored : baselineRepository.findAll()) {
+            Baseline baseline = new Baseline(stored.getTenantId(), stored.getCategory(), stored.getDivision());
+            baseline.mean = stored.getMean() != null ? stored.getMean() : 0.0;
+            baseline.variance = stored.getVariance() != null ? stored.getVariance() : 0.0;
+            baseline.count = stored.getCount() != null ? stored.getCount() : 0;
+            String key = key(stored.getTenantId(), stored.getCategory(), stored.getDivision());
+            if (!key.equals(stored.getId())) {
+                // Saved before tenants existed ("category|division"); re-saved under the tenant key
+                baseline.dirty = true;
+                legacyIds.add(stored.getId());
+            }
+            baselines.put(key, baseline);
+        }
+        if (!legacyIds.isEmpty()) {
+            persistBaselines();
+            baselineRepository.deleteAllById(legacyIds);
+        }
+        seedFromHistory();
+    }
+
+    /** Builds missing baselines from each category + division's latest expenses, oldest first. */
+    private void seedFromHistory() {
+        Aggregation agg = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("type").is(TransactionType.EXPENSE).and("amount").gt(0)),
+                Aggregation.group(TenantContext.FIELD, "category", "division"));
+        // Older samples weigh under e^-4 of the newest, so they would barely move the result
+        int samples = (int) Math.max(minSamples, Math.ceil(4 / alpha));
+        int seeded = 0;
+        for (Document doc : mongoTemplate.aggregate(agg, "transactions", Document.class).getMappedResults()) {
+            Document id = (Document) doc.get("_id");
+            String tenantId = id.getString(TenantContext.FIELD);
+            String category = id.getString("category");
+            String divisionName = id.getString("division");
+            if (tenantId == null || divisionName == null) {
+                continue;
+            }
+            Division division = Division.valueOf(divisionName);
+            if (baselines.containsKey(key(tenantId, category, division))) {
+                continue;
+            }
+            Query history = new Query(Criteria.where(TenantContext.FIELD).is(tenantId).and("category").is(category)
+                    .and("division").is(division).and("type").is(TransactionType.EXPENSE).and("amount").gt(0))
+                    .with(Sort.by(Sort.Direction.DESC, "transactionDate"))
+                    .limit(samples);
+            history.fields().include("amount", "currency", "transactionDate");
+            List<Transaction> latest = mongoTemplate.find(history, Transaction.class);
+            Collections.reverse(latest);
+            Baseline baseline = new Baseline(tenantId, category, division);
+            for (Transaction transaction : latest) {
+                Double x = logAmount(transaction);
+                if (x != null) {
+                    fold(baseline, zScore(baseline, x) >= threshold ? clip(baseline) : x);
+                }
+            }
+            if (baseline.count > 0) {
+                baselines.put(key(tenantId, category, division), baseline);
+                seeded++;
+            }
+        }
+        if (seeded > 0) {
+            log.info("Seeded {} anomaly baselines from existing expenses", seeded);
+            persistBaselines();
+        }
+    }
+
+    @Override
+    public void score(Transaction transaction) {
+        Double x = logAmount(transaction);
+        if (x == null) {
+            return;
+        }
+        Baseline baseline = baselines.get(
+                key(transaction.getTenantId(), transaction.getCategory(), transaction.getDivision()));
+        if (baseline == null) {
+            transaction.setAnomalySample(1L);
+            return;
+        }
+        synchronized (baseline) {
+            flag(transaction, baseline, x);
+        }
+    }
+
+    @Override
+    public void rescore(Transaction before, Transaction after) {
+        after.setAnomalyScore(null);
+        after.setAnomalous(null);
+        after.setAnomalySample(null);
+        Double x = logAmount(after);
+        if (x == null) {
+            return;
+        }
+        String key = key(after.getTenantId(), after.getCategory(), after.getDivision());
+        Baseline current = baselines.get(key);
+        if (current == null) {
+            after.setAnomalySample(1L);
+            return;
+        }
+        // Scored against a copy without the previous version; the live baseline changes once the edit is saved
+        Baseline view;
+        synchronized (current) {
+            view = current.copy();
+        }
+        Double previous = logAmount(before);
+        if (previous != null && key.equals(key(before.getTenantId(), before.getCategory(), before.getDivision()))) {
+            withdraw(view, previous, before);
+        }
+        flag(after, view, x);
+    }
+
+    @Override
+    public void observe(Transaction transaction) {
+        Double x = logAmount(transaction);
+        if (x == null) {
+            return;
+        }
+        Baseline baseline = baselines.computeIfAbsent(
+                key(transaction.getTenantId(), transaction.getCategory(), transaction.getDivision()),
+                k -> new Baseline(transaction.getTenantId(), transaction.getCategory(), transaction.getDivision()));
+        synchronized (baseline) {
+            // A single outlier should not drag the baseline toward itself
+            fold(baseline, Boolean.TRUE.equals(transaction.getAnomalous()) ? Math.min(x, clip(baseline)) : x);
+        }
+    }
+
+    @Override
+    public void unobserve(Transaction transaction) {
+        Double x = logAmount(transaction);
+        if (x == null) {
+            return;
+        }
+        Baseline baseline = baselines.get(
+                key(transaction.getTenantId(), transaction.getCategory(), transaction.getDivision()));
+        if (baseline == null) {
+            return;
+        }
+        synchronized (baseline) {
+            withdraw(baseline, x, transaction);
+        }
+    }
+
+    /** Sets the expense's score, flag and sample number against baseline. Caller holds its monitor. */
+    private void flag(Transaction transaction, Baseline baseline, double x) {
+        double z = zScore(baseline, x);
+        if (!Double.isNaN(z)) {
+            transaction.setAnomalyScore(Math.round(z * 100) / 100.0);
+            if (z >= threshold) {
+                transaction.setAnomalous(true);
+            }
+        }
+        transaction.setAnomalySample(baseline.count + 1);
+    }
+
+    /** z-score of x, or NaN while the baseline has fewer than anomaly.min-samples. */
+    private double zScore(Baseline baseline, double x) {
+        if (baseline.count < minSamples) {
+            return Double.NaN;
+        }
+        return (x - baseline.mean) / Math.max(MIN_STD, Math.sqrt(baseline.variance));
+    }
+
+    /** The value a flagged sample enters the baseline as. */
+    private double clip(Baseline baseline) {
+        if (baseline.count < minSamples) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return baseline.mean + threshold * Math.max(MIN_STD, Math.sqrt(baseline.variance));
+    }
+
+    /** Folds x into the baseline. Caller holds the baseline's monitor (or owns it exclusively). */
+    private void fold(Baseline baseline, double x) {
+        // Start as a plain running mean, then settle into the EWMA once enough samples are in
+        double weight = Math.max(alpha, 1.0 / (baseline.count + 1));
+        double diff = x - baseline.mean;
+        double increment = weight * diff;
+        baseline.mean += increment;
+        baseline.variance = (1 - weight) * (baseline.variance + diff * increment);
+        baseline.count++;
+        baseline.dirty = true;
+    }
+
+    /**
+     * Inverts fold for a stored expense. The latest sample is removed exactly; an older one with the
+     * weight it has decayed to, and if it was flagged, as clipped against the current baseline.
+     * Expenses scored before sample numbers were recorded cannot be placed and are left in.
+     */
+    private void withdraw(Baseline baseline, double x, Transaction transaction) {
+        Long sample = transaction.getAnomalySample();
+        if (sample == null) {
+            return;
+        }
+        boolean anomalous = Boolean.TRUE.equals(transaction.getAnomalous());
+        if (baseline.count <= 1) {
+            baseline.mean = 0;
+            baseline.variance = 0;
+            baseline.count = 0;
+            baseline.dirty = true;
+            return;
+        }
+        if (sample >= baseline.count) {
+            unobserveLatest(baseline, x, anomalous);
+            return;
+        }
+        double weight = Math.max(alpha, 1.0 / Math.max(1, sample));
+        for (long n = sample + 1; n <= baseline.count && weight > MIN_WEIGHT; n++) {
+            weight *= 1 - Math.max(alpha, 1.0 / n);
+        }
+        if (anomalous) {
+            x = Math.min(x, clip(baseline));
+        }
+        remove(baseline, x, weight);
+        baseline.count--;
+        baseline.dirty = true;
+    }
+
+    /**
+     * Inverts fold for the latest sample. A flagged sample entered clipped to mean + threshold * std
+     * of the baseline before it, which is solved for from the current one.
+     */
+    private void unobserveLatest(Baseline baseline, double x, boolean anomalous) {
+        double weight = Math.max(alpha, 1.0 / baseline.count);
+        if (anomalous && baseline.count > minSamples) {
+            double spread = weight * threshold * threshold;
+            double variance = baseline.variance / ((1 - weight) * (1 + spread));
+            double std = Math.sqrt(variance);
+            if (std < MIN_STD) {
+                std = MIN_STD;
+                variance = Math.max(0, baseline.variance / (1 - weight) - spread * MIN_STD * MIN_STD);
+            }
+            baseline.mean -= weight * threshold * std;
+            baseline.variance = variance;
+        } else {
+            remove(baseline, x, weight);
+        }
+        baseline.count--;
+        baseline.dirty = true;
+    }
+
+    /** Takes a sample of the given current weight out of the mean and variance. */
+    private static void remove(Baseline baseline, double x, double weight) {
+        double mean = (baseline.mean - weight * x) / (1 - weight);
+        double diff = x - mean;
+        baseline.mean = mean;
+        baseline.variance = Math.max(0, baseline.variance / (1 - weight) - weight * diff * diff);
+    }
+
+    /** log(amount in base currency) for a scorable expense, null for anything else. */
+    private Double logAmount(Transaction transaction) {
+        if (transaction.getType() != TransactionType.EXPENSE || transaction.getAmount() == null
+                || transaction.getAmount() <= 0 || transaction.getTransactionDate() == null) {
+            return null;
+        }
+        return Math.log(fxRateService.toBase(transaction.getAmount(), transaction.getCurrency(),
+                transaction.getTransactionDate()));
+    }
+
+    @Override
+    public List<TransactionResponse> getAnomalies(int limit) {
+        Query query = new Query(TenantContext.where("anomalous").is(true))
+                .with(Sort.by(Sort.Direction.DESC, "transactionDate"))
+                .limit(Math.max(1, Math.min(limit, MAX_LIMIT)));
+        return mongoTemplate.find(query, Transaction.class)
+                .stream()
+                .map(transactionMapper::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${anomaly.persist-interval-ms:30000}")
+    public void persistBaselines() {
+        BulkOperations bulk = null;
+        for (Map.Entry<String, Baseline> entry : baselines.entrySet()) {
+            Baseline baseline = entry.getValue();
+            Update update;
+            synchronized (baseline) {
+                if (!baseline.dirty) {
+                    continue;
+                }
+                baseline.dirty = false;
+                update = new Update()
+                        .set(TenantContext.FIELD, baseline.tenantId)
+                        .set("category", baseline.category)
+                        .set("division", baseline.division)
+                        .set("mean", baseline.mean)
+                        .set("variance", baseline.variance)
+                        .set("count", baseline.count)
+                        .set("updatedAt", Instant.now());
+            }
+            if (bulk == null) {
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AnomalyBaseline.class);
+            }
+            bulk.upsert(new Query(Criteria.where("_id").is(entry.getKey())), update);
+        }
+        if (bulk != null) {
+            try {
+                bulk.execute();
+            } catch (RuntimeException e) {
+                log.warn("Failed to persist anomaly baselines; unsaved updates are lost on restart", e);
+            }
+        }
+    }
+
+    private static String key(String tenantId, String category, Division division) {
+        return tenantId + "|" + category + "|" + division;
+    }
+
+    /** Live baseline for one tenant's category + division; mutable fields are guarded by the instance. */
+    private static final class Baseline {
+        private final String tenantId;
+        private final String category;
+        private final Division division;
+        private double mean;
+        private double variance;
+        private long count;
+        private boolean dirty;
+
+        private Baseline(String tenantId, String category, Division division) {
+            this.tenantId = tenantId;
+            this.category = category;
+            this.division = division;
+        }
+
+        private Baseline copy() {
+            Baseline copy = new Baseline(tenantId, category, division);
+            copy.mean = mean;
+            copy.variance = variance;
+            copy.count = count;
+            return copy;
+        }
+    }
+}
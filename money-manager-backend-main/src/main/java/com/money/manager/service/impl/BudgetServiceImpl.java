@@ -0,0 +1,534 @@
+package com.money.manager.service.impl;
+
+import com.money.manager.dto.BudgetAlert;
+import com.money.manager.dto.BudgetRequest;
+import com.money.manager.dto.BudgetStatus;
+import com.money.manager.enums.Division;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.event.CategoryMovedEvent;
+import com.money.manager.event.TransactionChangedEvent;
+import com.money.manager.exception.ResourceNotFoundException;
+import com.money.manager.model.Budget;
+import com.money.manager.model.Transaction;
+import com.money.manager.repository.BudgetRepository;
+import com.money.manager.service.BudgetService;
+import com.money.manager.service.CategoryService;
+import com.money.manager.service.FxRateService;
+import com.money.manager.util.CategoryPath;
+import com.money.manager.util.FxAggregation;
+import com.money.manager.util.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Budgets keep their spent-so-far counter in memory. Counters are adjusted from
+ * TransactionChangedEvents (expenses only, by UTC month of transactionDate), threshold
+ * crossings are detected on that same write, and the change since the last flush is added to
+ * MongoDB with $inc on a fixed delay, so instances sharing a database never overwrite each other's
+ * spend. A flush that fails keeps its delta for the next one. Status reads never aggregate.
+ *
+ * On startup the current month's counters are reconciled with one aggregation and written as
+ * absolute values, which also repairs any drift from writes made after the last flush before a crash.
+ *
+ * Limits and counters are in the base currency; other currencies are converted at the rate of
+ * the transaction's UTC day.
+ *
+ * A budget covers a category subtree: it is keyed by the resolved category path, and an expense
+ * counts toward the budget of its own path and of every ancestor. Renaming or moving a category
+ * re-keys the budgets in its subtree, which keep their spend; the rewritten transactions then only
+ * move spend between the ancestors the move left and joined.
+ *
+ * Counters are keyed by tenant first, and reads and alerts only ever see the caller's tenant;
+ * each tenant has its own alert buffer, so a noisy tenant cannot evict another's alerts.
+ */
+@Service
+@DependsOn("tenantMigration")
+public class BudgetServiceImpl implements BudgetService {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetServiceImpl.class);
+    private static final int ALERT_BUFFER_SIZE = 1000;
+
+    private final BudgetRepository budgetRepository;
+    private final MongoTemplate mongoTemplate;
+    private final FxRateService fxRateService;
+    private final CategoryService categoryService;
+    private final int[] thresholds;
+
+    private final Map<String, BudgetState> budgetsByKey = new ConcurrentHashMap<>();
+    private final Map<String, BudgetState> budgetsById = new ConcurrentHashMap<>();
+
+    private final Map<String, AlertRing> alertsByTenant = new ConcurrentHashMap<>();
+
+    public BudgetServiceImpl(BudgetRepository budgetRepository, MongoTemplate mongoTemplate,
+            FxRateService fxRateService, CategoryService categoryService,
+            @Value("${budget.alert-thresholds:80,100}") int[] thresholds) {
+        this.budgetRepository = budgetRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.fxRateService = fxRateService;
+        this.categoryService = categoryService;
+        this.thresholds = thresholds.clone();
+        Arrays.sort(this.thresholds);
+    }
+
+    @PostConstruct
+    public void loadBudgets() {
+        String currentMonth = YearMonth.now(ZoneOffset.UTC).toString();
+        for (Budget budget : budgetRepository.findAll()) {
+            if (budget.getCategoryPath() == null) {
+                // Saved before budgets followed the category tree
+                String path = TenantContext.callAs(budget.getTenantId(),
+                        () -> categoryService.resolve(budget.getCategory()).getPath());
+                budget.setCategoryPath(path);
+                budget.setCategory(CategoryPath.display(path));
+                mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(budget.getId())),
+                        new Update().set("categoryPath", path).set("category", budget.getCategory()), Budget.class);
+            }
+            if (currentMonth.equals(budget.getMonth())) {
+                budget.setSpent(0.0);
+                budget.setAlertedThreshold(0);
+            }
+            register(budget);
+        }
+
+        // Reconcile current month: one aggregation for all of its budgets, across tenants
+        YearMonth month = YearMonth.parse(currentMonth);
+        Aggregation agg = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("transactionDate")
+                        .gte(month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant())
+                        .lt(month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant())
+                        .and("type").is(TransactionType.EXPENSE)),
+                FxAggregation.currencyDayProjection(fxRateService.getTable().getBaseCurrency(),
+                        TenantContext.FIELD, "categoryPath", "division"),
+                Aggregation.group(TenantContext.FIELD, "categoryPath", "division", "currency", "day")
+                        .sum("amount").as("total"));
+        Map<BudgetState, Double> spent = new HashMap<>();
+        for (Document doc : mongoTemplate.aggregate(agg, "transactions", Document.class).getMappedResults()) {
+            Document id = (Document) doc.get("_id");
+            if (id.getString("division") == null) {
+                continue;
+            }
+            double total = toBase(doc, id);
+            for (String path = id.getString("categoryPath"); path != null; path = CategoryPath.parent(path)) {
+                BudgetState state = budgetsByKey.get(key(id.getString(TenantContext.FIELD), path,
+                        Division.valueOf(id.getString("division")), currentMonth));
+                if (state != null) {
+                    spent.merge(state, total, Double::sum);
+                }
+            }
+        }
+        BulkOperations bulk = null;
+        for (BudgetState state : budgetsByKey.values()) {
+            if (!currentMonth.equals(state.month) || state.id == null) {
+                continue;
+            }
+            Update update;
+            synchronized (state) {
+                state.spent = spent.getOrDefault(state, 0.0);
+                state.pendingSpent = 0.0;
+                state.alertedThreshold = highestThresholdReached(state);
+                update = new Update()
+                        .set("spent", state.spent)
+                        .set("alertedThreshold", state.alertedThreshold)
+                        .set("updatedAt", Instant.now());
+            }
+            if (bulk == null) {
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Budget.class);
+            }
+            bulk.updateOne(new Query(Criteria.where("_id").is(state.id)), update);
+        }
+        if (bulk != null) {
+            bulk.execute();
+        }
+    }
+
+    @Override
+    public BudgetStatus saveBudget(BudgetRequest request) {
+        String path = categoryService.resolve(request.getCategory()).getPath();
+        Budget budget = new Budget();
+        budget.setTenantId(TenantContext.current());
+        budget.setCategory(CategoryPath.display(path));
+        budget.setCategoryPath(path);
+        budget.setDivision(request.getDivision());
+        budget.setMonth(request.getMonth());
+        budget.setLimitAmount(request.getLimitAmount());
+        budget.setSpent(0.0);
+
+        // Registered before seeding, so no write event between the two is lost
+        BudgetState state = newState(budget);
+        BudgetState existing = budgetsByKey.putIfAbsent(key(state), state);
+        if (existing != null) {
+            updateLimit(existing, request.getLimitAmount());
+            persistDirtyBudgets();
+            return toStatus(existing);
+        }
+
+        // Events fire after their write, so those counted so far are also in the aggregation
+        synchronized (state) {
+            state.spent = 0.0;
+        }
+        // Seeded once; from here on the counter is only moved by write events
+        double seeded = sumExpenses(path, request.getDivision(), request.getMonth());
+        synchronized (state) {
+            state.spent += seeded;
+            // Events from here on reach the stored document through the flush
+            state.pendingSpent = 0.0;
+            state.alertedThreshold = highestThresholdReached(state);
+            budget.setSpent(state.spent);
+            budget.setAlertedThreshold(state.alertedThreshold);
+        }
+        budget.setCreatedAt(Instant.now());
+        budget.setUpdatedAt(budget.getCreatedAt());
+        try {
+            state.id = budgetRepository.insert(budget).getId();
+        } catch (DuplicateKeyException e) {
+            // Created concurrently by another instance: adopt its document and keep our events on top
+            Budget stored = budgetRepository.findByTenantIdAndCategoryPathAndDivisionAndMonth(budget.getTenantId(),
+                    path, budget.getDivision(), budget.getMonth()).orElseThrow(() -> e);
+            synchronized (state) {
+                state.spent = (stored.getSpent() != null ? stored.getSpent() : 0.0) + state.pendingSpent;
+                state.id = stored.getId();
+            }
+            budgetsById.put(state.id, state);
+            updateLimit(state, request.getLimitAmount());
+            persistDirtyBudgets();
+            return toStatus(state);
+        }
+        budgetsById.put(state.id, state);
+        return toStatus(state);
+    }
+
+    private void updateLimit(BudgetState state, double limitAmount) {
+        synchronized (state) {
+            state.limitAmount = limitAmount;
+            state.alertedThreshold = highestThresholdReached(state);
+            state.dirty = true;
+        }
+    }
+
+    @Override
+    public List<BudgetStatus> getBudgets(String month) {
+        String tenantId = TenantContext.current();
+        return budgetsByKey.values().stream()
+                .filter(state -> tenantId.equals(state.tenantId))
+                .filter(state -> month == null || month.equals(state.month))
+                .sorted(Comparator.comparing((BudgetState state) -> state.month).thenComparing(state -> state.categoryPath))
+                .map(this::toStatus)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public BudgetStatus getBudgetStatus(String id) {
+        return toStatus(findOwn(id));
+    }
+
+    @Override
+    public void deleteBudget(String id) {
+        BudgetState state = findOwn(id);
+        budgetsById.remove(id);
+        budgetsByKey.remove(key(state));
+        budgetRepository.deleteById(id);
+    }
+
+    @Override
+    public List<BudgetAlert> getAlerts(long after) {
+        String tenantId = TenantContext.current();
+        AlertRing ring = alertsByTenant.get(tenantId);
+        List<BudgetAlert> result = new ArrayList<>();
+        if (ring == null) {
+            return result;
+        }
+        synchronized (ring) {
+            long first = Math.max(after + 1, ring.lastSequence - ALERT_BUFFER_SIZE + 1);
+            for (long seq = Math.max(first, 1); seq <= ring.lastSequence; seq++) {
+                result.add(ring.alerts[(int) (seq % ALERT_BUFFER_SIZE)]);
+            }
+        }
+        return result;
+    }
+
+    @EventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        // The moved subtree's budgets were re-keyed with their spend; only ancestors outside it change
+        if (event.getBefore() != null) {
+            apply(event.getBefore(), -1, event.getMovedFrom());
+        }
+        if (event.getAfter() != null) {
+            apply(event.getAfter(), 1, event.getMovedTo());
+        }
+    }
+
+    /** Re-keys the budgets of the moved subtree before its transactions are rewritten. */
+    @EventListener
+    public void onCategoryMoved(CategoryMovedEvent event) {
+        for (BudgetState state : List.copyOf(budgetsByKey.values())) {
+            String path;
+            synchronized (state) {
+                if (!event.getTenantId().equals(state.tenantId) || !state.categoryPath.startsWith(event.getFromPath())) {
+                    continue;
+                }
+                path = event.getToPath() + state.categoryPath.substring(event.getFromPath().length());
+                budgetsByKey.remove(key(state));
+                state.categoryPath = path;
+                budgetsByKey.put(key(state), state);
+            }
+            if (state.id != null) {
+                mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(state.id)),
+                        new Update().set("categoryPath", path).set("category", CategoryPath.display(path)),
+                        Budget.class);
+            }
+        }
+    }
+
+    /** Adds the expense to the budgets of its path and every ancestor, skipping those under skipSubtree. */
+    private void apply(Transaction transaction, int sign, String skipSubtree) {
+        if (transaction.getType() != TransactionType.EXPENSE || transaction.getTransactionDate() == null
+                || transaction.getAmount() == null || transaction.getCategoryPath() == null) {
+            return;
+        }
+        String month = YearMonth.from(transaction.getTransactionDate().atZone(ZoneOffset.UTC)).toString();
+        for (String path = transaction.getCategoryPath(); path != null; path = CategoryPath.parent(path)) {
+            if (skipSubtree != null && path.startsWith(skipSubtree)) {
+                continue;
+            }
+            BudgetState state = budgetsByKey.get(key(transaction.getTenantId(), path, transaction.getDivision(), month));
+            if (state != null) {
+                apply(state, transaction, sign);
+            }
+        }
+    }
+
+    private void apply(BudgetState state, Transaction transaction, int sign) {
+        int crossed;
+        synchronized (state) {
+            double delta = sign * fxRateService.toBase(transaction.getAmount(), transaction.getCurrency(),
+                    transaction.getTransactionDate());
+            state.spent += delta;
+            state.pendingSpent += delta;
+            state.dirty = true;
+            int reached = highestThresholdReached(state);
+            crossed = reached > state.alertedThreshold ? reached : 0;
+            // Dropping back below a threshold re-arms it
+            state.alertedThreshold = reached;
+        }
+        if (crossed > 0) {
+            raiseAlert(state, crossed);
+        }
+    }
+
+    private int highestThresholdReached(BudgetState state) {
+        if (state.limitAmount <= 0) {
+            return state.spent > 0 ? thresholds[thresholds.length - 1] : 0;
+        }
+        double percent = state.spent * 100 / state.limitAmount;
+        int reached = 0;
+        for (int threshold : thresholds) {
+            if (percent >= threshold) {
+                reached = threshold;
+            }
+        }
+        return reached;
+    }
+
+    private void raiseAlert(BudgetState state, int threshold) {
+        BudgetAlert alert = new BudgetAlert();
+        alert.setBudgetId(state.id);
+        alert.setCategory(CategoryPath.display(state.categoryPath));
+        alert.setDivision(state.division);
+        alert.setMonth(state.month);
+        alert.setThreshold(threshold);
+        alert.setSpent(state.spent);
+        alert.setLimitAmount(state.limitAmount);
+        alert.setTriggeredAt(Instant.now());
+        AlertRing ring = alertsByTenant.computeIfAbsent(state.tenantId, tenantId -> new AlertRing());
+        synchronized (ring) {
+            alert.setSequence(++ring.lastSequence);
+            ring.alerts[(int) (ring.lastSequence % ALERT_BUFFER_SIZE)] = alert;
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${budget.persist-interval-ms:10000}")
+    public void persistDirtyBudgets() {
+        BulkOperations bulk = null;
+        // Parallel to the bulk's operations: what each one took, to hand back if it fails
+        List<BudgetState> flushed = new ArrayList<>();
+        List<Double> deltas = new ArrayList<>();
+        for (BudgetState state : budgetsByKey.values()) {
+            if (state.id == null) {
+                continue;
+            }
+            Update update;
+            synchronized (state) {
+                if (!state.dirty) {
+                    continue;
+                }
+                state.dirty = false;
+                double delta = state.pendingSpent;
+                state.pendingSpent = 0.0;
+                flushed.add(state);
+                deltas.add(delta);
+                update = new Update()
+                        .inc("spent", delta)
+                        .set("limitAmount", state.limitAmount)
+                        .set("alertedThreshold", state.alertedThreshold)
+                        .set("updatedAt", Instant.now());
+            }
+            if (bulk == null) {
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Budget.class);
+            }
+            bulk.updateOne(new Query(Criteria.where("_id").is(state.id)), update);
+        }
+        if (bulk == null) {
+            return;
+        }
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // Unordered: only the reported operations failed, the rest are already applied
+            BitSet failed = new BitSet(flushed.size());
+            e.getErrors().forEach(error -> failed.set(error.getIndex()));
+            failed.stream().forEach(i -> requeue(flushed.get(i), deltas.get(i)));
+            log.warn("Failed to persist {} budget counters; retrying on the next flush", failed.cardinality(), e);
+        } catch (RuntimeException e) {
+            // Unknown outcome: retrying may double-count, which the next startup reconciliation repairs
+            for (int i = 0; i < flushed.size(); i++) {
+                requeue(flushed.get(i), deltas.get(i));
+            }
+            log.warn("Failed to persist budget counters; retrying on the next flush", e);
+        }
+    }
+
+    private static void requeue(BudgetState state, double delta) {
+        synchronized (state) {
+            state.pendingSpent += delta;
+            state.dirty = true;
+        }
+    }
+
+    private double sumExpenses(String categoryPath, Division division, String month) {
+        YearMonth yearMonth = YearMonth.parse(month);
+        Aggregation agg = Aggregation.newAggregation(
+                Aggregation.match(TenantContext.where("transactionDate")
+                        .gte(yearMonth.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant())
+                        .lt(yearMonth.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant())
+                        .and("type").is(TransactionType.EXPENSE)
+                        .and("categoryPath").regex(CategoryPath.subtreeRegex(categoryPath))
+                        .and("division").is(division)),
+                FxAggregation.currencyDayProjection(fxRateService.getTable().getBaseCurrency()),
+                Aggregation.group("currency", "day").sum("amount").as("total"));
+        double total = 0.0;
+        for (Document doc : mongoTemplate.aggregate(agg, "transactions", Document.class).getMappedResults()) {
+            total += toBase(doc, (Document) doc.get("_id"));
+        }
+        return total;
+    }
+
+    private double toBase(Document group, Document id) {
+        Instant day = LocalDate.parse(id.getString("day")).atStartOfDay(ZoneOffset.UTC).toInstant();
+        return fxRateService.toBase(group.getDouble("total"), id.getString("currency"), day);
+    }
+
+    private void register(Budget budget) {
+        BudgetState state = newState(budget);
+        budgetsByKey.put(key(state), state);
+        if (state.id != null) {
+            budgetsById.put(state.id, state);
+        }
+    }
+
+    private static BudgetState newState(Budget budget) {
+        BudgetState state = new BudgetState();
+        state.id = budget.getId();
+        state.tenantId = budget.getTenantId();
+        state.categoryPath = budget.getCategoryPath();
+        state.division = budget.getDivision();
+        state.month = budget.getMonth();
+        state.limitAmount = budget.getLimitAmount() != null ? budget.getLimitAmount() : 0.0;
+        state.spent = budget.getSpent() != null ? budget.getSpent() : 0.0;
+        state.alertedThreshold = budget.getAlertedThreshold() != null ? budget.getAlertedThreshold() : 0;
+        return state;
+    }
+
+    private BudgetStatus toStatus(BudgetState state) {
+        BudgetStatus status = new BudgetStatus();
+        synchronized (state) {
+            status.setId(state.id);
+            status.setCategory(CategoryPath.display(state.categoryPath));
+            status.setDivision(state.division);
+            status.setMonth(state.month);
+            status.setLimitAmount(state.limitAmount);
+            status.setSpent(state.spent);
+            status.setRemaining(state.limitAmount - state.spent);
+            status.setPercentUsed(state.limitAmount > 0 ? state.spent * 100 / state.limitAmount : 0.0);
+        }
+        return status;
+    }
+
+    private BudgetState findOwn(String id) {
+        BudgetState state = budgetsById.get(id);
+        if (state == null || !TenantContext.current().equals(state.tenantId)) {
+            throw new ResourceNotFoundException("Budget not found");
+        }
+        return state;
+    }
+
+    private static String key(BudgetState state) {
+        return key(state.tenantId, state.categoryPath, state.division, state.month);
+    }
+
+    private static String key(String tenantId, String categoryPath, Division division, String month) {
+        return tenantId + "|" + categoryPath + "|" + division + "|" + month;
+    }
+
+    /** Mutable counter for one budget; fields other than the identity are guarded by the instance. */
+    private static final class BudgetState {
+        private volatile String id;
+        private String tenantId;
+        // Changes when the category is renamed or moved
+        private volatile String categoryPath;
+        private Division division;
+        private String month;
+        private double limitAmount;
+        private double spent;
+        // Change to spent not yet added to the stored document
+        private double pendingSpent;
+        private int alertedThreshold;
+        private boolean dirty;
+    }
+
+    /** One tenant's most recent alerts; guarded by the instance. */
+    private static final class AlertRing {
+        private final BudgetAlert[] alerts = new BudgetAlert[ALERT_BUFFER_SIZE];
+        private long lastSequence;
+    }
+}
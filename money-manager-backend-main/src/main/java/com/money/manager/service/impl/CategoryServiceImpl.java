@@ -0,0 +1,409 @@
+package com.money.manager.service.impl;
+
+import com.money.manager.dto.CategoryRequest;
+import com.money.manager.dto.CategoryResponse;
+import com.money.manager.dto.CategoryRollup;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.event.CategoryMovedEvent;
+import com.money.manager.event.TransactionChangedEvent;
+import com.money.manager.exception.BusinessRuleException;
+import com.money.manager.exception.ResourceNotFoundException;
+import com.money.manager.model.Category;
+import com.money.manager.model.CategoryRewrite;
+import com.money.manager.model.Transaction;
+import com.money.manager.repository.CategoryRepository;
+import com.money.manager.repository.CategoryRewriteRepository;
+import com.money.manager.service.CategoryService;
+import com.money.manager.service.FxRateService;
+import com.money.manager.util.CategoryPath;
+import com.money.manager.util.FxAggregation;
+import com.money.manager.util.FxRateTable;
+import com.money.manager.util.PeriodRange;
+import com.money.manager.util.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Category hierarchy with materialized paths. Nodes are cached in memory (the tree is small), so
+ * resolving a transaction's category costs a map lookup. Each transaction stores its node's path,
+ * which makes any subtree one anchored prefix match on the categoryPath index.
+ *
+ * A rename or move updates the category nodes immediately and records one CategoryRewrite per
+ * affected node. A single background thread then rewrites matching transactions in batches of
+ * category.rewrite.batch-size with category.rewrite.pause-ms between them, so a large rewrite
+ * never competes with interactive traffic for long. Rewrites are persisted and resume on restart.
+ *
+ * Each tenant has its own hierarchy: the path cache is partitioned by tenant, and a rewrite only
+ * matches transactions of the tenant that recorded it.
+ */
+@Service
+@DependsOn("tenantMigration")
+public class CategoryServiceImpl implements CategoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryServiceImpl.class);
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryRewriteRepository rewriteRepository;
+    private final MongoTemplate mongoTemplate;
+    private final FxRateService fxRateService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int rewriteBatchSize;
+    private final long rewritePauseMs;
+
+    // tenantId -> path -> node
+    private final Map<String, Map<String, Category>> categoriesByPath = new ConcurrentHashMap<>();
+    private final Map<String, Category> categoriesById = new ConcurrentHashMap<>();
+    // Serializes structural changes (all tenants); lookups of existing nodes never take it
+    private final Object structureLock = new Object();
+    private final ExecutorService rewriter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "category-rewriter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CategoryServiceImpl(CategoryRepository categoryRepository, CategoryRewriteRepository rewriteRepository,
+            MongoTemplate mongoTemplate, FxRateService fxRateService, ApplicationEventPublisher eventPublisher,
+            @Value("${category.rewrite.batch-size:500}") int rewriteBatchSize,
+            @Value("${category.rewrite.pause-ms:100}") long rewritePauseMs) {
+        this.categoryRepository = categoryRepository;
+        this.rewriteRepository = rewriteRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.fxRateService = fxRateService;
+        this.eventPublisher = eventPublisher;
+        this.rewriteBatchSize = rewriteBatchSize;
+        this.rewritePauseMs = rewritePauseMs;
+    }
+
+    @PostConstruct
+    public void loadCategories() {
+        categoryRepository.findAll().forEach(this::cache);
+    }
+
+    /** Resumes unfinished rewrites, then backfills paths on transactions written before the hierarchy existed. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRewrites() {
+        rewriter.execute(() -> {
+            try {
+                rewriteRepository.findAll(Sort.by("createdAt")).forEach(this::runRewrite);
+                Query legacy = new Query(Criteria.where("categoryPath").exists(false));
+                for (String tenantId : mongoTemplate.findDistinct(legacy, TenantContext.FIELD, "transactions",
+                        String.class)) {
+                    TenantContext.runAs(tenantId, this::backfillLegacy);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Category rewrite on startup failed; it will be retried on next startup", e);
+            }
+        });
+    }
+
+    private void backfillLegacy() {
+        Query legacy = new Query(TenantContext.where("categoryPath").exists(false));
+        for (String category : mongoTemplate.findDistinct(legacy, "category", "transactions", String.class)) {
+            if (category == null || category.isBlank()) {
+                continue;
+            }
+            CategoryRewrite task = new CategoryRewrite();
+            task.setTenantId(TenantContext.current());
+            task.setLegacyCategory(category);
+            try {
+                task.setToPath(resolve(category).getPath());
+            } catch (BusinessRuleException e) {
+                log.warn("Skipping legacy category '{}': {}", category, e.getMessage());
+                continue;
+            }
+            task.setCreatedAt(Instant.now());
+            runRewrite(rewriteRepository.save(task));
+        }
+    }
+
+    @Override
+    public Category resolve(String category) {
+        List<String> segments = CategoryPath.segments(category);
+        Map<String, Category> paths = paths();
+        Category existing = paths.get(CategoryPath.of(segments));
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (structureLock) {
+            Category node = null;
+            String path = "";
+            for (String name : segments) {
+                path = CategoryPath.child(path, name);
+                Category next = paths.get(path);
+                node = next != null ? next : insert(name, node, path);
+            }
+            return node;
+        }
+    }
+
+    @Override
+    public List<CategoryResponse> getCategories() {
+        return paths().values().stream()
+                .sorted(Comparator.comparing(Category::getPath))
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CategoryResponse createCategory(CategoryRequest request) {
+        synchronized (structureLock) {
+            Category parent = request.getParentId() != null ? findById(request.getParentId()) : null;
+            String path = CategoryPath.child(parent != null ? parent.getPath() : null, request.getName().trim());
+            if (paths().containsKey(path)) {
+                throw new BusinessRuleException("Category already exists: " + CategoryPath.display(path));
+            }
+            return toResponse(insert(request.getName().trim(), parent, path));
+        }
+    }
+
+    @Override
+    public CategoryResponse updateCategory(String id, CategoryRequest request) {
+        List<CategoryRewrite> rewrites = new ArrayList<>();
+        List<CategoryRewrite> saved;
+        Category updated;
+        CategoryMovedEvent moved;
+        synchronized (structureLock) {
+            Category category = findById(id);
+            Category parent = request.getParentId() != null ? findById(request.getParentId()) : null;
+            String oldPath = category.getPath();
+            String newPath = CategoryPath.child(parent != null ? parent.getPath() : null, request.getName().trim());
+            if (parent != null && parent.getPath().startsWith(oldPath)) {
+                throw new BusinessRuleException("A category cannot be moved under itself");
+            }
+            if (newPath.equals(oldPath)) {
+                return toResponse(category);
+            }
+            if (paths().containsKey(newPath)) {
+                throw new BusinessRuleException("Category already exists: " + CategoryPath.display(newPath));
+            }
+
+            // The node and its descendants, deepest last, re-pathed under the new prefix
+            Map<String, Category> paths = paths();
+            List<Category> subtree = paths.values().stream()
+                    .filter(node -> node.getPath().startsWith(oldPath))
+                    .sorted(Comparator.comparing(Category::getPath))
+                    .collect(Collectors.toList());
+            Instant now = Instant.now();
+            for (Category node : subtree) {
+                String nodeOldPath = node.getPath();
+                String nodeNewPath = newPath + nodeOldPath.substring(oldPath.length());
+                paths.remove(nodeOldPath);
+                node.setPath(nodeNewPath);
+                node.setUpdatedAt(now);
+                CategoryRewrite rewrite = new CategoryRewrite();
+                rewrite.setTenantId(node.getTenantId());
+                rewrite.setFromPath(nodeOldPath);
+                rewrite.setToPath(nodeNewPath);
+                rewrite.setMovedFrom(oldPath);
+                rewrite.setMovedTo(newPath);
+                rewrite.setCreatedAt(now);
+                rewrites.add(rewrite);
+            }
+            category.setName(request.getName().trim());
+            category.setParentId(parent != null ? parent.getId() : null);
+            categoryRepository.saveAll(subtree);
+            subtree.forEach(this::cache);
+            saved = rewriteRepository.saveAll(rewrites);
+            updated = category;
+            moved = new CategoryMovedEvent(category.getTenantId(), oldPath, newPath);
+        }
+        // Before any rewrite runs, so path-keyed listeners re-key first
+        eventPublisher.publishEvent(moved);
+        saved.forEach(rewrite -> rewriter.execute(() -> runRewrite(rewrite)));
+        return toResponse(updated);
+    }
+
+    @Override
+    public List<CategoryRollup> getRollup(String category, String period, String currency) {
+        PeriodRange range = PeriodRange.of(period);
+        String target = fxRateService.resolveCurrency(currency);
+        FxRateTable rates = fxRateService.getTable();
+
+        String root = null;
+        Criteria match = TenantContext.where("categoryPath");
+        if (category != null && !category.isBlank()) {
+            root = CategoryPath.of(CategoryPath.segments(category));
+            if (!paths().containsKey(root)) {
+                throw new ResourceNotFoundException("Category not found");
+            }
+            match.regex(CategoryPath.subtreeRegex(root));
+        } else {
+            match.exists(true);
+        }
+        match.and("transactionDate").gte(range.start()).lt(range.end())
+                .and("type").in(TransactionType.INCOME, TransactionType.EXPENSE);
+
+        // One prefix-matched aggregation; ancestors are summed from the leaf groups in memory
+        Aggregation agg = Aggregation.newAggregation(
+                Aggregation.match(match),
+                FxAggregation.currencyDayProjection(rates.getBaseCurrency(), "categoryPath", "type"),
+                Aggregation.group("categoryPath", "type", "currency", "day").sum("amount").as("total"));
+
+        Map<String, double[]> totals = new TreeMap<>();
+        if (root != null) {
+            totals.put(root, new double[2]);
+        }
+        for (Document doc : mongoTemplate.aggregate(agg, "transactions", Document.class).getMappedResults()) {
+            Document id = (Document) doc.get("_id");
+            double amount = rates.convert(doc.getDouble("total"), id.getString("currency"), target,
+                    FxAggregation.epochDay(id.getString("day")));
+            int slot = TransactionType.valueOf(id.getString("type")) == TransactionType.INCOME ? 0 : 1;
+            String path = id.getString("categoryPath");
+            String stop = root != null ? CategoryPath.parent(root) : null;
+            while (path != null && !path.equals(stop)) {
+                totals.computeIfAbsent(path, p -> new double[2])[slot] += amount;
+                path = CategoryPath.parent(path);
+            }
+        }
+
+        List<CategoryRollup> rollup = new ArrayList<>(totals.size());
+        totals.forEach((path, sums) -> {
+            CategoryRollup node = new CategoryRollup();
+            node.setCategory(CategoryPath.display(path));
+            node.setDepth(CategoryPath.depth(path));
+            node.setTotalIncome(sums[0]);
+            node.setTotalExpense(sums[1]);
+            node.setCurrency(target);
+            rollup.add(node);
+        });
+        return rollup;
+    }
+
+    /**
+     * Rewrites matching transactions batch by batch until none are left, publishing an update
+     * event per transaction whose display category changed so in-memory indexes follow along.
+     */
+    private void runRewrite(CategoryRewrite rewrite) {
+        Criteria tenant = Criteria.where(TenantContext.FIELD).is(rewrite.getTenantId());
+        Criteria match = rewrite.getFromPath() != null
+                ? tenant.and("categoryPath").is(rewrite.getFromPath())
+                : tenant.and("category").is(rewrite.getLegacyCategory()).and("categoryPath").exists(false);
+        String category = CategoryPath.display(rewrite.getToPath());
+        // updatedAt moves too, so anything keyed on the ledger version (cached reports) sees the rewrite
+        Update update = new Update().set("categoryPath", rewrite.getToPath()).set("category", category)
+                .set("updatedAt", Instant.now());
+        long rewritten = 0;
+        try {
+            while (true) {
+                List<Transaction> batch = mongoTemplate.find(new Query(match).limit(rewriteBatchSize),
+                        Transaction.class);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<String> ids = batch.stream().map(Transaction::getId).collect(Collectors.toList());
+                Query byIds = new Query(Criteria.where("_id").in(ids)).addCriteria(match);
+                mongoTemplate.updateMulti(byIds, update, Transaction.class);
+                publishChanges(batch, ids, category, rewrite);
+                rewritten += batch.size();
+                Thread.sleep(rewritePauseMs);
+            }
+            rewriteRepository.deleteById(rewrite.getId());
+            if (rewritten > 0) {
+                log.info("Rewrote {} transactions to category {}", rewritten, category);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Category rewrite to {} failed after {} transactions; it resumes on next startup",
+                    category, rewritten, e);
+        }
+    }
+
+    private void publishChanges(List<Transaction> before, List<String> ids, String category,
+            CategoryRewrite rewrite) {
+        if (before.stream().allMatch(transaction -> category.equals(transaction.getCategory()))) {
+            return;
+        }
+        Map<String, Transaction> after = mongoTemplate
+                .find(new Query(Criteria.where("_id").in(ids)), Transaction.class).stream()
+                .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+        for (Transaction previous : before) {
+            Transaction current = after.get(previous.getId());
+            if (current != null && !category.equals(previous.getCategory())) {
+                eventPublisher.publishEvent(rewrite.getMovedFrom() != null
+                        ? TransactionChangedEvent.moved(previous, current, rewrite.getMovedFrom(), rewrite.getMovedTo())
+                        : TransactionChangedEvent.updated(previous, current));
+            }
+        }
+    }
+
+    private Category insert(String name, Category parent, String path) {
+        Category category = new Category();
+        category.setTenantId(TenantContext.current());
+        category.setName(name);
+        category.setParentId(parent != null ? parent.getId() : null);
+        category.setPath(path);
+        category.setCreatedAt(Instant.now());
+        category.setUpdatedAt(category.getCreatedAt());
+        try {
+            category = categoryRepository.insert(category);
+        } catch (DuplicateKeyException e) {
+            // Created concurrently by another instance
+            category = categoryRepository.findByTenantIdAndPath(category.getTenantId(), path).orElseThrow(() -> e);
+        }
+        cache(category);
+        return category;
+    }
+
+    private void cache(Category category) {
+        categoriesByPath.computeIfAbsent(category.getTenantId(), tenantId -> new ConcurrentHashMap<>())
+                .put(category.getPath(), category);
+        categoriesById.put(category.getId(), category);
+    }
+
+    private Map<String, Category> paths() {
+        return categoriesByPath.computeIfAbsent(TenantContext.current(), tenantId -> new ConcurrentHashMap<>());
+    }
+
+    private Category findById(String id) {
+        Category category = categoriesById.get(id);
+        // Another tenant's node is reported exactly like a missing one
+        if (category == null || !TenantContext.current().equals(category.getTenantId())) {
+            throw new ResourceNotFoundException("Category not found");
+        }
+        return category;
+    }
+
+    private CategoryResponse toResponse(Category category) {
+        CategoryResponse response = new CategoryResponse();
+        response.setId(category.getId());
+        response.setName(category.getName());
+        response.setParentId(category.getParentId());
+        response.setPath(CategoryPath.display(category.getPath()));
+        response.setDepth(CategoryPath.depth(category.getPath()));
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rewriter.shutdownNow();
+    }
+}
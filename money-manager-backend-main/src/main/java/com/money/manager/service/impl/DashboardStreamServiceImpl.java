@@ -0,0 +1,335 @@
+package com.money.manager.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.money.manager.dto.DashboardDelta;
+import com.money.manager.dto.DashboardStats;
+import com.money.manager.dto.TransactionChange;
+import com.money.manager.event.TransactionChangedEvent;
+import com.money.manager.mapper.TransactionMapper;
+import com.money.manager.model.Transaction;
+import com.money.manager.service.DashboardStreamService;
+import com.money.manager.service.TransactionService;
+import com.money.manager.util.PeriodRange;
+import com.money.manager.util.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live dashboard feed over Server-Sent Events.
+ *
+ * Write events only enqueue a compact change and mark the affected periods dirty, so the write
+ * path pays almost nothing (and nothing at all with no subscribers). A coalescing flush turns
+ * everything queued since the last tick into one delta, recomputes stats once per dirty period,
+ * serializes once and offers the payload to every subscriber's bounded queue. Each subscriber is
+ * drained by at most one sender task at a time, so a slow or stalled client only ever holds up its
+ * own stream: one whose queue overflows, or whose current send exceeds the send timeout, is
+ * completed and dropped (EventSource reconnects and starts from fresh stats). Idle SSE connections
+ * are servlet-async and hold no request thread, and senders are a fixed pool with a bounded backlog
+ * however many subscribers a broadcast reaches; a subscriber that finds the backlog full is dropped
+ * the same way.
+ *
+ * Subscribers, pending changes and dirty periods are kept per tenant, so a delta only ever
+ * reaches the tenant whose data changed and its stats are computed within that tenant.
+ */
+@Service
+public class DashboardStreamServiceImpl implements DashboardStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStreamServiceImpl.class);
+    private static final List<String> PERIODS = List.of("weekly", "monthly", "yearly");
+
+    private final TransactionService transactionService;
+    private final TransactionMapper transactionMapper;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMs;
+    private final int maxChangesPerDelta;
+    private final int subscriberQueue;
+    private final long sendTimeoutMs;
+
+    // Only tenants with at least one subscriber have a channel
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    // At most one task per subscriber is queued or running
+    private final ThreadPoolExecutor senders;
+
+    public DashboardStreamServiceImpl(TransactionService transactionService, TransactionMapper transactionMapper,
+            ObjectMapper objectMapper,
+            @Value("${dashboard.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+            @Value("${dashboard.stream.max-changes-per-delta:100}") int maxChangesPerDelta,
+            @Value("${dashboard.stream.subscriber-queue:16}") int subscriberQueue,
+            @Value("${dashboard.stream.send-timeout-ms:10000}") long sendTimeoutMs,
+            @Value("${dashboard.stream.sender-threads:0}") int senderThreads,
+            @Value("${dashboard.stream.sender-queue:10000}") int senderQueue) {
+        this.transactionService = transactionService;
+        this.transactionMapper = transactionMapper;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.maxChangesPerDelta = maxChangesPerDelta;
+        this.subscriberQueue = subscriberQueue;
+        this.sendTimeoutMs = sendTimeoutMs;
+        int threadCount = senderThreads > 0 ? senderThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(threadCount, threadCount, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(senderQueue), runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-sender-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.senders.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        return subscribe(TenantContext.current(), new SseEmitter(emitterTimeoutMs));
+    }
+
+    SseEmitter subscribe(String tenantId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(tenantId, emitter, subscriberQueue);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        channels.compute(tenantId, (key, channel) -> {
+            Channel subscribed = channel != null ? channel : new Channel();
+            subscribed.subscribers.add(subscriber);
+            return subscribed;
+        });
+        return emitter;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.queue.clear();
+        channels.computeIfPresent(subscriber.tenantId, (key, channel) -> {
+            channel.subscribers.remove(subscriber);
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+    }
+
+    @EventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        Channel channel = channels.get(event.getTenantId());
+        if (channel == null) {
+            return;
+        }
+        Transaction before = event.getBefore();
+        Transaction after = event.getAfter();
+        markDirty(channel, before);
+        markDirty(channel, after);
+
+        // Beyond the cap only the stats are refreshed; clients see truncated=true
+        if (channel.pendingCount.incrementAndGet() <= maxChangesPerDelta) {
+            if (after == null) {
+                channel.pendingChanges.add(new TransactionChange("DELETED", before.getId(), null));
+            } else {
+                channel.pendingChanges.add(new TransactionChange(before == null ? "CREATED" : "UPDATED",
+                        after.getId(), transactionMapper.mapToResponse(after)));
+            }
+        }
+    }
+
+    private void markDirty(Channel channel, Transaction transaction) {
+        if (transaction == null) {
+            return;
+        }
+        for (String period : PERIODS) {
+            if (PeriodRange.of(period).contains(transaction.getTransactionDate())) {
+                channel.dirtyPeriods.add(period);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.stream.coalesce-ms:250}")
+    public void flushDeltas() {
+        channels.forEach((tenantId, channel) -> {
+            try {
+                TenantContext.runAs(tenantId, () -> flush(channel));
+            } catch (RuntimeException e) {
+                log.warn("Failed to build dashboard delta for tenant {}", tenantId, e);
+            }
+        });
+        dropStalledSubscribers();
+    }
+
+    private void flush(Channel channel) {
+        int count = channel.pendingCount.getAndSet(0);
+        if (count == 0) {
+            return;
+        }
+        List<TransactionChange> changes = new ArrayList<>(Math.min(count, maxChangesPerDelta));
+        TransactionChange change;
+        while ((change = channel.pendingChanges.poll()) != null) {
+            changes.add(change);
+        }
+        Map<String, DashboardStats> stats = new LinkedHashMap<>();
+        for (String period : PERIODS) {
+            if (channel.dirtyPeriods.remove(period)) {
+                stats.put(period, transactionService.getDashboardStats(period, null));
+            }
+        }
+        if (channel.subscribers.isEmpty()) {
+            return;
+        }
+
+        DashboardDelta delta = new DashboardDelta();
+        delta.setSequence(sequence.incrementAndGet());
+        delta.setChanges(changes);
+        delta.setTruncated(count > changes.size());
+        delta.setStats(stats);
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize dashboard delta", e);
+            return;
+        }
+        // Built once and shared by every subscriber of the tenant
+        Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event()
+                .id(Long.toString(delta.getSequence()))
+                .name("delta")
+                .data(payload, MediaType.APPLICATION_JSON)
+                .build();
+        broadcast(channel, message);
+    }
+
+    /** Comment frames keep proxies from closing idle streams and flush out dead clients. */
+    @Scheduled(fixedDelayString = "${dashboard.stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        if (!channels.isEmpty()) {
+            Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event().comment("keepalive").build();
+            channels.values().forEach(channel -> broadcast(channel, message));
+        }
+    }
+
+    /** Never blocks: queues the message for each subscriber and makes sure a sender is draining it. */
+    private void broadcast(Channel channel, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+        for (Subscriber subscriber : channel.subscribers) {
+            if (!subscriber.queue.offer(message)) {
+                drop(subscriber, null);
+            } else if (subscriber.draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(() -> drain(subscriber));
+                } catch (RejectedExecutionException e) {
+                    // Senders are saturated: shed this subscriber rather than queue without bound. No
+                    // send of its own is in progress, so completing it here does not wait.
+                    unsubscribe(subscriber);
+                    subscriber.emitter.complete();
+                }
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Set<ResponseBodyEmitter.DataWithMediaType> message = subscriber.queue.poll();
+            if (message == null) {
+                subscriber.draining.set(false);
+                // A message offered after the poll but before the reset would otherwise wait for the next one
+                if (subscriber.queue.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            subscriber.sendStartedAt = System.currentTimeMillis();
+            try {
+                subscriber.emitter.send(message);
+            } catch (IOException | IllegalStateException e) {
+                drop(subscriber, e);
+                return;
+            } finally {
+                subscriber.sendStartedAt = 0;
+            }
+        }
+    }
+
+    private void dropStalledSubscribers() {
+        long now = System.currentTimeMillis();
+        for (Channel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                long started = subscriber.sendStartedAt;
+                if (started != 0 && now - started > sendTimeoutMs) {
+                    drop(subscriber, new TimeoutException("Dashboard stream send exceeded " + sendTimeoutMs + " ms"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a subscriber that failed or fell behind; a null error completes it normally. The emitter
+     * is completed on a sender thread because completing waits for the emitter's send in progress.
+     */
+    private void drop(Subscriber subscriber, Throwable error) {
+        unsubscribe(subscriber);
+        if (error == null) {
+            log.debug("Dropping dashboard subscriber of tenant {} that fell behind", subscriber.tenantId);
+        }
+        try {
+            senders.execute(() -> {
+                if (error == null) {
+                    subscriber.emitter.complete();
+                } else {
+                    subscriber.emitter.completeWithError(error);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // It gets no more messages and is released when the emitter times out
+            log.debug("Dashboard senders saturated or stopped; not completing subscriber");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    /** One SSE connection and the messages not yet sent to it. */
+    private static final class Subscriber {
+        private final String tenantId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        // Set while a sender task owns this subscriber
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Start of the send in progress, 0 when idle
+        private volatile long sendStartedAt;
+
+        private Subscriber(String tenantId, SseEmitter emitter, int capacity) {
+            this.tenantId = tenantId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    /** Subscribers and not yet flushed changes of one tenant. */
+    private static final class Channel {
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final Queue<TransactionChange> pendingChanges = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final Set<String> dirtyPeriods = ConcurrentHashMap.newKeySet();
+    }
+}
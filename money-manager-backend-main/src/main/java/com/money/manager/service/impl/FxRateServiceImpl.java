@@ -0,0 +1,192 @@
+package com.money.manager.service.impl;
+
+import com.money.manager.dto.FxRatesResponse;
+import com.money.manager.exception.BusinessRuleException;
+import com.money.manager.service.FxRateService;
+import com.money.manager.util.FxRateTable;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Loads the versioned FX table from a local CSV (fx.rates-location):
+ *
+ * <pre>
+ * # version: 2026-10-01
+ * # base: INR
+ * date,currency,rate        (rate = base units per 1 unit of currency, effective from date)
+ * </pre>
+ *
+ * Reload builds a complete new table and swaps the reference, so readers never see a partial table.
+ * A table that lacks a currency still used by stored transactions or recurring templates is
+ * refused, since every conversion of those amounts would fail; the current table stays in place.
+ */
+@Service
+public class FxRateServiceImpl implements FxRateService {
+
+    private static final Logger log = LoggerFactory.getLogger(FxRateServiceImpl.class);
+    private static final List<String> CURRENCY_COLLECTIONS = List.of("transactions", "recurring_templates");
+
+    private final ResourceLoader resourceLoader;
+    private final MongoTemplate mongoTemplate;
+    private final String location;
+    private final String baseCurrency;
+
+    private volatile FxRateTable table;
+
+    public FxRateServiceImpl(ResourceLoader resourceLoader, MongoTemplate mongoTemplate,
+            @Value("${fx.rates-location:classpath:fx/rates.csv}") String location,
+            @Value("${fx.base-currency:INR}") String baseCurrency) {
+        this.resourceLoader = resourceLoader;
+        this.mongoTemplate = mongoTemplate;
+        this.location = location;
+        this.baseCurrency = baseCurrency.toUpperCase(Locale.ROOT);
+    }
+
+    @PostConstruct
+    public void load() {
+        table = readTable();
+        try {
+            Set<String> missing = missingCurrencies(table);
+            if (!missing.isEmpty()) {
+                log.error("FX table {} has no rates for currencies in use: {}; their conversions will fail",
+                        table.getVersion(), missing);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not check the FX table against stored currencies", e);
+        }
+    }
+
+    @Override
+    public FxRateTable getTable() {
+        return table;
+    }
+
+    @Override
+    public String resolveCurrency(String currency) {
+        if (currency == null || currency.isBlank()) {
+            return baseCurrency;
+        }
+        String code = currency.trim().toUpperCase(Locale.ROOT);
+        if (!table.supports(code)) {
+            throw new BusinessRuleException("Unsupported currency: " + currency);
+        }
+        return code;
+    }
+
+    @Override
+    public double toBase(double amount, String currency, Instant date) {
+        if (currency == null || currency.equals(baseCurrency)) {
+            return amount;
+        }
+        return amount * table.rateToBase(currency, LocalDate.ofInstant(date, ZoneOffset.UTC).toEpochDay());
+    }
+
+    @Override
+    public FxRatesResponse getRates(LocalDate date) {
+        FxRateTable current = table;
+        LocalDate effective = date != null ? date : LocalDate.now(ZoneOffset.UTC);
+        Map<String, Double> rates = new TreeMap<>();
+        for (String currency : current.getCurrencies()) {
+            rates.put(currency, current.rateToBase(currency, effective.toEpochDay()));
+        }
+        FxRatesResponse response = new FxRatesResponse();
+        response.setVersion(current.getVersion());
+        response.setBaseCurrency(current.getBaseCurrency());
+        response.setDate(effective);
+        response.setRatesToBase(rates);
+        return response;
+    }
+
+    @Override
+    public FxRatesResponse reload() {
+        FxRateTable candidate = readTable();
+        Set<String> missing = missingCurrencies(candidate);
+        if (!missing.isEmpty()) {
+            throw new BusinessRuleException("FX table " + candidate.getVersion()
+                    + " has no rates for currencies in use: " + String.join(", ", missing));
+        }
+        table = candidate;
+        return getRates(null);
+    }
+
+    /** Currencies stored on any tenant's data that the table cannot convert. */
+    private Set<String> missingCurrencies(FxRateTable candidate) {
+        Set<String> missing = new TreeSet<>();
+        Query withCurrency = new Query(Criteria.where("currency").ne(null));
+        for (String collection : CURRENCY_COLLECTIONS) {
+            for (String currency : mongoTemplate.findDistinct(withCurrency, "currency", collection, String.class)) {
+                if (!currency.equals(baseCurrency) && !candidate.supports(currency)) {
+                    missing.add(currency);
+                }
+            }
+        }
+        return missing;
+    }
+
+    private FxRateTable readTable() {
+        Resource resource = resourceLoader.getResource(location);
+        String version = "unversioned";
+        String fileBase = baseCurrency;
+        FxRateTable.Builder builder = null;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                line = line.trim();
+                if (line.startsWith("#")) {
+                    String header = line.substring(1).trim();
+                    if (header.startsWith("version:")) {
+                        version = header.substring("version:".length()).trim();
+                    } else if (header.startsWith("base:")) {
+                        fileBase = header.substring("base:".length()).trim().toUpperCase(Locale.ROOT);
+                    }
+                    continue;
+                }
+                if (line.isEmpty() || line.startsWith("date,")) {
+                    continue;
+                }
+                if (builder == null) {
+                    if (!fileBase.equals(baseCurrency)) {
+                        throw new IllegalStateException("FX table base " + fileBase + " does not match fx.base-currency "
+                                + baseCurrency);
+                    }
+                    builder = FxRateTable.builder(version, baseCurrency);
+                }
+                String[] parts = line.split(",");
+                if (parts.length != 3) {
+                    throw new IllegalStateException("Malformed FX rate at " + location + ":" + lineNo);
+                }
+                builder.rate(parts[1].trim().toUpperCase(Locale.ROOT), LocalDate.parse(parts[0].trim()),
+                        Double.parseDouble(parts[2].trim()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read FX rates from " + location, e);
+        }
+        return builder != null ? builder.build() : FxRateTable.builder(version, baseCurrency).build();
+    }
+}
@@ -0,0 +1,323 @@
+package com.money.manager.service.impl;
+
+import com.money.manager.dto.RecurringRunResult;
+import com.money.manager.dto.RecurringTemplateRequest;
+import com.money.manager.dto.RecurringTemplateResponse;
+import com.money.manager.dto.TransactionRequest;
+import com.money.manager.event.TransactionChangedEvent;
+import com.money.manager.exception.BusinessRuleException;
+import com.money.manager.exception.ResourceNotFoundException;
+import com.money.manager.mapper.TransactionMapper;
+import com.money.manager.model.RecurringTemplate;
+import com.money.manager.model.Transaction;
+import com.money.manager.repository.RecurringTemplateRepository;
+import com.money.manager.repository.TransactionBulkWriter;
+import com.money.manager.service.RecurringService;
+import com.money.manager.util.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Recurring transactions. A run pages through due templates (active, nextRun <= now) in batches
+ * of recurring.template-batch-size, expands each into its due occurrences and writes them with
+ * one unordered bulk insert per batch, then advances every template's nextRun with one bulk update.
+ *
+ * Each occurrence carries a unique recurrenceKey (template id + occurrence time), so a run that
+ * crashes between the insert and the nextRun update, or two instances running at once, can only
+ * produce duplicate-key skips, never a second posting. Missed periods are caught up at most
+ * recurring.max-catch-up occurrences per template per pass; a template still behind stays due
+ * and is picked up again by the next pass of the same run.
+ *
+ * The scheduled run covers every tenant; each template is expanded bound to its own tenant, so
+ * its occurrences are stamped and categorized for that tenant. A manual run covers the caller's
+ * tenant only.
+ *
+ * A template that cannot be expanded (an unparseable stored cron, a category that no longer
+ * resolves) is logged, deactivated with lastError and counted as failed; the rest of the batch
+ * is posted as usual. Saving the template again clears the error and reactivates it.
+ */
+@Service
+public class RecurringServiceImpl implements RecurringService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringServiceImpl.class);
+
+    private final RecurringTemplateRepository templateRepository;
+    private final MongoTemplate mongoTemplate;
+    private final TransactionMapper transactionMapper;
+    private final TransactionBulkWriter bulkWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int templateBatchSize;
+    private final int maxCatchUp;
+    private final int writeBatchSize;
+
+    // One run at a time per instance; other instances are made harmless by recurrenceKey
+    private final Object runLock = new Object();
+
+    public RecurringServiceImpl(RecurringTemplateRepository templateRepository, MongoTemplate mongoTemplate,
+            TransactionMapper transactionMapper, TransactionBulkWriter bulkWriter,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${recurring.template-batch-size:1000}") int templateBatchSize,
+            @Value("${recurring.max-catch-up:100}") int maxCatchUp,
+            @Value("${recurring.write-batch-size:1000}") int writeBatchSize) {
+        this.templateRepository = templateRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.transactionMapper = transactionMapper;
+        this.bulkWriter = bulkWriter;
+        this.eventPublisher = eventPublisher;
+        this.templateBatchSize = templateBatchSize;
+        this.maxCatchUp = maxCatchUp;
+        this.writeBatchSize = writeBatchSize;
+    }
+
+    @Override
+    public RecurringTemplateResponse createTemplate(RecurringTemplateRequest request) {
+        RecurringTemplate template = new RecurringTemplate();
+        template.setTenantId(TenantContext.current());
+        template.setCreatedAt(Instant.now());
+        apply(request, template);
+        return toResponse(templateRepository.save(template));
+    }
+
+    @Override
+    public List<RecurringTemplateResponse> getTemplates() {
+        return templateRepository.findByTenantId(TenantContext.current()).stream()
+                .sorted(Comparator.comparing(RecurringTemplate::getName))
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public RecurringTemplateResponse updateTemplate(String id, RecurringTemplateRequest request) {
+        RecurringTemplate template = templateRepository.findByIdAndTenantId(id, TenantContext.current())
+                .orElseThrow(() -> new ResourceNotFoundException("Recurring template not found"));
+        apply(request, template);
+        return toResponse(templateRepository.save(template));
+    }
+
+    @Override
+    public void deleteTemplate(String id) {
+        if (!templateRepository.existsByIdAndTenantId(id, TenantContext.current())) {
+            throw new ResourceNotFoundException("Recurring template not found");
+        }
+        templateRepository.deleteById(id);
+    }
+
+    @Scheduled(fixedDelayString = "${recurring.poll-interval-ms:60000}")
+    public void scheduledRun() {
+        try {
+            RecurringRunResult result = run(null);
+            if (result.getCreated() > 0) {
+                log.info("Posted {} recurring transactions for {} templates in {} ms", result.getCreated(),
+                        result.getTemplates(), result.getDurationMs());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Recurring run failed; due occurrences will be retried on the next run", e);
+        }
+    }
+
+    @Override
+    public RecurringRunResult materializeDue() {
+        return run(TenantContext.current());
+    }
+
+    /** Runs due templates of one tenant, or of all tenants when tenantId is null. */
+    private RecurringRunResult run(String tenantId) {
+        synchronized (runLock) {
+            long started = System.nanoTime();
+            Instant now = Instant.now();
+            RecurringRunResult result = new RecurringRunResult();
+            while (true) {
+                Criteria criteria = tenantId != null ? TenantContext.where("active") : Criteria.where("active");
+                Query due = new Query(criteria.is(true).and("nextRun").lte(now))
+                        .with(Sort.by("nextRun"))
+                        .limit(templateBatchSize);
+                List<RecurringTemplate> templates = mongoTemplate.find(due, RecurringTemplate.class);
+                if (templates.isEmpty()) {
+                    break;
+                }
+
+                List<Transaction> occurrences = new ArrayList<>();
+                BulkOperations advance = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                        RecurringTemplate.class);
+                int failed = 0;
+                for (RecurringTemplate template : templates) {
+                    // Guarded by the nextRun we read, so a concurrent edit or run is not overwritten
+                    Query guard = new Query(Criteria.where("_id").is(template.getId())
+                            .and("nextRun").is(template.getNextRun()));
+                    List<Transaction> expanded = new ArrayList<>();
+                    Update update;
+                    try {
+                        update = TenantContext.callAs(template.getTenantId(), () -> expand(template, now, expanded));
+                    } catch (RuntimeException e) {
+                        log.warn("Deactivating recurring template {} of tenant {}: {}", template.getId(),
+                                template.getTenantId(), e.toString());
+                        // Deactivating keeps a broken template from staying due and being retried forever
+                        update = new Update().set("active", false).set("lastError", e.getMessage())
+                                .set("updatedAt", now);
+                        failed++;
+                        expanded.clear();
+                    }
+                    occurrences.addAll(expanded);
+                    advance.updateOne(guard, update);
+                }
+
+                // Occurrences first: if we stop before advancing, the next run re-posts them as duplicate skips
+                long inserted = 0;
+                for (int from = 0; from < occurrences.size(); from += writeBatchSize) {
+                    List<Transaction> chunk = occurrences.subList(from,
+                            Math.min(from + writeBatchSize, occurrences.size()));
+                    for (Transaction transaction : bulkWriter.insertIgnoringDuplicates(chunk)) {
+                        eventPublisher.publishEvent(TransactionChangedEvent.created(transaction));
+                        inserted++;
+                    }
+                }
+                advance.execute();
+
+                result.setTemplates(result.getTemplates() + templates.size() - failed);
+                result.setFailed(result.getFailed() + failed);
+                result.setCreated(result.getCreated() + inserted);
+                result.setSkipped(result.getSkipped() + occurrences.size() - inserted);
+            }
+            result.setDurationMs((System.nanoTime() - started) / 1_000_000);
+            return result;
+        }
+    }
+
+    /** Adds up to maxCatchUp due occurrences to out and returns the update that advances the template. */
+    private Update expand(RecurringTemplate template, Instant now, List<Transaction> out) {
+        CronExpression cron = CronExpression.parse(template.getCron());
+        Instant occurrence = template.getNextRun();
+        Instant last = null;
+        int created = 0;
+        while (occurrence != null && !occurrence.isAfter(now) && created < maxCatchUp) {
+            out.add(toTransaction(template, occurrence));
+            last = occurrence;
+            created++;
+            occurrence = next(cron, occurrence, template.getEndDate());
+        }
+
+        Update update = new Update().set("nextRun", occurrence).set("updatedAt", now);
+        if (last != null) {
+            update.set("lastOccurrence", last);
+        }
+        if (occurrence == null) {
+            update.set("active", false);
+        }
+        return update;
+    }
+
+    private Transaction toTransaction(RecurringTemplate template, Instant occurrence) {
+        TransactionRequest request = new TransactionRequest();
+        request.setType(template.getType());
+        request.setAmount(template.getAmount());
+        request.setCurrency(template.getCurrency());
+        request.setCategory(template.getCategory());
+        request.setDivision(template.getDivision());
+        request.setDescription(template.getDescription());
+        request.setTransactionDate(occurrence);
+        request.setSourceAccount(template.getSourceAccount());
+        request.setTargetAccount(template.getTargetAccount());
+
+        Transaction transaction = new Transaction();
+        transactionMapper.mapToEntity(request, transaction);
+        transaction.setRecurrenceKey(template.getId() + "@" + occurrence.toEpochMilli());
+        // Store timestamps in UTC; never use server timezone
+        Instant now = Instant.now();
+        transaction.setCreatedAt(now);
+        transaction.setUpdatedAt(now);
+        return transaction;
+    }
+
+    private void apply(RecurringTemplateRequest request, RecurringTemplate template) {
+        String cronText = normalizeCron(request.getCron());
+        CronExpression cron;
+        try {
+            cron = CronExpression.parse(cronText);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessRuleException("Invalid cron schedule: " + e.getMessage());
+        }
+        Instant start = request.getStartDate() != null ? request.getStartDate()
+                : template.getStartDate() != null ? template.getStartDate() : Instant.now();
+        if (request.getEndDate() != null && !request.getEndDate().isAfter(start)) {
+            throw new BusinessRuleException("End date must be after start date");
+        }
+
+        template.setName(request.getName());
+        template.setCron(cronText);
+        template.setType(request.getType());
+        template.setAmount(request.getAmount());
+        template.setCurrency(request.getCurrency());
+        template.setCategory(request.getCategory());
+        template.setDivision(request.getDivision());
+        template.setDescription(request.getDescription());
+        template.setSourceAccount(request.getSourceAccount());
+        template.setTargetAccount(request.getTargetAccount());
+        template.setStartDate(start);
+        template.setEndDate(request.getEndDate());
+        template.setUpdatedAt(Instant.now());
+
+        // Resume after the last posted occurrence so an edit never re-posts or skips history
+        Instant from = template.getLastOccurrence() != null && template.getLastOccurrence().isAfter(start)
+                ? template.getLastOccurrence() : start.minusNanos(1);
+        template.setNextRun(next(cron, from, request.getEndDate()));
+        template.setActive(!Boolean.FALSE.equals(request.getActive()) && template.getNextRun() != null);
+        template.setLastError(null);
+    }
+
+    /** First occurrence strictly after from, or null past the end date / when the schedule never fires again. */
+    private static Instant next(CronExpression cron, Instant from, Instant endDate) {
+        ZonedDateTime next = cron.next(from.atZone(ZoneOffset.UTC));
+        if (next == null || (endDate != null && next.toInstant().isAfter(endDate))) {
+            return null;
+        }
+        return next.toInstant();
+    }
+
+    /** Accepts classic five-field cron by adding a leading seconds field; fields are single-space separated. */
+    static String normalizeCron(String cron) {
+        String[] fields = cron.trim().split("\\s+");
+        String joined = String.join(" ", fields);
+        return fields.length == 5 ? "0 " + joined : joined;
+    }
+
+    private RecurringTemplateResponse toResponse(RecurringTemplate template) {
+        RecurringTemplateResponse response = new RecurringTemplateResponse();
+        response.setId(template.getId());
+        response.setName(template.getName());
+        response.setCron(template.getCron());
+        response.setType(template.getType());
+        response.setAmount(template.getAmount());
+        response.setCurrency(template.getCurrency());
+        response.setCategory(template.getCategory());
+        response.setDivision(template.getDivision());
+        response.setDescription(template.getDescription());
+        response.setSourceAccount(template.getSourceAccount());
+        response.setTargetAccount(template.getTargetAccount());
+        response.setStartDate(template.getStartDate());
+        response.setEndDate(template.getEndDate());
+        response.setNextRun(template.getNextRun());
+        response.setLastOccurrence(template.getLastOccurrence());
+        response.setActive(template.isActive());
+        response.setLastError(template.getLastError());
+        return response;
+    }
+}
@@ -0,0 +1,602 @@
+package com.money.manager.service.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.money.manager.dto.ReportJob;
+import com.money.manager.dto.ReportRequest;
+import com.money.manager.enums.Division;
+import com.money.manager.enums.ReportFormat;
+import com.money.manager.enums.ReportStatus;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.event.TransactionChangedEvent;
+import com.money.manager.exception.BusinessRuleException;
+import com.money.manager.exception.ResourceNotFoundException;
+import com.money.manager.exception.ServiceUnavailableException;
+import com.money.manager.model.Transaction;
+import com.money.manager.service.FxRateService;
+import com.money.manager.service.ReportService;
+import com.money.manager.util.FxRateTable;
+import com.money.manager.util.PeriodRange;
+import com.money.manager.util.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Asynchronous statements. A submitted report gets a content-addressed id: a hash of its
+ * parameters, the FX table version and the tenant's ledger version, so an identical request
+ * over unchanged data resolves to the job that already exists and, once completed, to the file
+ * already on disk.
+ *
+ * The ledger version counts the changes to the months a report covers: every TransactionChangedEvent
+ * adds one, with $inc, to a ledger_versions counter per tenant and UTC month of each version of the
+ * transaction it touched, and a report's version is the sum over its months. Counters only grow and
+ * live in MongoDB, so every instance, before and after a restart, computes the same id for the same
+ * data, and a write to one month leaves reports over closed earlier periods cached. An increment
+ * that fails is retried every reports.ledger-retry-interval-ms; until then it is missing from the
+ * version.
+ *
+ * Jobs run on a fixed pool of reports.workers threads behind a queue of reports.queue-capacity;
+ * a full queue is rejected with 503 instead of piling up. Each job makes one streaming pass over
+ * the range in date order, writing rows and accumulating totals as it goes, so memory does not
+ * grow with the size of the statement. Results older than reports.retention-hours are deleted.
+ *
+ * The tenant is part of the id and of the query, and results are stored under a directory per
+ * tenant, so a job id from another tenant resolves to "not found".
+ */
+@Service
+public class ReportServiceImpl implements ReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportServiceImpl.class);
+    private static final Pattern JOB_ID = Pattern.compile("[0-9a-f]{32}");
+    private static final String LEDGER_VERSIONS = "ledger_versions";
+    // Bump when the file layout changes so results written by older code are not served
+    private static final String LAYOUT_VERSION = "1";
+    private static final String[] CSV_HEADER = {"id", "date", "type", "category", "division", "description",
+            "amount", "currency", "convertedAmount", "sourceAccount", "targetAccount"};
+
+    private final MongoTemplate mongoTemplate;
+    private final FxRateService fxRateService;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Duration retention;
+    private final ThreadPoolExecutor workers;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // ledger_versions _id -> increments that failed and are still to be added
+    private final Map<String, AtomicLong> failedIncrements = new ConcurrentHashMap<>();
+
+    public ReportServiceImpl(MongoTemplate mongoTemplate, FxRateService fxRateService, ObjectMapper objectMapper,
+            @Value("${reports.directory:data/reports}") String directory,
+            @Value("${reports.workers:2}") int workerCount,
+            @Value("${reports.queue-capacity:20}") int queueCapacity,
+            @Value("${reports.retention-hours:24}") long retentionHours) {
+        this.mongoTemplate = mongoTemplate;
+        this.fxRateService = fxRateService;
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(directory);
+        this.retention = Duration.ofHours(retentionHours);
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "report-worker-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        Files.createDirectories(directory);
+        // Partial files from jobs interrupted by a shutdown
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            files.filter(path -> path.getFileName().toString().endsWith(".tmp")).forEach(ReportServiceImpl::delete);
+        }
+    }
+
+    @Override
+    public ReportJob submit(ReportRequest request) {
+        PeriodRange range = range(request);
+        List<Division> divisions = divisions(request.getDivisions());
+        String currency = fxRateService.resolveCurrency(request.getCurrency());
+        // One table for the whole job, and its version is part of the id
+        FxRateTable rates = fxRateService.getTable();
+        String tenantId = TenantContext.current();
+        Criteria match = match(range, divisions);
+        String ledgerVersion = ledgerVersion(tenantId, range);
+        String id = jobId(tenantId, range, divisions, currency, request.getFormat(), ledgerVersion,
+                rates.getVersion());
+
+        Job job = jobs.compute(id, (key, existing) -> {
+            if (existing != null && existing.status != ReportStatus.FAILED
+                    && (existing.status != ReportStatus.COMPLETED || Files.exists(existing.path))) {
+                return existing;
+            }
+            Job created = new Job(id, tenantId, request.getFormat(), range, divisions, currency, ledgerVersion,
+                    resultPath(tenantId, id, request.getFormat()));
+            if (Files.exists(created.path)) {
+                // Evicted from the job table but still on disk
+                complete(created, null);
+                return created;
+            }
+            try {
+                workers.execute(() -> generate(created, match, rates));
+            } catch (RejectedExecutionException e) {
+                throw new ServiceUnavailableException("Report queue is full, retry later");
+            }
+            return created;
+        });
+        return toResponse(job);
+    }
+
+    @Override
+    public ReportJob getJob(String id) {
+        return toResponse(find(id));
+    }
+
+    @Override
+    public Path getResult(String id) {
+        Job job = find(id);
+        if (job.status != ReportStatus.COMPLETED) {
+            throw new BusinessRuleException("Report is not ready: " + job.status);
+        }
+        if (!Files.exists(job.path)) {
+            throw new ResourceNotFoundException("Report has expired, submit it again");
+        }
+        return job.path;
+    }
+
+    @Scheduled(fixedDelayString = "${reports.cleanup-interval-ms:3600000}")
+    public void evictExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(cutoff));
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            files.filter(Files::isRegularFile).filter(path -> modifiedBefore(path, cutoff))
+                    .forEach(ReportServiceImpl::delete);
+        } catch (IOException e) {
+            log.warn("Failed to clean up report directory {}", directory, e);
+        }
+    }
+
+    @EventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        // A date edit changes two months; a move or an amount edit, one
+        Set<String> keys = new TreeSet<>();
+        for (Transaction version : new Transaction[] {event.getBefore(), event.getAfter()}) {
+            if (version != null && version.getTransactionDate() != null) {
+                keys.add(ledgerKey(version.getTenantId(), month(version.getTransactionDate())));
+            }
+        }
+        keys.forEach(key -> increment(key, 1));
+    }
+
+    @Scheduled(fixedDelayString = "${reports.ledger-retry-interval-ms:1000}")
+    public void retryLedgerIncrements() {
+        for (Map.Entry<String, AtomicLong> entry : failedIncrements.entrySet()) {
+            long delta = entry.getValue().getAndSet(0);
+            if (delta > 0) {
+                increment(entry.getKey(), delta);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+        retryLedgerIncrements();
+    }
+
+    private void increment(String key, long delta) {
+        try {
+            mongoTemplate.upsert(new Query(Criteria.where("_id").is(key)), new Update().inc("version", delta),
+                    LEDGER_VERSIONS);
+        } catch (RuntimeException e) {
+            failedIncrements.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta);
+            log.warn("Failed to bump ledger version {}; retrying", key, e);
+        }
+    }
+
+    private void generate(Job job, Criteria match, FxRateTable rates) {
+        job.status = ReportStatus.RUNNING;
+        Path temp = job.path.resolveSibling(job.id + ".tmp");
+        // Sorted on the tenant_transactionDate index, so the cursor streams without an in-memory sort
+        Query query = new Query(match).with(Sort.by("transactionDate"));
+        try {
+            Totals totals;
+            try (Stream<Transaction> transactions = mongoTemplate.stream(query, Transaction.class);
+                    OutputStream out = Files.newOutputStream(withParentDirectory(temp))) {
+                totals = job.format == ReportFormat.JSON
+                        ? writeJson(job, transactions, rates, out)
+                        : writeCsv(job, transactions, rates, out);
+            }
+            // Only a closed, complete file is moved into place
+            Files.move(temp, job.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            complete(job, totals.rows);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Report {} failed", job.id, e);
+            delete(temp);
+            job.error = e.getMessage();
+            job.completedAt = Instant.now();
+            job.status = ReportStatus.FAILED;
+        }
+    }
+
+    private Totals writeCsv(Job job, Stream<Transaction> transactions, FxRateTable rates, OutputStream out)
+            throws IOException {
+        Totals totals = new Totals();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", CSV_HEADER));
+        writer.write("\n");
+        try {
+            transactions.forEach(transaction -> {
+                double converted = totals.add(transaction, convert(rates, transaction, job.currency));
+                String[] row = {transaction.getId(), String.valueOf(transaction.getTransactionDate()),
+                        String.valueOf(transaction.getType()), transaction.getCategory(),
+                        String.valueOf(transaction.getDivision()), transaction.getDescription(),
+                        String.valueOf(transaction.getAmount()), currencyOf(rates, transaction),
+                        String.valueOf(converted), transaction.getSourceAccount(), transaction.getTargetAccount()};
+                try {
+                    for (int i = 0; i < row.length; i++) {
+                        if (i > 0) {
+                            writer.write(',');
+                        }
+                        writer.write(csv(row[i]));
+                    }
+                    writer.write("\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return totals;
+    }
+
+    private Totals writeJson(Job job, Stream<Transaction> transactions, FxRateTable rates, OutputStream out)
+            throws IOException {
+        Totals totals = new Totals();
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        json.writeStartObject();
+        json.writeStringField("id", job.id);
+        json.writeStringField("startDate", job.range.start().toString());
+        json.writeStringField("endDate", job.range.end().toString());
+        json.writeStringField("currency", job.currency);
+        json.writeArrayFieldStart("divisions");
+        for (Division division : job.divisions) {
+            json.writeString(division.name());
+        }
+        json.writeEndArray();
+        json.writeStringField("ledgerVersion", job.ledgerVersion);
+        json.writeStringField("generatedAt", Instant.now().toString());
+
+        json.writeArrayFieldStart("transactions");
+        try {
+            transactions.forEach(transaction -> {
+                double converted = totals.add(transaction, convert(rates, transaction, job.currency));
+                try {
+                    json.writeStartObject();
+                    json.writeStringField("id", transaction.getId());
+                    json.writeStringField("date", String.valueOf(transaction.getTransactionDate()));
+                    json.writeStringField("type", String.valueOf(transaction.getType()));
+                    json.writeStringField("category", transaction.getCategory());
+                    json.writeStringField("division", String.valueOf(transaction.getDivision()));
+                    json.writeStringField("description", transaction.getDescription());
+                    json.writeNumberField("amount", transaction.getAmount() != null ? transaction.getAmount() : 0.0);
+                    json.writeStringField("currency", currencyOf(rates, transaction));
+                    json.writeNumberField("convertedAmount", converted);
+                    json.writeStringField("sourceAccount", transaction.getSourceAccount());
+                    json.writeStringField("targetAccount", transaction.getTargetAccount());
+                    json.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        json.writeEndArray();
+
+        // Totals come last: they are accumulated during the same pass that wrote the rows
+        json.writeObjectFieldStart("summary");
+        json.writeNumberField("rows", totals.rows);
+        json.writeNumberField("totalIncome", round(totals.income));
+        json.writeNumberField("totalExpense", round(totals.expense));
+        json.writeNumberField("balance", round(totals.income - totals.expense));
+        json.writeArrayFieldStart("expenseByCategory");
+        for (Map.Entry<String, Double> entry : totals.expenseByCategory.entrySet()) {
+            json.writeStartObject();
+            json.writeStringField("category", entry.getKey());
+            json.writeNumberField("totalAmount", round(entry.getValue()));
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+        json.writeEndObject();
+        json.flush();
+        return totals;
+    }
+
+    /** Changes with any insert, edit or delete dated in one of the range's months; one _id range scan. */
+    private String ledgerVersion(String tenantId, PeriodRange range) {
+        YearMonth first = month(range.start());
+        YearMonth last = month(range.end().minusNanos(1));
+        Query query = new Query(Criteria.where("_id").gte(ledgerKey(tenantId, first)).lte(ledgerKey(tenantId, last)));
+        long version = 0;
+        for (Document counter : mongoTemplate.find(query, Document.class, LEDGER_VERSIONS)) {
+            version += counter.get("version", Number.class).longValue();
+        }
+        return Long.toString(version);
+    }
+
+    private static YearMonth month(Instant instant) {
+        return YearMonth.from(instant.atZone(ZoneOffset.UTC));
+    }
+
+    // Tenant ids cannot contain '|' and months are fixed width, so a tenant's months sort together in order
+    private static String ledgerKey(String tenantId, YearMonth month) {
+        return tenantId + "|" + month;
+    }
+
+    private static String jobId(String tenantId, PeriodRange range, List<Division> divisions, String currency,
+            ReportFormat format, String ledgerVersion, String fxVersion) {
+        String canonical = String.join("|", LAYOUT_VERSION, tenantId, range.start().toString(), range.end().toString(),
+                divisions.toString(), currency, format.name(), ledgerVersion, String.valueOf(fxVersion));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static PeriodRange range(ReportRequest request) {
+        if (request.getStartDate() == null && request.getEndDate() == null) {
+            return PeriodRange.of(request.getPeriod());
+        }
+        if (request.getStartDate() == null || request.getEndDate() == null) {
+            throw new BusinessRuleException("startDate and endDate must be given together");
+        }
+        if (!request.getStartDate().isBefore(request.getEndDate())) {
+            throw new BusinessRuleException("startDate must be before endDate");
+        }
+        return new PeriodRange(request.getStartDate(), request.getEndDate());
+    }
+
+    // Sorted and de-duplicated so equivalent requests hash the same
+    private static List<Division> divisions(List<Division> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return List.of(Division.values());
+        }
+        return new ArrayList<>(EnumSet.copyOf(requested));
+    }
+
+    private static Criteria match(PeriodRange range, List<Division> divisions) {
+        Criteria criteria = TenantContext.where("transactionDate").gte(range.start()).lt(range.end());
+        if (divisions.size() < Division.values().length) {
+            criteria.and("division").in(divisions);
+        }
+        return criteria;
+    }
+
+    private Job find(String id) {
+        if (id == null || !JOB_ID.matcher(id).matches()) {
+            throw new ResourceNotFoundException("Report not found");
+        }
+        String tenantId = TenantContext.current();
+        Job job = jobs.get(id);
+        if (job != null) {
+            if (!tenantId.equals(job.tenantId)) {
+                throw new ResourceNotFoundException("Report not found");
+            }
+            return job;
+        }
+        // Completed before a restart: only what the file name tells us is known
+        for (ReportFormat format : ReportFormat.values()) {
+            Path path = resultPath(tenantId, id, format);
+            if (Files.exists(path)) {
+                Job restored = new Job(id, tenantId, format, null, null, null, null, path);
+                complete(restored, null);
+                return restored;
+            }
+        }
+        throw new ResourceNotFoundException("Report not found");
+    }
+
+    // Tenant ids are restricted to [A-Za-z0-9_-], so they are safe as directory names
+    private Path resultPath(String tenantId, String id, ReportFormat format) {
+        return directory.resolve(tenantId).resolve(id + "." + format.name().toLowerCase());
+    }
+
+    private static void complete(Job job, Long rows) {
+        job.rows = rows;
+        try {
+            job.sizeBytes = Files.size(job.path);
+            job.completedAt = Files.getLastModifiedTime(job.path).toInstant();
+        } catch (IOException e) {
+            job.completedAt = Instant.now();
+        }
+        job.status = ReportStatus.COMPLETED;
+    }
+
+    private static double convert(FxRateTable rates, Transaction transaction, String target) {
+        if (transaction.getAmount() == null) {
+            return 0.0;
+        }
+        long day = LocalDate.ofInstant(transaction.getTransactionDate(), ZoneOffset.UTC).toEpochDay();
+        return round(rates.convert(transaction.getAmount(), currencyOf(rates, transaction), target, day));
+    }
+
+    private static String currencyOf(FxRateTable rates, Transaction transaction) {
+        return transaction.getCurrency() != null ? transaction.getCurrency() : rates.getBaseCurrency();
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    /** Quotes when needed; a leading = + - @ is escaped so spreadsheets do not evaluate it as a formula. */
+    private static String csv(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        if ("=+-@".indexOf(value.charAt(0)) >= 0 && !isNumber(value)) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean modifiedBefore(Path path, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Path withParentDirectory(Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        return path;
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete report file {}", path, e);
+        }
+    }
+
+    private ReportJob toResponse(Job job) {
+        ReportJob response = new ReportJob();
+        response.setId(job.id);
+        response.setStatus(job.status);
+        response.setFormat(job.format);
+        if (job.range != null) {
+            response.setStartDate(job.range.start());
+            response.setEndDate(job.range.end());
+        }
+        response.setDivisions(job.divisions);
+        response.setCurrency(job.currency);
+        response.setLedgerVersion(job.ledgerVersion);
+        response.setRows(job.rows);
+        response.setSizeBytes(job.sizeBytes);
+        response.setError(job.error);
+        response.setSubmittedAt(job.submittedAt);
+        response.setCompletedAt(job.completedAt);
+        return response;
+    }
+
+    /** Live job; mutable fields are written by the worker and read by request threads. */
+    private static final class Job {
+        private final String id;
+        private final String tenantId;
+        private final ReportFormat format;
+        private final PeriodRange range;
+        private final List<Division> divisions;
+        private final String currency;
+        private final String ledgerVersion;
+        private final Path path;
+        private final Instant submittedAt = Instant.now();
+        private volatile ReportStatus status = ReportStatus.QUEUED;
+        private volatile Long rows;
+        private volatile Long sizeBytes;
+        private volatile String error;
+        private volatile Instant completedAt;
+
+        private Job(String id, String tenantId, ReportFormat format, PeriodRange range, List<Division> divisions,
+                String currency, String ledgerVersion, Path path) {
+            this.id = id;
+            this.tenantId = tenantId;
+            this.format = format;
+            this.range = range;
+            this.divisions = divisions;
+            this.currency = currency;
+            this.ledgerVersion = ledgerVersion;
+            this.path = path;
+        }
+    }
+
+    /** Running totals in the report currency; transfers are listed but not counted as income or expense. */
+    private static final class Totals {
+        private long rows;
+        private double income;
+        private double expense;
+        private final Map<String, Double> expenseByCategory = new TreeMap<>();
+
+        private double add(Transaction transaction, double converted) {
+            rows++;
+            if (transaction.getType() == TransactionType.INCOME) {
+                income += converted;
+            } else if (transaction.getType() == TransactionType.EXPENSE) {
+                expense += converted;
+                expenseByCategory.merge(String.valueOf(transaction.getCategory()), converted, Double::sum);
+            }
+            return converted;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.money.manager.service.impl;
+
+import com.money.manager.dto.TransactionResponse;
+import com.money.manager.enums.Division;
+import com.money.manager.event.TransactionChangedEvent;
+import com.money.manager.mapper.TransactionMapper;
+import com.money.manager.model.Transaction;
+import com.money.manager.service.SearchService;
+import com.money.manager.util.TenantContext;
+import com.money.manager.util.Trie;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Search is served by the MongoDB text index on description + category (ranking, stemming).
+ * Prefix and typo tolerance come from an in-memory vocabulary trie of indexed terms: each query
+ * token is expanded to known terms it prefixes or is within 1-2 edits of, and the expanded set is
+ * sent as one $text query. A second trie of distinct categories serves autocomplete.
+ *
+ * Both tries are built once the app is ready and kept current from TransactionChangedEvents,
+ * which are queued to one indexer thread in publish order: the write path never waits for or
+ * fails because of indexing, and suggestions trail writes by the queue's length. Each tenant has
+ * its own pair under its own lock, so suggestions never leak terms across tenants and one tenant's
+ * indexing never blocks another's lookups; the text index leads with tenantId, which every $text
+ * query therefore matches by equality.
+ */
+@Service
+public class SearchServiceImpl implements SearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchServiceImpl.class);
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int EXPANSIONS_PER_TOKEN = 3;
+    private static final int MAX_LIMIT = 200;
+    private static final int LOAD_CHUNK = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final TransactionMapper transactionMapper;
+
+    private final Map<String, Tries> triesByTenant = new ConcurrentHashMap<>();
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean vocabularyReady;
+
+    public SearchServiceImpl(MongoTemplate mongoTemplate, TransactionMapper transactionMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.transactionMapper = transactionMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexes() {
+        Thread loader = new Thread(this::loadIndexes, "search-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // Writes that land during the scan may be counted twice; counts only affect ordering
+    private void loadIndexes() {
+        try {
+            Aggregation categoryCounts = Aggregation.newAggregation(
+                    Aggregation.group(TenantContext.FIELD, "category").count().as("count"));
+            List<Document> counts = mongoTemplate.aggregate(categoryCounts, "transactions", Document.class)
+                    .getMappedResults();
+            for (Document doc : counts) {
+                Document id = (Document) doc.get("_id");
+                String category = id.getString("category");
+                if (category != null) {
+                    Tries tries = tries(id.getString(TenantContext.FIELD));
+                    tries.lock.writeLock().lock();
+                    try {
+                        tries.categories.add(category.toLowerCase(Locale.ROOT), category, doc.getInteger("count"));
+                        terms(category).forEach(term -> tries.vocabulary.add(term, term));
+                    } finally {
+                        tries.lock.writeLock().unlock();
+                    }
+                }
+            }
+
+            Query query = new Query();
+            query.fields().include(TenantContext.FIELD).include("description");
+            List<Document> chunk = new ArrayList<>(LOAD_CHUNK);
+            try (var stream = mongoTemplate.stream(query, Document.class, "transactions")) {
+                stream.forEach(doc -> {
+                    chunk.add(doc);
+                    if (chunk.size() >= LOAD_CHUNK) {
+                        addDescriptions(chunk);
+                        chunk.clear();
+                    }
+                });
+            }
+            addDescriptions(chunk);
+            vocabularyReady = true;
+            log.info("Search vocabulary ready for {} tenants", triesByTenant.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not build search vocabulary; searches will use exact terms only", e);
+        }
+    }
+
+    private void addDescriptions(List<Document> docs) {
+        for (Document doc : docs) {
+            Tries tries = tries(doc.getString(TenantContext.FIELD));
+            tries.lock.writeLock().lock();
+            try {
+                terms(doc.getString("description")).forEach(term -> tries.vocabulary.add(term, term));
+            } finally {
+                tries.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @EventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        try {
+            indexer.execute(() -> apply(event));
+        } catch (RejectedExecutionException e) {
+            log.debug("Search indexer stopped; dropping index update");
+        }
+    }
+
+    void apply(TransactionChangedEvent event) {
+        try {
+            if (event.getBefore() != null) {
+                unindex(event.getBefore());
+            }
+            if (event.getAfter() != null) {
+                index(event.getAfter());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not update search index for a transaction change", e);
+        }
+    }
+
+    private void index(Transaction transaction) {
+        Tries tries = tries(transaction.getTenantId());
+        tries.lock.writeLock().lock();
+        try {
+            terms(transaction.getDescription()).forEach(term -> tries.vocabulary.add(term, term));
+            terms(transaction.getCategory()).forEach(term -> tries.vocabulary.add(term, term));
+            if (transaction.getCategory() != null) {
+                tries.categories.add(transaction.getCategory().toLowerCase(Locale.ROOT), transaction.getCategory());
+            }
+        } finally {
+            tries.lock.writeLock().unlock();
+        }
+    }
+
+    private void unindex(Transaction transaction) {
+        Tries tries = tries(transaction.getTenantId());
+        tries.lock.writeLock().lock();
+        try {
+            terms(transaction.getDescription()).forEach(tries.vocabulary::remove);
+            terms(transaction.getCategory()).forEach(tries.vocabulary::remove);
+            if (transaction.getCategory() != null) {
+                tries.categories.remove(transaction.getCategory().toLowerCase(Locale.ROOT));
+            }
+        } finally {
+            tries.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TransactionResponse> search(String query, Instant startDate, Instant endDate, Division division,
+            int limit) {
+        Set<String> terms = expand(terms(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Query textQuery = TextQuery.queryText(TextCriteria.forDefaultLanguage().matchingAny(terms.toArray(new String[0])))
+                .sortByScore();
+        textQuery.addCriteria(TenantContext.criteria());
+
+        // UTC range: transactionDate >= start AND transactionDate < end (exclusive end)
+        if (startDate != null && endDate != null) {
+            textQuery.addCriteria(Criteria.where("transactionDate").gte(startDate).lt(endDate));
+        } else if (startDate != null) {
+            textQuery.addCriteria(Criteria.where("transactionDate").gte(startDate));
+        } else if (endDate != null) {
+            textQuery.addCriteria(Criteria.where("transactionDate").lt(endDate));
+        }
+        if (division != null) {
+            textQuery.addCriteria(Criteria.where("division").is(division));
+        }
+        textQuery.limit(Math.min(Math.max(limit, 1), MAX_LIMIT));
+
+        return mongoTemplate.find(textQuery, Transaction.class)
+                .stream()
+                .map(transactionMapper::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> autocompleteCategories(String prefix, int limit) {
+        Tries tries = tries(TenantContext.current());
+        tries.lock.readLock().lock();
+        try {
+            return tries.categories.withPrefix(prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT),
+                            Math.min(Math.max(limit, 1), MAX_LIMIT))
+                    .stream()
+                    .map(Trie.Match::value)
+                    .collect(Collectors.toList());
+        } finally {
+            tries.lock.readLock().unlock();
+        }
+    }
+
+    /** Each token plus the known terms it prefixes or nearly matches (1 edit up to 5 chars, else 2). */
+    private Set<String> expand(List<String> tokens) {
+        Set<String> expanded = new LinkedHashSet<>(tokens);
+        if (!vocabularyReady) {
+            return expanded;
+        }
+        Tries tries = tries(TenantContext.current());
+        tries.lock.readLock().lock();
+        try {
+            Trie vocabulary = tries.vocabulary;
+            for (String token : tokens) {
+                vocabulary.withPrefix(token, EXPANSIONS_PER_TOKEN)
+                        .forEach(match -> expanded.add(match.value()));
+                if (token.length() > 3 && !vocabulary.contains(token)) {
+                    int maxEdits = token.length() <= 5 ? 1 : 2;
+                    vocabulary.withinDistance(token, maxEdits, EXPANSIONS_PER_TOKEN)
+                            .forEach(match -> expanded.add(match.value()));
+                }
+            }
+        } finally {
+            tries.lock.readLock().unlock();
+        }
+        return expanded;
+    }
+
+    private Tries tries(String tenantId) {
+        return triesByTenant.computeIfAbsent(tenantId, id -> new Tries());
+    }
+
+    private static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String term : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexer.shutdownNow();
+    }
+
+    /** One tenant's vocabulary and category tries and the lock guarding both. */
+    private static final class Tries {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Trie vocabulary = new Trie();
+        private final Trie categories = new Trie();
+    }
+}
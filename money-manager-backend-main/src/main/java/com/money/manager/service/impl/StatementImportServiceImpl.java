@@ -0,0 +1,601 @@
+package com.money.manager.service.impl;
+
+import com.money.manager.dto.ImportMapping;
+import com.money.manager.dto.ImportResult;
+import com.money.manager.dto.TransactionRequest;
+import com.money.manager.enums.StatementFormat;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.event.TransactionChangedEvent;
+import com.money.manager.exception.BusinessRuleException;
+import com.money.manager.mapper.TransactionMapper;
+import com.money.manager.model.Transaction;
+import com.money.manager.repository.TransactionBulkWriter;
+import com.money.manager.service.FxRateService;
+import com.money.manager.service.StatementImportService;
+import com.money.manager.util.TenantContext;
+import com.money.manager.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming CSV/OFX statement import. Rows are parsed one at a time and written in bulk batches,
+ * so memory stays constant regardless of file size.
+ *
+ * Dedup: each row gets a fingerprint (date, type, amount, description, account) that its _id
+ * is derived from, so a row imported twice is a duplicate key. A Bloom filter of known fingerprints answers "definitely new" for most
+ * rows; only "maybe seen" rows are confirmed against the index, one query per batch.
+ * Fingerprints are unique per tenant, so the filter holds tenantId|fingerprint.
+ */
+@Service
+@DependsOn("tenantMigration")
+public class StatementImportServiceImpl implements StatementImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementImportServiceImpl.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_OFX_TEXT = 1024;
+    // One CSV record, including quoted fields spanning lines; longer ones (usually a stray quote) are rejected
+    private static final int MAX_RECORD_LENGTH = 65_536;
+    private static final Pattern CREDIT_DEBIT_SUFFIX =
+            Pattern.compile("(?i)^(.*?)\\s*(CR|DR)\\.?$");
+    private static final Pattern CURRENCY_AFFIX =
+            Pattern.compile("^[\\p{L}\\p{Sc}\\s]+|[\\p{L}\\p{Sc}\\s]+$");
+    private static final DateTimeFormatter OFX_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter OFX_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final MongoTemplate mongoTemplate;
+    private final TransactionMapper transactionMapper;
+    private final FxRateService fxRateService;
+    private final TransactionBulkWriter bulkWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final int batchSize;
+    private final BloomFilter knownFingerprints;
+
+    // Until the startup scan finishes every row is treated as "maybe seen"
+    private volatile boolean bloomReady;
+
+    public StatementImportServiceImpl(MongoTemplate mongoTemplate, TransactionMapper transactionMapper,
+            FxRateService fxRateService, TransactionBulkWriter bulkWriter, ApplicationEventPublisher eventPublisher, Validator validator,
+            @Value("${import.batch-size:1000}") int batchSize,
+            @Value("${import.bloom.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${import.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.mongoTemplate = mongoTemplate;
+        this.transactionMapper = transactionMapper;
+        this.fxRateService = fxRateService;
+        this.bulkWriter = bulkWriter;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.knownFingerprints = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    @PostConstruct
+    public void loadFingerprints() {
+        Thread loader = new Thread(() -> {
+            Query query = new Query(Criteria.where("fingerprint").exists(true));
+            query.fields().include(TenantContext.FIELD).include("fingerprint");
+            try (var stream = mongoTemplate.stream(query, Document.class, "transactions")) {
+                stream.forEach(doc -> knownFingerprints.put(
+                        bloomKey(doc.getString(TenantContext.FIELD), doc.getString("fingerprint"))));
+                bloomReady = true;
+            } catch (RuntimeException e) {
+                log.warn("Could not preload import fingerprints; all rows will be checked against the index", e);
+            }
+        }, "import-bloom-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @Override
+    public ImportResult importStatement(InputStream input, ImportMapping mapping) {
+        // Reject an unsupported statement currency before any row is written
+        mapping.setCurrency(fxRateService.resolveCurrency(mapping.getCurrency()));
+        if (mapping.getDecimalSeparator() != '.' && mapping.getDecimalSeparator() != ',') {
+            throw new BusinessRuleException("Decimal separator must be '.' or ','");
+        }
+        ImportResult result = new ImportResult();
+        ImportBatch batch = new ImportBatch(result);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            if (mapping.getFormat() == StatementFormat.OFX) {
+                parseOfx(reader, mapping, batch);
+            } else {
+                parseCsv(reader, mapping, batch);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read statement", e);
+        }
+        batch.flush();
+        return result;
+    }
+
+    // ---- CSV ----
+
+    private void parseCsv(BufferedReader reader, ImportMapping mapping, ImportBatch batch) throws IOException {
+        long lineNo = 0;
+        Map<String, Integer> headerIndex = new HashMap<>();
+        if (mapping.isHeader()) {
+            String headerLine = readLine(reader);
+            lineNo++;
+            if (headerLine == null) {
+                return;
+            }
+            List<String> names = splitCsv(stripBom(headerLine), mapping.getDelimiter());
+            for (int i = 0; i < names.size(); i++) {
+                headerIndex.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        int dateCol = resolveColumn(mapping.getDateColumn(), headerIndex, mapping.isHeader());
+        int amountCol = resolveColumn(mapping.getAmountColumn(), headerIndex, mapping.isHeader());
+        int descriptionCol = resolveColumn(mapping.getDescriptionColumn(), headerIndex, mapping.isHeader());
+        int categoryCol = resolveColumn(mapping.getCategoryColumn(), headerIndex, mapping.isHeader());
+        int typeCol = resolveColumn(mapping.getTypeColumn(), headerIndex, mapping.isHeader());
+        int accountCol = resolveColumn(mapping.getAccountColumn(), headerIndex, mapping.isHeader());
+        DateTimeFormatter dateFormat;
+        try {
+            dateFormat = DateTimeFormatter.ofPattern(mapping.getDateFormat());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessRuleException("Invalid date format: " + mapping.getDateFormat());
+        }
+
+        String line;
+        while ((line = readLine(reader)) != null) {
+            lineNo++;
+            long rowLine = lineNo;
+            // A quoted field may span lines; keep reading until the quotes balance or the record is too long
+            StringBuilder record = new StringBuilder(line);
+            int quotes = countQuotes(line);
+            while (quotes % 2 != 0 && record.length() <= MAX_RECORD_LENGTH) {
+                String next = readLine(reader);
+                if (next == null) {
+                    break;
+                }
+                lineNo++;
+                record.append('\n').append(next);
+                quotes += countQuotes(next);
+            }
+            if (record.length() > MAX_RECORD_LENGTH) {
+                batch.result.setTotalRows(batch.result.getTotalRows() + 1);
+                batch.reject(rowLine, "record longer than " + MAX_RECORD_LENGTH + " characters (unbalanced quote?)");
+                continue;
+            }
+            line = record.toString();
+            if (line.isBlank()) {
+                continue;
+            }
+
+            batch.result.setTotalRows(batch.result.getTotalRows() + 1);
+            try {
+                List<String> fields = splitCsv(line, mapping.getDelimiter());
+                BigDecimal signedAmount = parseAmount(field(fields, amountCol), mapping.getDecimalSeparator());
+                TransactionRequest request = new TransactionRequest();
+                request.setTransactionDate(parseDate(field(fields, dateCol), dateFormat));
+                request.setType(resolveType(field(fields, typeCol), signedAmount));
+                request.setAmount(signedAmount.abs().doubleValue());
+                request.setDescription(field(fields, descriptionCol));
+                String category = field(fields, categoryCol);
+                request.setCategory(category == null || category.isBlank() ? mapping.getDefaultCategory() : category);
+                request.setDivision(mapping.getDivision());
+                String account = field(fields, accountCol);
+                request.setSourceAccount(account == null || account.isBlank() ? mapping.getAccount() : account);
+                request.setCurrency(mapping.getCurrency());
+                batch.add(rowLine, request);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                batch.reject(rowLine, e.getMessage());
+            }
+        }
+    }
+
+    private int resolveColumn(String column, Map<String, Integer> headerIndex, boolean header) {
+        if (column == null || column.isBlank()) {
+            return -1;
+        }
+        if (header) {
+            Integer index = headerIndex.get(column.trim().toLowerCase(Locale.ROOT));
+            if (index == null) {
+                throw new BusinessRuleException("Column not found in header: " + column);
+            }
+            return index;
+        }
+        try {
+            return Integer.parseInt(column.trim());
+        } catch (NumberFormatException e) {
+            throw new BusinessRuleException("Column must be a zero-based index when the file has no header: " + column);
+        }
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index < 0) {
+            return null;
+        }
+        if (index >= fields.size()) {
+            throw new IllegalArgumentException("missing column " + index);
+        }
+        return fields.get(index).trim();
+    }
+
+    private static List<String> splitCsv(String line, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static int countQuotes(String line) {
+        int quotes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * Like readLine, but keeps at most MAX_RECORD_LENGTH + 1 characters of a line and skips the rest,
+     * so one endless line cannot fill the heap; callers see the overflow as an over-long record.
+     */
+    private static String readLine(BufferedReader reader) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1 && c != '\n') {
+            if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            }
+            if (line.length() <= MAX_RECORD_LENGTH) {
+                line.append((char) c);
+            }
+            c = reader.read();
+        }
+        return line.toString();
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    // ---- OFX (SGML v1 and XML v2) ----
+
+    private void parseOfx(BufferedReader reader, ImportMapping mapping, ImportBatch batch) throws IOException {
+        StringBuilder tag = new StringBuilder();
+        StringBuilder text = new StringBuilder();
+        boolean inTag = false;
+        String openTag = null;
+        String accountId = mapping.getAccount();
+        Map<String, String> current = null;
+        long record = 0;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '<') {
+                String value = text.toString().trim();
+                if (openTag != null && !value.isEmpty()) {
+                    if ("ACCTID".equals(openTag)) {
+                        accountId = value;
+                    } else if (current != null) {
+                        current.put(openTag, value);
+                    }
+                }
+                inTag = true;
+                tag.setLength(0);
+            } else if (c == '>' && inTag) {
+                inTag = false;
+                String name = tag.toString().trim().toUpperCase(Locale.ROOT);
+                if ("STMTTRN".equals(name)) {
+                    current = new HashMap<>();
+                } else if ("/STMTTRN".equals(name) && current != null) {
+                    record++;
+                    batch.result.setTotalRows(batch.result.getTotalRows() + 1);
+                    try {
+                        batch.add(record, toRequest(current, mapping, accountId));
+                    } catch (IllegalArgumentException | DateTimeParseException e) {
+                        batch.reject(record, e.getMessage());
+                    }
+                    current = null;
+                }
+                openTag = name.startsWith("/") || name.startsWith("?") ? null : name;
+                text.setLength(0);
+            } else if (inTag) {
+                tag.append((char) c);
+            } else if (text.length() < MAX_OFX_TEXT) {
+                text.append((char) c);
+            }
+        }
+    }
+
+    private TransactionRequest toRequest(Map<String, String> trn, ImportMapping mapping, String accountId) {
+        String amount = trn.get("TRNAMT");
+        // OFX allows either separator and never groups digits
+        char decimalSeparator = amount != null && amount.indexOf(',') >= 0 && amount.indexOf('.') < 0 ? ',' : '.';
+        BigDecimal signedAmount = parseAmount(amount, decimalSeparator);
+        String posted = trn.get("DTPOSTED");
+        if (posted == null || posted.length() < 8) {
+            throw new IllegalArgumentException("missing DTPOSTED");
+        }
+        Instant date = posted.length() >= 14 && Character.isDigit(posted.charAt(13))
+                ? LocalDateTime.parse(posted.substring(0, 14), OFX_DATE_TIME).toInstant(ZoneOffset.UTC)
+                : LocalDate.parse(posted.substring(0, 8), OFX_DATE).atStartOfDay(ZoneOffset.UTC).toInstant();
+        String description = trn.getOrDefault("NAME", trn.get("MEMO"));
+
+        TransactionRequest request = new TransactionRequest();
+        request.setTransactionDate(date);
+        request.setType(resolveType(trn.get("TRNTYPE"), signedAmount));
+        request.setAmount(signedAmount.abs().doubleValue());
+        request.setDescription(description);
+        request.setCategory(mapping.getDefaultCategory());
+        request.setDivision(mapping.getDivision());
+        request.setSourceAccount(accountId);
+        request.setCurrency(mapping.getCurrency());
+        return request;
+    }
+
+    // ---- shared row handling ----
+
+    /**
+     * Signed amount from statement text: "(12.00)", "12.00-", "-12.00" and "12.00 DR" are negative,
+     * "12.00 CR" positive; currency symbols and codes around the number are ignored. Anything that
+     * does not read as one number with the given decimal separator is rejected rather than guessed.
+     */
+    static BigDecimal parseAmount(String value, char decimalSeparator) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("missing amount");
+        }
+        String text = value.trim();
+        boolean negative = false;
+        Matcher creditDebit = CREDIT_DEBIT_SUFFIX.matcher(text);
+        if (creditDebit.matches()) {
+            text = creditDebit.group(1);
+            negative = creditDebit.group(2).equalsIgnoreCase("DR");
+        }
+        text = CURRENCY_AFFIX.matcher(text).replaceAll("");
+        if (text.length() > 1 && text.startsWith("(") && text.endsWith(")")) {
+            negative = true;
+            text = CURRENCY_AFFIX.matcher(text.substring(1, text.length() - 1)).replaceAll("");
+        }
+        if (text.endsWith("-")) {
+            negative = true;
+            text = text.substring(0, text.length() - 1);
+        } else if (text.startsWith("-") || text.startsWith("+")) {
+            negative |= text.charAt(0) == '-';
+            text = CURRENCY_AFFIX.matcher(text.substring(1)).replaceAll("");
+        }
+
+        char grouping = decimalSeparator == ',' ? '.' : ',';
+        StringBuilder number = new StringBuilder(text.length());
+        boolean decimalSeen = false;
+        boolean digitSeen = false;
+        // Digits since the last grouping mark, or -1 when none; each group must have exactly three
+        int groupDigits = -1;
+        boolean valid = true;
+        for (int i = 0; i < text.length() && valid; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                number.append(c);
+                digitSeen = true;
+                if (groupDigits >= 0) {
+                    groupDigits++;
+                }
+            } else if (c == decimalSeparator && !decimalSeen) {
+                valid = groupDigits < 0 || groupDigits == 3;
+                number.append('.');
+                decimalSeen = true;
+                groupDigits = -1;
+            } else if ((c == grouping || c == ' ' || c == '\u00A0' || c == '\u202F' || c == '\'')
+                    && !decimalSeen && digitSeen) {
+                valid = groupDigits < 0 || groupDigits == 3;
+                groupDigits = 0;
+            } else {
+                valid = false;
+            }
+        }
+        if (!valid || (groupDigits >= 0 && groupDigits != 3)) {
+            throw new IllegalArgumentException("invalid amount '" + value + "' (decimal separator '"
+                    + decimalSeparator + "')");
+        }
+        if (!digitSeen) {
+            throw new IllegalArgumentException("invalid amount '" + value + "'");
+        }
+        BigDecimal amount = new BigDecimal(number.toString());
+        return negative ? amount.negate() : amount;
+    }
+
+    private static Instant parseDate(String value, DateTimeFormatter format) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("missing date");
+        }
+        TemporalAccessor parsed = format.parseBest(value, LocalDateTime::from, LocalDate::from);
+        if (parsed instanceof LocalDateTime dateTime) {
+            return dateTime.toInstant(ZoneOffset.UTC);
+        }
+        return ((LocalDate) parsed).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private static TransactionType resolveType(String value, BigDecimal signedAmount) {
+        if (value != null && !value.isBlank()) {
+            switch (value.trim().toUpperCase(Locale.ROOT)) {
+                case "INCOME", "CREDIT", "CR", "DEP", "DEPOSIT", "INT", "DIV":
+                    return TransactionType.INCOME;
+                case "EXPENSE", "DEBIT", "DR", "PAYMENT", "POS", "ATM", "FEE", "CHECK", "SRVCHG":
+                    return TransactionType.EXPENSE;
+                case "TRANSFER", "XFER":
+                    return TransactionType.TRANSFER;
+                default:
+                    break;
+            }
+        }
+        return signedAmount.signum() < 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
+    }
+
+    private static String bloomKey(String tenantId, String fingerprint) {
+        return tenantId + "|" + fingerprint;
+    }
+
+    private static String fingerprint(TransactionRequest request) {
+        String description = request.getDescription().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        String key = request.getTransactionDate().toEpochMilli()
+                + "|" + request.getType()
+                + "|" + BigDecimal.valueOf(request.getAmount()).stripTrailingZeros().toPlainString()
+                + "|" + description
+                + "|" + (request.getSourceAccount() == null ? "" : request.getSourceAccount().trim());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Accumulates validated rows and writes them in bulk once batchSize is reached. Rows are mapped
+     * only after duplicates are dropped, so re-importing a statement creates no categories.
+     */
+    private class ImportBatch {
+        private final ImportResult result;
+        private final Map<String, TransactionRequest> pending = new LinkedHashMap<>();
+        private final List<String> suspects = new ArrayList<>();
+
+        ImportBatch(ImportResult result) {
+            this.result = result;
+        }
+
+        void add(long line, TransactionRequest request) {
+            Set<ConstraintViolation<TransactionRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(line, violations.stream().map(ConstraintViolation::getMessage)
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+
+            String fingerprint = fingerprint(request);
+            if (pending.containsKey(fingerprint)) {
+                result.setDuplicates(result.getDuplicates() + 1);
+                return;
+            }
+            if (!bloomReady || knownFingerprints.mightContain(bloomKey(TenantContext.current(), fingerprint))) {
+                suspects.add(fingerprint);
+            }
+
+            pending.put(fingerprint, request);
+
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String reason) {
+            result.setRejected(result.getRejected() + 1);
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add("line " + line + ": " + reason);
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (!suspects.isEmpty()) {
+                Query query = new Query(TenantContext.where("fingerprint").in(suspects));
+                query.fields().include("fingerprint");
+                for (Document existing : mongoTemplate.find(query, Document.class, "transactions")) {
+                    if (pending.remove(existing.getString("fingerprint")) != null) {
+                        result.setDuplicates(result.getDuplicates() + 1);
+                    }
+                }
+            }
+
+            if (!pending.isEmpty()) {
+                // Store timestamps in UTC; never use server timezone
+                Instant now = Instant.now();
+                List<Transaction> batch = new ArrayList<>(pending.size());
+                pending.forEach((fingerprint, request) -> {
+                    Transaction transaction = new Transaction();
+                    transactionMapper.mapToEntity(request, transaction);
+                    transaction.setFingerprint(fingerprint);
+                    transaction.setCreatedAt(now);
+                    transaction.setUpdatedAt(now);
+                    batch.add(transaction);
+                });
+                // Another import of the same rows may have raced us; the _id derived from the
+                // fingerprint makes the loser a duplicate key, which the bulk writer skips
+                List<Transaction> inserted = bulkWriter.insertIgnoringDuplicates(batch);
+                result.setImported(result.getImported() + inserted.size());
+                result.setDuplicates(result.getDuplicates() + pending.size() - inserted.size());
+                inserted.forEach(transaction -> eventPublisher.publishEvent(TransactionChangedEvent.created(transaction)));
+                String tenantId = TenantContext.current();
+                pending.keySet().forEach(fingerprint -> knownFingerprints.put(bloomKey(tenantId, fingerprint)));
+            }
+
+            pending.clear();
+            suspects.clear();
+        }
+    }
+}
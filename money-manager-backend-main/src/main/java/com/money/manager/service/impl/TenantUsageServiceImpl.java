@@ -0,0 +1,59 @@
+package com.money.manager.service.impl;
+
+import com.money.manager.dto.TenantUsage;
+import com.money.manager.service.TenantUsageService;
+import com.money.manager.util.TenantContext;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Per-tenant MongoDB command counts, fed by the driver's command listener (see MongoConfig), so
+ * every repository call, MongoTemplate query and cursor batch is counted without touching call
+ * sites. Work done with no tenant bound (startup loads, cross-tenant schedulers) is counted under
+ * SYSTEM. Counters are in memory and reset on restart.
+ */
+@Service
+public class TenantUsageServiceImpl implements TenantUsageService {
+
+    static final String SYSTEM = "(system)";
+    private static final int MAX_LIMIT = 500;
+    private static final Set<String> READS = Set.of("find", "aggregate", "count", "distinct", "getMore");
+    private static final Set<String> WRITES = Set.of("insert", "update", "delete", "findAndModify");
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(String commandName, long elapsedMicros) {
+        boolean read = READS.contains(commandName);
+        if (!read && !WRITES.contains(commandName)) {
+            return;
+        }
+        String tenantId = TenantContext.currentOrNull();
+        Counters tenant = counters.computeIfAbsent(tenantId != null ? tenantId : SYSTEM, k -> new Counters());
+        (read ? tenant.reads : tenant.writes).increment();
+        tenant.micros.add(elapsedMicros);
+    }
+
+    @Override
+    public List<TenantUsage> getUsage(int limit) {
+        return counters.entrySet().stream()
+                .map(entry -> new TenantUsage(entry.getKey(), entry.getValue().reads.sum(),
+                        entry.getValue().writes.sum(), entry.getValue().micros.sum() / 1000))
+                .sorted(Comparator.comparingLong(TenantUsage::getDatabaseTimeMs).reversed())
+                .limit(Math.max(1, Math.min(limit, MAX_LIMIT)))
+                .collect(Collectors.toList());
+    }
+
+    private static final class Counters {
+        private final LongAdder reads = new LongAdder();
+        private final LongAdder writes = new LongAdder();
+        private final LongAdder micros = new LongAdder();
+    }
+}
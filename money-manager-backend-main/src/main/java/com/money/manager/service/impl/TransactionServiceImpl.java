@@ -7,11 +7,21 @@ import com.money.manager.dto.TransactionRequest;
 import com.money.manager.dto.TransactionResponse;
 import com.money.manager.enums.Division;
 import com.money.manager.enums.TransactionType;
+import com.money.manager.event.TransactionChangedEvent;
 import com.money.manager.exception.BusinessRuleException;
 import com.money.manager.exception.ResourceNotFoundException;
+import com.money.manager.mapper.TransactionMapper;
 import com.money.manager.model.Transaction;
 import com.money.manager.repository.TransactionRepository;
+import com.money.manager.service.AnomalyService;
+import com.money.manager.service.FxRateService;
 import com.money.manager.service.TransactionService;
+import com.money.manager.util.CategoryPath;
+import com.money.manager.util.FxAggregation;
+import com.money.manager.util.FxRateTable;
+import com.money.manager.util.PeriodRange;
+import com.money.manager.util.TenantContext;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -24,11 +34,11 @@ import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.time.LocalDate;
-import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,22 +46,35 @@ public class TransactionServiceImpl implements TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final MongoTemplate mongoTemplate;
-
-    public TransactionServiceImpl(TransactionRepository transactionRepository, MongoTemplate mongoTemplate) {
+    private final TransactionMapper transactionMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FxRateService fxRateService;
+    private final AnomalyService anomalyService;
+
+    public TransactionServiceImpl(TransactionRepository transactionRepository, MongoTemplate mongoTemplate,
+            TransactionMapper transactionMapper, ApplicationEventPublisher eventPublisher,
+            FxRateService fxRateService, AnomalyService anomalyService) {
         this.transactionRepository = transactionRepository;
         this.mongoTemplate = mongoTemplate;
+        this.transactionMapper = transactionMapper;
+        this.eventPublisher = eventPublisher;
+        this.fxRateService = fxRateService;
+        this.anomalyService = anomalyService;
     }
 
     @Override
     public TransactionResponse createTransaction(TransactionRequest request) {
         Transaction transaction = new Transaction();
-        mapToEntity(request, transaction);
+        transactionMapper.mapToEntity(request, transaction);
         // Store timestamps in UTC; never use server timezone
         transaction.setCreatedAt(Instant.now());
         transaction.setUpdatedAt(Instant.now());
+        anomalyService.score(transaction);
 
         Transaction saved = transactionRepository.save(transaction);
-        return mapToResponse(saved);
+        anomalyService.observe(saved);
+        eventPublisher.publishEvent(TransactionChangedEvent.created(saved));
+        return transactionMapper.mapToResponse(saved);
     }
 
     @Override
@@ -64,11 +87,11 @@ public class TransactionServiceImpl implements TransactionService {
         }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "transactionDate"));
-        Page<Transaction> transactionPage = transactionRepository.findAll(pageable);
+        Page<Transaction> transactionPage = transactionRepository.findByTenantId(TenantContext.current(), pageable);
 
         List<TransactionResponse> content = transactionPage.getContent()
                 .stream()
-                .map(this::mapToResponse)
+                .map(transactionMapper::mapToResponse)
                 .collect(Collectors.toList());
 
         PagedResponse<TransactionResponse> response = new PagedResponse<>();
@@ -84,7 +107,7 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Override
     public TransactionResponse updateTransaction(String id, TransactionRequest request) {
-        Transaction transaction = transactionRepository.findById(id)
+        Transaction transaction = transactionRepository.findByIdAndTenantId(id, TenantContext.current())
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
 
         // Check 12-hour rule (both in UTC)
@@ -93,25 +116,31 @@ public class TransactionServiceImpl implements TransactionService {
             throw new BusinessRuleException("Transaction cannot be edited after 12 hours");
         }
 
-        mapToEntity(request, transaction);
+        Transaction before = transactionMapper.copy(transaction);
+        transactionMapper.mapToEntity(request, transaction);
         transaction.setUpdatedAt(Instant.now());
+        anomalyService.rescore(before, transaction);
 
         Transaction saved = transactionRepository.save(transaction);
-        return mapToResponse(saved);
+        anomalyService.unobserve(before);
+        anomalyService.observe(saved);
+        eventPublisher.publishEvent(TransactionChangedEvent.updated(before, saved));
+        return transactionMapper.mapToResponse(saved);
     }
 
     @Override
     public void deleteTransaction(String id) {
-        if (!transactionRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Transaction not found");
-        }
-        transactionRepository.deleteById(id);
+        Transaction existing = transactionRepository.findByIdAndTenantId(id, TenantContext.current())
+                .orElseThrow(() -> new ResourceNotFoundException("Transaction not found"));
+        transactionRepository.delete(existing);
+        anomalyService.unobserve(existing);
+        eventPublisher.publishEvent(TransactionChangedEvent.deleted(existing));
     }
 
     @Override
     public List<TransactionResponse> filterTransactions(Instant startDate, Instant endDate, String category,
             Division division) {
-        Query query = new Query();
+        Query query = new Query(TenantContext.criteria());
         List<Criteria> criteriaList = new ArrayList<>();
 
         // UTC range: transactionDate >= start AND transactionDate < end (exclusive end)
@@ -123,8 +152,10 @@ public class TransactionServiceImpl implements TransactionService {
             criteriaList.add(Criteria.where("transactionDate").lt(endDate));
         }
 
+        // A category matches its whole subtree: anchored prefix on the managed path
         if (category != null && !category.isEmpty()) {
-            criteriaList.add(Criteria.where("category").is(category));
+            String path = CategoryPath.of(CategoryPath.segments(category));
+            criteriaList.add(Criteria.where("categoryPath").regex(CategoryPath.subtreeRegex(path)));
         }
 
         if (division != null) {
@@ -139,54 +170,59 @@ public class TransactionServiceImpl implements TransactionService {
 
         return mongoTemplate.find(query, Transaction.class)
                 .stream()
-                .map(this::mapToResponse)
+                .map(transactionMapper::mapToResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
-    public DashboardStats getDashboardStats(String period) {
+    public DashboardStats getDashboardStats(String period, String currency) {
         // All ranges in UTC; never use server timezone
-        LocalDate todayUtc = LocalDate.now(ZoneOffset.UTC);
-        Instant start;
-        Instant end;
-
-        if ("weekly".equalsIgnoreCase(period)) {
-            start = todayUtc.minusDays(7).atStartOfDay(ZoneOffset.UTC).toInstant();
-            end = todayUtc.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
-        } else if ("monthly".equalsIgnoreCase(period)) {
-            start = todayUtc.withDayOfMonth(1).atStartOfDay(ZoneOffset.UTC).toInstant();
-            end = todayUtc.withDayOfMonth(1).plusMonths(1).atStartOfDay(ZoneOffset.UTC).toInstant();
-        } else if ("yearly".equalsIgnoreCase(period)) {
-            start = todayUtc.withDayOfYear(1).atStartOfDay(ZoneOffset.UTC).toInstant();
-            end = todayUtc.withDayOfYear(1).plusYears(1).atStartOfDay(ZoneOffset.UTC).toInstant();
-        } else {
-            start = todayUtc.withDayOfMonth(1).atStartOfDay(ZoneOffset.UTC).toInstant();
-            end = todayUtc.withDayOfMonth(1).plusMonths(1).atStartOfDay(ZoneOffset.UTC).toInstant();
-        }
-
-        Double income = calculateTotal(start, end, TransactionType.INCOME);
-        Double expense = calculateTotal(start, end, TransactionType.EXPENSE);
+        PeriodRange range = PeriodRange.of(period);
+        String target = fxRateService.resolveCurrency(currency);
+        FxRateTable rates = fxRateService.getTable();
 
-        return new DashboardStats(income, expense, income - expense);
-    }
-
-    /** UTC range: start inclusive, end exclusive. No $month/$year. */
-    private Double calculateTotal(Instant start, Instant end, TransactionType type) {
         Aggregation aggregation = Aggregation.newAggregation(
-                Aggregation.match(Criteria.where("transactionDate").gte(start).lt(end).and("type").is(type)),
-                Aggregation.group().sum("amount").as("total"));
+                Aggregation.match(TenantContext.where("transactionDate").gte(range.start()).lt(range.end())
+                        .and("type").in(TransactionType.INCOME, TransactionType.EXPENSE)),
+                FxAggregation.currencyDayProjection(rates.getBaseCurrency(), "type"),
+                Aggregation.group("type", "currency", "day").sum("amount").as("total"));
+
+        // Conversion runs once per (type, currency, day) total, never per transaction
+        double income = 0;
+        double expense = 0;
+        for (DocumentWrapper result : mongoTemplate.aggregate(aggregation, "transactions", DocumentWrapper.class)) {
+            GroupKey key = result.getId();
+            double converted = convert(rates, result.getTotal(), key.getCurrency(), key.getDay(), target);
+            if (key.getType() == TransactionType.INCOME) {
+                income += converted;
+            } else {
+                expense += converted;
+            }
+        }
+        return new DashboardStats(income, expense, income - expense, target);
+    }
 
-        AggregationResults<DocumentWrapper> results = mongoTemplate.aggregate(aggregation, "transactions",
-                DocumentWrapper.class);
-        DocumentWrapper result = results.getUniqueMappedResult();
-        return result != null ? result.getTotal() : 0.0;
+    private static double convert(FxRateTable rates, Double amount, String currency, String day, String target) {
+        if (amount == null) {
+            return 0.0;
+        }
+        return rates.convert(amount, currency, target, FxAggregation.epochDay(day));
     }
 
-    // Helper class for aggregation result
+    // Helper classes for aggregation results
     @org.springframework.data.mongodb.core.mapping.Document
     static class DocumentWrapper {
+        private GroupKey id;
         private Double total;
 
+        public GroupKey getId() {
+            return id;
+        }
+
+        public void setId(GroupKey id) {
+            this.id = id;
+        }
+
         public Double getTotal() {
             return total;
         }
@@ -196,66 +232,62 @@ public class TransactionServiceImpl implements TransactionService {
         }
     }
 
+    static class GroupKey {
+        private TransactionType type;
+        private String currency;
+        private String day;
+
+        public TransactionType getType() {
+            return type;
+        }
+
+        public void setType(TransactionType type) {
+            this.type = type;
+        }
+
+        public String getCurrency() {
+            return currency;
+        }
+
+        public void setCurrency(String currency) {
+            this.currency = currency;
+        }
+
+        public String getDay() {
+            return day;
+        }
+
+        public void setDay(String day) {
+            this.day = day;
+        }
+    }
+
     @Override
-    public List<CategorySummary> getCategorySummary(String period) {
+    public List<CategorySummary> getCategorySummary(String period, String currency) {
         // Same UTC ranges as getDashboardStats; no server timezone
-        LocalDate todayUtc = LocalDate.now(ZoneOffset.UTC);
-        Instant start;
-        Instant end;
-
-        if ("weekly".equalsIgnoreCase(period)) {
-            start = todayUtc.minusDays(7).atStartOfDay(ZoneOffset.UTC).toInstant();
-            end = todayUtc.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
-        } else if ("monthly".equalsIgnoreCase(period)) {
-            start = todayUtc.withDayOfMonth(1).atStartOfDay(ZoneOffset.UTC).toInstant();
-            end = todayUtc.withDayOfMonth(1).plusMonths(1).atStartOfDay(ZoneOffset.UTC).toInstant();
-        } else if ("yearly".equalsIgnoreCase(period)) {
-            start = todayUtc.withDayOfYear(1).atStartOfDay(ZoneOffset.UTC).toInstant();
-            end = todayUtc.withDayOfYear(1).plusYears(1).atStartOfDay(ZoneOffset.UTC).toInstant();
-        } else {
-            start = todayUtc.withDayOfMonth(1).atStartOfDay(ZoneOffset.UTC).toInstant();
-            end = todayUtc.withDayOfMonth(1).plusMonths(1).atStartOfDay(ZoneOffset.UTC).toInstant();
-        }
+        PeriodRange range = PeriodRange.of(period);
+        String target = fxRateService.resolveCurrency(currency);
+        FxRateTable rates = fxRateService.getTable();
 
         Aggregation agg = Aggregation.newAggregation(
-                Aggregation.match(Criteria.where("transactionDate").gte(start).lt(end)),
-                Aggregation.group("category", "type").sum("amount").as("totalAmount"));
+                Aggregation.match(TenantContext.where("transactionDate").gte(range.start()).lt(range.end())),
+                FxAggregation.currencyDayProjection(rates.getBaseCurrency(), "category", "type"),
+                Aggregation.group("category", "type", "currency", "day").sum("amount").as("totalAmount"));
 
         AggregationResults<org.bson.Document> results = mongoTemplate.aggregate(agg, "transactions",
                 org.bson.Document.class);
 
-        return results.getMappedResults().stream().map(doc -> {
+        Map<String, CategorySummary> summaries = new LinkedHashMap<>();
+        for (org.bson.Document doc : results.getMappedResults()) {
             org.bson.Document id = (org.bson.Document) doc.get("_id");
             String cat = id.getString("category");
-            String typeStr = id.getString("type");
-            Double total = doc.getDouble("totalAmount");
-            return new CategorySummary(cat, TransactionType.valueOf(typeStr), total);
-        }).collect(Collectors.toList());
-    }
-
-    private void mapToEntity(TransactionRequest request, Transaction transaction) {
-        transaction.setType(request.getType());
-        transaction.setAmount(request.getAmount());
-        transaction.setCategory(request.getCategory());
-        transaction.setDivision(request.getDivision());
-        transaction.setDescription(request.getDescription());
-        transaction.setTransactionDate(request.getTransactionDate());
-        transaction.setSourceAccount(request.getSourceAccount());
-        transaction.setTargetAccount(request.getTargetAccount());
-    }
-
-    private TransactionResponse mapToResponse(Transaction transaction) {
-        TransactionResponse response = new TransactionResponse();
-        response.setId(transaction.getId());
-        response.setType(transaction.getType());
-        response.setAmount(transaction.getAmount());
-        response.setCategory(transaction.getCategory());
-        response.setDivision(transaction.getDivision());
-        response.setDescription(transaction.getDescription());
-        response.setTransactionDate(transaction.getTransactionDate());
-        response.setCreatedAt(transaction.getCreatedAt());
-        response.setSourceAccount(transaction.getSourceAccount());
-        response.setTargetAccount(transaction.getTargetAccount());
-        return response;
+            TransactionType type = TransactionType.valueOf(id.getString("type"));
+            double converted = convert(rates, doc.getDouble("totalAmount"), id.getString("currency"),
+                    id.getString("day"), target);
+            CategorySummary summary = summaries.computeIfAbsent(cat + "|" + type,
+                    k -> new CategorySummary(cat, type, 0.0, target));
+            summary.setTotalAmount(summary.getTotalAmount() + converted);
+        }
+        return new ArrayList<>(summaries.values());
     }
 }
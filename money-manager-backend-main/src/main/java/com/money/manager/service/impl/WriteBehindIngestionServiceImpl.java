@@ -0,0 +1,377 @@
+package com.money.manager.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.money.manager.dto.IngestionAck;
+import com.money.manager.dto.TransactionRequest;
+import com.money.manager.event.TransactionChangedEvent;
+import com.money.manager.exception.ServiceUnavailableException;
+import com.money.manager.mapper.TransactionMapper;
+import com.money.manager.model.Transaction;
+import com.money.manager.repository.TransactionBulkWriter;
+import com.money.manager.service.AnomalyService;
+import com.money.manager.service.IngestionService;
+import com.money.manager.service.TransactionService;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind ingestion: requests are journaled to a local append-only file, queued in memory
+ * and group-committed to MongoDB by a single flusher thread (every flush-interval or batch-size
+ * documents, whichever comes first). Ids are assigned on accept so replaying the journal after a
+ * crash is idempotent; duplicate-key errors on replay are ignored.
+ *
+ * With journal-fsync (the default) a request is acknowledged only once its journal entry is on
+ * disk. The fsync is group-committed: appends do not wait for each other, and whichever request
+ * reaches the sync first forces everything appended so far, so concurrent requests share one
+ * fsync instead of taking turns.
+ *
+ * A batch that MongoDB keeps rejecting is retried max-attempts times, then written one document at
+ * a time; documents that still fail are moved to the dead-letter file so the rest keep draining.
+ * An unreachable database is never a reason to dead-letter: those batches are retried until it is back.
+ *
+ * The journal is truncated whenever the queue has been fully flushed. Documents are mapped on the
+ * request thread, so each journaled entry already carries its tenant.
+ */
+@Service
+public class WriteBehindIngestionServiceImpl implements IngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindIngestionServiceImpl.class);
+
+    private final TransactionService transactionService;
+    private final TransactionMapper transactionMapper;
+    private final AnomalyService anomalyService;
+    private final TransactionBulkWriter bulkWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final boolean fsync;
+    private final Path journalPath;
+    private final Path deadLetterPath;
+    private final int maxAttempts;
+    private final String defaultTenantId;
+    private final BlockingQueue<Transaction> queue;
+
+    // Guards journal appends + enqueue, and journal truncation
+    private final Object journalLock = new Object();
+    // Held by the one thread forcing the journal; the others wait here and usually find their entry already forced
+    private final Object syncLock = new Object();
+    private long appended;   // guarded by journalLock
+    private long durable;    // guarded by syncLock
+    private volatile FileChannel journal;
+    private Thread flusher;
+    private volatile boolean running;
+
+    public WriteBehindIngestionServiceImpl(TransactionService transactionService, TransactionMapper transactionMapper,
+            AnomalyService anomalyService, TransactionBulkWriter bulkWriter, ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            @Value("${ingestion.write-behind.enabled:false}") boolean enabled,
+            @Value("${ingestion.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${ingestion.write-behind.batch-size:500}") int batchSize,
+            @Value("${ingestion.write-behind.flush-interval-ms:5}") long flushIntervalMs,
+            @Value("${ingestion.write-behind.journal-fsync:true}") boolean fsync,
+            @Value("${ingestion.write-behind.journal-path:data/ingestion.journal}") String journalPath,
+            @Value("${ingestion.write-behind.dead-letter-path:data/ingestion.deadletter}") String deadLetterPath,
+            @Value("${ingestion.write-behind.max-attempts:5}") int maxAttempts,
+            @Value("${tenant.default-id:default}") String defaultTenantId) {
+        this.transactionService = transactionService;
+        this.transactionMapper = transactionMapper;
+        this.anomalyService = anomalyService;
+        this.bulkWriter = bulkWriter;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.fsync = fsync;
+        this.journalPath = Paths.get(journalPath);
+        this.deadLetterPath = Paths.get(deadLetterPath);
+        this.maxAttempts = maxAttempts;
+        this.defaultTenantId = defaultTenantId;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    // Started once the context is up so replayed writes reach the change-event listeners
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        Path parent = journalPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        replayJournal();
+        journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        running = true;
+        flusher = new Thread(this::flushLoop, "ingestion-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        if (flusher == null) {
+            return;
+        }
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        journal.close();
+    }
+
+    @Override
+    public IngestionAck accept(TransactionRequest request) {
+        if (!enabled) {
+            return new IngestionAck(transactionService.createTransaction(request).getId(), "CREATED");
+        }
+
+        Transaction transaction = new Transaction();
+        transactionMapper.mapToEntity(request, transaction);
+        transaction.setId(new ObjectId().toHexString());
+        // Store timestamps in UTC; never use server timezone
+        Instant now = Instant.now();
+        transaction.setCreatedAt(now);
+        transaction.setUpdatedAt(now);
+        anomalyService.score(transaction);
+
+        byte[] line = toJournalLine(transaction);
+        long sequence;
+        synchronized (journalLock) {
+            if (journal == null) {
+                throw new ServiceUnavailableException("Ingestion is starting, retry later");
+            }
+            if (queue.remainingCapacity() == 0) {
+                throw new ServiceUnavailableException("Ingestion queue is full, retry later");
+            }
+            try {
+                journal.write(ByteBuffer.wrap(line));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to append to ingestion journal", e);
+            }
+            sequence = ++appended;
+            queue.add(transaction);
+        }
+        // Accepted: from here on the entry is written even if the sync below fails
+        anomalyService.observe(transaction);
+        if (fsync) {
+            awaitDurable(sequence);
+        }
+        return new IngestionAck(transaction.getId(), "ACCEPTED");
+    }
+
+    /** Returns once journal entry number sequence is on disk, forcing it (and everything before it) if needed. */
+    private void awaitDurable(long sequence) {
+        synchronized (syncLock) {
+            if (durable >= sequence) {
+                return;
+            }
+            long upTo;
+            synchronized (journalLock) {
+                upTo = appended;
+            }
+            try {
+                journal.force(false);
+            } catch (IOException e) {
+                // The entry is still queued and will be written; only its durability is unknown
+                throw new UncheckedIOException("Failed to sync ingestion journal", e);
+            }
+            durable = upTo;
+        }
+    }
+
+    private void flushLoop() {
+        List<Transaction> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Transaction first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Transaction next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flushWithRetry(batch);
+                batch.clear();
+                truncateJournalIfDrained();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Never drops a batch: while the database is unreachable it keeps retrying with backoff (the
+     * journal still holds the batch); a batch rejected maxAttempts times is written document by
+     * document so a poison document is dead-lettered instead of blocking the queue.
+     */
+    private void flushWithRetry(List<Transaction> batch) throws InterruptedException {
+        long backoffMs = 50;
+        int rejected = 0;
+        while (true) {
+            try {
+                if (rejected < maxAttempts) {
+                    insertIgnoringDuplicates(batch);
+                    return;
+                }
+                if (insertOneByOne(batch)) {
+                    return;
+                }
+            } catch (DataAccessResourceFailureException e) {
+                log.warn("Ingestion flush of {} transactions failed, database unavailable; retrying in {} ms",
+                        batch.size(), backoffMs, e);
+            } catch (RuntimeException e) {
+                rejected++;
+                log.warn("Ingestion flush of {} transactions rejected ({} of {}), retrying in {} ms", batch.size(),
+                        rejected, maxAttempts, backoffMs, e);
+            }
+            Thread.sleep(backoffMs);
+            backoffMs = Math.min(backoffMs * 2, 5_000);
+        }
+    }
+
+    /** False if the database became unreachable part way; already written documents are skipped as duplicates on retry. */
+    private boolean insertOneByOne(List<Transaction> batch) {
+        for (Transaction transaction : batch) {
+            try {
+                insertIgnoringDuplicates(List.of(transaction));
+            } catch (DataAccessResourceFailureException e) {
+                return false;
+            } catch (RuntimeException e) {
+                deadLetter(transaction, e);
+            }
+        }
+        return true;
+    }
+
+    private void deadLetter(Transaction transaction, RuntimeException cause) {
+        log.error("Ingested transaction {} was rejected by MongoDB; moved to {}", transaction.getId(),
+                deadLetterPath, cause);
+        try {
+            Path parent = deadLetterPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel deadLetters = FileChannel.open(deadLetterPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                deadLetters.write(ByteBuffer.wrap(toJournalLine(transaction)));
+                deadLetters.force(false);
+            }
+        } catch (IOException e) {
+            // Not removed from the journal yet, so keeping it there is the safe choice
+            throw new UncheckedIOException("Failed to write ingestion dead letter", e);
+        }
+    }
+
+    private void insertIgnoringDuplicates(List<Transaction> batch) {
+        for (Transaction inserted : bulkWriter.insertIgnoringDuplicates(batch)) {
+            eventPublisher.publishEvent(TransactionChangedEvent.created(inserted));
+        }
+    }
+
+    private void truncateJournalIfDrained() {
+        synchronized (journalLock) {
+            if (!queue.isEmpty()) {
+                return;
+            }
+            try {
+                journal.truncate(0);
+            } catch (IOException e) {
+                log.warn("Failed to truncate ingestion journal {}", journalPath, e);
+            }
+        }
+    }
+
+    /** Re-inserts anything journaled but not flushed before the last shutdown/crash. */
+    private void replayJournal() throws IOException, InterruptedException {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        int replayed = 0;
+        List<Transaction> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    Transaction transaction = objectMapper.readValue(line, Transaction.class);
+                    if (transaction.getTenantId() == null) {
+                        // Journaled before tenants existed
+                        transaction.setTenantId(defaultTenantId);
+                    }
+                    batch.add(transaction);
+                } catch (IOException e) {
+                    // A torn final line from a crash mid-append; the client never got an ack for it
+                    log.warn("Skipping unreadable ingestion journal entry");
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    flushWithRetry(batch);
+                    replayed += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushWithRetry(batch);
+            replayed += batch.size();
+        }
+        Files.write(journalPath, new byte[0], StandardOpenOption.TRUNCATE_EXISTING);
+        if (replayed > 0) {
+            log.info("Replayed {} journaled transactions from {}", replayed, journalPath);
+        }
+    }
+
+    private byte[] toJournalLine(Transaction transaction) {
+        try {
+            return (objectMapper.writeValueAsString(transaction) + "\n").getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize transaction for ingestion journal", e);
+        }
+    }
+}
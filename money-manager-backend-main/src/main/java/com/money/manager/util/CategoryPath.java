@@ -0,0 +1,73 @@
+package com.money.manager.util;
+
+import com.money.manager.exception.BusinessRuleException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Materialized category paths. Users write "Food > Groceries > Produce"; the stored path is
+ * "Food>Groceries>Produce>" with a trailing separator, so a subtree is exactly the documents
+ * whose path starts with the ancestor's path (an anchored, index-bounded prefix match).
+ */
+public final class CategoryPath {
+
+    public static final char SEPARATOR = '>';
+
+    private CategoryPath() {
+    }
+
+    /** Splits and trims a user-supplied category; a flat string is a single root segment. */
+    public static List<String> segments(String category) {
+        if (category == null || category.isBlank()) {
+            throw new BusinessRuleException("Category is required");
+        }
+        List<String> segments = new ArrayList<>();
+        for (String part : category.split(Pattern.quote(String.valueOf(SEPARATOR)), -1)) {
+            String name = part.trim();
+            if (name.isEmpty()) {
+                throw new BusinessRuleException("Invalid category path: " + category);
+            }
+            segments.add(name);
+        }
+        return segments;
+    }
+
+    public static String of(List<String> segments) {
+        StringBuilder path = new StringBuilder();
+        for (String segment : segments) {
+            path.append(segment).append(SEPARATOR);
+        }
+        return path.toString();
+    }
+
+    public static String child(String parentPath, String name) {
+        return (parentPath == null ? "" : parentPath) + name + SEPARATOR;
+    }
+
+    public static String parent(String path) {
+        int cut = path.lastIndexOf(SEPARATOR, path.length() - 2);
+        return cut < 0 ? null : path.substring(0, cut + 1);
+    }
+
+    public static int depth(String path) {
+        int depth = 0;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == SEPARATOR) {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    /** "Food>Groceries>" -> "Food > Groceries", the form stored in Transaction.category. */
+    public static String display(String path) {
+        return path.substring(0, path.length() - 1).replace(String.valueOf(SEPARATOR), " " + SEPARATOR + " ");
+    }
+
+    /** Anchored literal prefix; MongoDB turns this into index bounds on categoryPath. */
+    public static String subtreeRegex(String path) {
+        return "^" + Pattern.quote(path);
+    }
+}
@@ -0,0 +1,30 @@
+package com.money.manager.util;
+
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
+
+import java.time.LocalDate;
+
+/**
+ * Shared stage for currency-aware sums: amounts keep their own currency (legacy documents:
+ * base) and get their UTC day, so callers group by (..., currency, day) and convert each group
+ * total once at that day's rate instead of converting per transaction.
+ */
+public final class FxAggregation {
+
+    private FxAggregation() {
+    }
+
+    public static ProjectionOperation currencyDayProjection(String baseCurrency, String... fields) {
+        return Aggregation.project(fields)
+                .and("amount").as("amount")
+                .and(ConditionalOperators.ifNull("currency").then(baseCurrency)).as("currency")
+                .and(DateOperators.dateOf("transactionDate").toString("%Y-%m-%d")).as("day");
+    }
+
+    public static long epochDay(String day) {
+        return LocalDate.parse(day).toEpochDay();
+    }
+}
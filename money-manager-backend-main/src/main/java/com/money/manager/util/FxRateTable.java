@@ -0,0 +1,118 @@
+package com.money.manager.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable FX rate table. Each currency maps to a small int index; per currency the effective
+ * dates (UTC epoch days, ascending) and rates live in parallel primitive arrays, so a lookup is
+ * one hash probe plus a binary search with no boxing.
+ *
+ * Rates are expressed as base-currency units per one unit of the currency; the base currency is
+ * always 1. A date before the first known rate uses the earliest rate.
+ */
+public final class FxRateTable {
+
+    private final String version;
+    private final String baseCurrency;
+    private final Map<String, Integer> currencyIndex;
+    private final int[][] epochDays;
+    private final double[][] rates;
+
+    private FxRateTable(String version, String baseCurrency, Map<String, Integer> currencyIndex, int[][] epochDays,
+            double[][] rates) {
+        this.version = version;
+        this.baseCurrency = baseCurrency;
+        this.currencyIndex = currencyIndex;
+        this.epochDays = epochDays;
+        this.rates = rates;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public Set<String> getCurrencies() {
+        return currencyIndex.keySet();
+    }
+
+    public boolean supports(String currency) {
+        return currency != null && currencyIndex.containsKey(currency);
+    }
+
+    /** Base units per one unit of currency effective on epochDay. */
+    public double rateToBase(String currency, long epochDay) {
+        Integer index = currencyIndex.get(currency);
+        if (index == null) {
+            throw new IllegalArgumentException("Unsupported currency: " + currency);
+        }
+        int[] days = epochDays[index];
+        if (days.length == 0) {
+            return 1.0; // base currency
+        }
+        int pos = Arrays.binarySearch(days, (int) epochDay);
+        if (pos < 0) {
+            pos = Math.max(0, -pos - 2); // latest rate on or before the date
+        }
+        return rates[index][pos];
+    }
+
+    public double convert(double amount, String from, String to, long epochDay) {
+        if (from.equals(to)) {
+            return amount;
+        }
+        return amount * rateToBase(from, epochDay) / rateToBase(to, epochDay);
+    }
+
+    public static Builder builder(String version, String baseCurrency) {
+        return new Builder(version, baseCurrency);
+    }
+
+    public static final class Builder {
+        private final String version;
+        private final String baseCurrency;
+        private final Map<String, TreeMap<Integer, Double>> points = new HashMap<>();
+
+        private Builder(String version, String baseCurrency) {
+            this.version = version;
+            this.baseCurrency = baseCurrency;
+            points.put(baseCurrency, new TreeMap<>());
+        }
+
+        public Builder rate(String currency, LocalDate effectiveDate, double rateToBase) {
+            if (rateToBase <= 0) {
+                throw new IllegalArgumentException("Rate must be positive for " + currency + " on " + effectiveDate);
+            }
+            if (!currency.equals(baseCurrency)) {
+                points.computeIfAbsent(currency, c -> new TreeMap<>()).put((int) effectiveDate.toEpochDay(), rateToBase);
+            }
+            return this;
+        }
+
+        public FxRateTable build() {
+            List<String> currencies = new ArrayList<>(points.keySet());
+            Collections.sort(currencies);
+            Map<String, Integer> index = new HashMap<>();
+            int[][] days = new int[currencies.size()][];
+            double[][] values = new double[currencies.size()][];
+            for (int i = 0; i < currencies.size(); i++) {
+                TreeMap<Integer, Double> series = points.get(currencies.get(i));
+                index.put(currencies.get(i), i);
+                days[i] = series.keySet().stream().mapToInt(Integer::intValue).toArray();
+                values[i] = series.values().stream().mapToDouble(Double::doubleValue).toArray();
+            }
+            return new FxRateTable(version, baseCurrency, Collections.unmodifiableMap(index), days, values);
+        }
+    }
+}
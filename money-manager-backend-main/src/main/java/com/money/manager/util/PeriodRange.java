@@ -0,0 +1,33 @@
+package com.money.manager.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Dashboard period as a UTC range: start inclusive, end exclusive. Never uses server timezone.
+ * weekly = last 7 days through today, monthly = calendar month, yearly = calendar year;
+ * anything else falls back to monthly.
+ */
+public record PeriodRange(Instant start, Instant end) {
+
+    public static PeriodRange of(String period) {
+        LocalDate todayUtc = LocalDate.now(ZoneOffset.UTC);
+        if ("weekly".equalsIgnoreCase(period)) {
+            return new PeriodRange(
+                    todayUtc.minusDays(7).atStartOfDay(ZoneOffset.UTC).toInstant(),
+                    todayUtc.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        } else if ("yearly".equalsIgnoreCase(period)) {
+            return new PeriodRange(
+                    todayUtc.withDayOfYear(1).atStartOfDay(ZoneOffset.UTC).toInstant(),
+                    todayUtc.withDayOfYear(1).plusYears(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        }
+        return new PeriodRange(
+                todayUtc.withDayOfMonth(1).atStartOfDay(ZoneOffset.UTC).toInstant(),
+                todayUtc.withDayOfMonth(1).plusMonths(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    public boolean contains(Instant instant) {
+        return instant != null && !instant.isBefore(start) && instant.isBefore(end);
+    }
+}
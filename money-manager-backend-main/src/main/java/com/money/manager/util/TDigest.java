@@ -0,0 +1,246 @@
+package com.money.manager.util;
+
+import java.util.Arrays;
+
+/**
+ * Merging t-digest (Dunning) for streaming quantiles. Values are buffered and periodically
+ * merged into at most ~compression centroids sized by the k1 scale function, so the tails
+ * (p90, p99) stay accurate while memory stays constant. Two digests merge by folding one's
+ * centroids into the other. A digest cannot forget a value; callers that need deletes keep a
+ * second digest of removed values and read {@link #quantile(TDigest, TDigest, double)}.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public class TDigest {
+
+    private final double compression;
+    private double[] means;
+    private double[] weights;
+    private int centroidCount;
+
+    private final double[] bufferMeans;
+    private final double[] bufferWeights;
+    private int buffered;
+
+    private double totalWeight;
+    // Alternating the merge direction keeps centroids from drifting toward one tail
+    private boolean mergeDescending;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest(double compression) {
+        this.compression = compression;
+        int capacity = (int) Math.ceil(compression) + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.bufferMeans = new double[capacity * 5];
+        this.bufferWeights = new double[capacity * 5];
+    }
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    public void add(double value, double weight) {
+        if (buffered == bufferMeans.length) {
+            compress();
+        }
+        bufferMeans[buffered] = value;
+        bufferWeights[buffered] = weight;
+        buffered++;
+        totalWeight += weight;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(TDigest other) {
+        other.compress();
+        for (int i = 0; i < other.centroidCount; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        if (other.totalWeight > 0) {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+    }
+
+    public long count() {
+        return (long) totalWeight;
+    }
+
+    /** Estimated value at quantile q in [0, 1]; NaN when empty. */
+    public double quantile(double q) {
+        compress();
+        if (centroidCount == 0) {
+            return Double.NaN;
+        }
+        if (centroidCount == 1 || q <= 0) {
+            return q <= 0 ? min : means[0];
+        }
+        if (q >= 1) {
+            return max;
+        }
+
+        double index = q * totalWeight;
+        // Below the first centroid's center: interpolate from the minimum
+        if (index < weights[0] / 2) {
+            return min + (means[0] - min) * index / (weights[0] / 2);
+        }
+        double cumulative = weights[0] / 2;
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2;
+            if (cumulative + step > index) {
+                double fraction = (index - cumulative) / step;
+                return means[i] + (means[i + 1] - means[i]) * fraction;
+            }
+            cumulative += step;
+        }
+        // Above the last centroid's center: interpolate to the maximum
+        int last = centroidCount - 1;
+        double remaining = weights[last] / 2;
+        double fraction = remaining == 0 ? 1 : Math.min(1, (index - cumulative) / remaining);
+        return means[last] + (max - means[last]) * fraction;
+    }
+
+    /** Estimated fraction of values at or below x; NaN when empty. The inverse of quantile. */
+    public double cdf(double x) {
+        compress();
+        if (centroidCount == 0) {
+            return Double.NaN;
+        }
+        if (x < min) {
+            return 0;
+        }
+        if (x >= max) {
+            return 1;
+        }
+        if (centroidCount == 1) {
+            return (x - min) / (max - min);
+        }
+        if (x < means[0]) {
+            return (x - min) / (means[0] - min) * (weights[0] / 2) / totalWeight;
+        }
+        double cumulative = weights[0] / 2;
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2;
+            if (x < means[i + 1]) {
+                double fraction = (x - means[i]) / (means[i + 1] - means[i]);
+                return (cumulative + step * fraction) / totalWeight;
+            }
+            cumulative += step;
+        }
+        int last = centroidCount - 1;
+        double fraction = (x - means[last]) / (max - means[last]);
+        return (cumulative + weights[last] / 2 * fraction) / totalWeight;
+    }
+
+    /**
+     * Estimated quantile q of the values added to {@code kept} minus those added to
+     * {@code removed}, found by bisecting the difference of the two CDFs; NaN when nothing remains.
+     */
+    public static double quantile(TDigest kept, TDigest removed, double q) {
+        if (removed.totalWeight == 0) {
+            return kept.quantile(q);
+        }
+        double remaining = kept.totalWeight - removed.totalWeight;
+        if (remaining <= 0) {
+            return Double.NaN;
+        }
+        double target = Math.min(1, Math.max(0, q)) * remaining;
+        double low = kept.min;
+        double high = kept.max;
+        for (int i = 0; i < 64 && low < high; i++) {
+            double mid = low + (high - low) / 2;
+            double below = kept.cdf(mid) * kept.totalWeight - removed.cdf(mid) * removed.totalWeight;
+            if (below < target) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return high;
+    }
+
+    private void compress() {
+        if (buffered == 0) {
+            return;
+        }
+        int n = centroidCount + buffered;
+        double[] allMeans = new double[n];
+        double[] allWeights = new double[n];
+        System.arraycopy(means, 0, allMeans, 0, centroidCount);
+        System.arraycopy(weights, 0, allWeights, 0, centroidCount);
+        System.arraycopy(bufferMeans, 0, allMeans, centroidCount, buffered);
+        System.arraycopy(bufferWeights, 0, allWeights, centroidCount, buffered);
+        buffered = 0;
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        boolean descending = mergeDescending;
+        mergeDescending = !mergeDescending;
+        Arrays.sort(order, descending
+                ? (a, b) -> Double.compare(allMeans[b], allMeans[a])
+                : (a, b) -> Double.compare(allMeans[a], allMeans[b]));
+
+        double[] newMeans = new double[Math.max(means.length, 16)];
+        double[] newWeights = new double[newMeans.length];
+        int count = 0;
+        double mean = allMeans[order[0]];
+        double weight = allWeights[order[0]];
+        double weightSoFar = 0;
+        double limit = totalWeight * quantileOfK(kOfQuantile(0) + 1);
+        for (int i = 1; i < n; i++) {
+            double nextMean = allMeans[order[i]];
+            double nextWeight = allWeights[order[i]];
+            if (weightSoFar + weight + nextWeight <= limit) {
+                weight += nextWeight;
+                mean += (nextMean - mean) * nextWeight / weight;
+            } else {
+                if (count == newMeans.length) {
+                    newMeans = Arrays.copyOf(newMeans, count * 2);
+                    newWeights = Arrays.copyOf(newWeights, count * 2);
+                }
+                newMeans[count] = mean;
+                newWeights[count] = weight;
+                count++;
+                weightSoFar += weight;
+                limit = totalWeight * quantileOfK(kOfQuantile(weightSoFar / totalWeight) + 1);
+                mean = nextMean;
+                weight = nextWeight;
+            }
+        }
+        if (count == newMeans.length) {
+            newMeans = Arrays.copyOf(newMeans, count + 1);
+            newWeights = Arrays.copyOf(newWeights, count + 1);
+        }
+        newMeans[count] = mean;
+        newWeights[count] = weight;
+        centroidCount = count + 1;
+        if (descending) {
+            reverse(newMeans, centroidCount);
+            reverse(newWeights, centroidCount);
+        }
+        means = newMeans;
+        weights = newWeights;
+    }
+
+    private static void reverse(double[] values, int length) {
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            double swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+
+    // k1 scale function: small centroids near q=0 and q=1, large ones around the median
+    private double kOfQuantile(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+
+    private double quantileOfK(double k) {
+        double bounded = Math.min(compression / 4, k);
+        return (Math.sin(bounded * 2 * Math.PI / compression) + 1) / 2;
+    }
+}
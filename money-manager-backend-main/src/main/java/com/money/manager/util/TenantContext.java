@@ -0,0 +1,81 @@
+package com.money.manager.util;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Tenant (household) that owns the data the current thread works on. Every tenant-owned
+ * document stores it in tenantId, and every query on those documents starts from where() or
+ * criteria() so tenantId is the leading predicate and matches the leading key of each index.
+ *
+ * Request threads are bound by TenantFilter; background work (schedulers, event listeners,
+ * write-behind flushes) binds the tenant of the data it is processing with runAs/callAs.
+ */
+public final class TenantContext {
+
+    public static final String FIELD = "tenantId";
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /** Tenant bound to this thread; a missing binding is a programming error, never a fallback. */
+    public static String current() {
+        String tenantId = CURRENT.get();
+        if (tenantId == null) {
+            throw new IllegalStateException("No tenant bound to the current thread");
+        }
+        return tenantId;
+    }
+
+    public static String currentOrNull() {
+        return CURRENT.get();
+    }
+
+    public static boolean isValid(String tenantId) {
+        return tenantId != null && VALID_ID.matcher(tenantId).matches();
+    }
+
+    public static void set(String tenantId) {
+        CURRENT.set(tenantId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static void runAs(String tenantId, Runnable task) {
+        callAs(tenantId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /** Runs task bound to tenantId, restoring whatever binding the thread had before. */
+    public static <T> T callAs(String tenantId, Supplier<T> task) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenantId);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /** tenantId = current() and key ...; the tenant predicate always comes first. */
+    public static Criteria where(String key) {
+        return criteria().and(key);
+    }
+
+    public static Criteria criteria() {
+        return Criteria.where(FIELD).is(current());
+    }
+}
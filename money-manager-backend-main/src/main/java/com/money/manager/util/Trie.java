@@ -0,0 +1,182 @@
+package com.money.manager.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Counted character trie with prefix completion and bounded Levenshtein lookup.
+ * Keys are matched as given (callers normalize case); each key keeps a display value
+ * and an occurrence count, and disappears when its count drops to zero.
+ *
+ * Not thread-safe; callers guard it with a read/write lock.
+ */
+public class Trie {
+
+    private final Node root = new Node();
+    private int size;
+
+    public void add(String key, String value) {
+        add(key, value, 1);
+    }
+
+    public void add(String key, String value, int occurrences) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            path.add(node);
+        }
+        if (node.count == 0) {
+            size++;
+        }
+        node.count += occurrences;
+        node.value = value;
+        for (Node ancestor : path) {
+            ancestor.max = Math.max(ancestor.max, node.count);
+        }
+    }
+
+    public void remove(String key) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.get(key.charAt(i));
+            if (node == null) {
+                return;
+            }
+            path.add(node);
+        }
+        if (node.count == 0) {
+            return;
+        }
+        if (--node.count == 0) {
+            node.value = null;
+            size--;
+        }
+        // Prune now-empty branches and refresh subtree maxima bottom-up
+        for (int i = key.length(); i >= 0; i--) {
+            Node current = path.get(i);
+            if (i > 0 && current.count == 0 && current.children.isEmpty()) {
+                path.get(i - 1).children.remove(key.charAt(i - 1));
+                continue;
+            }
+            current.max = current.count;
+            for (Node child : current.children.values()) {
+                current.max = Math.max(current.max, child.max);
+            }
+        }
+    }
+
+    public boolean contains(String key) {
+        Node node = find(key);
+        return node != null && node.count > 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        root.children.clear();
+        root.max = 0;
+        size = 0;
+    }
+
+    /**
+     * Keys starting with prefix, most frequent first. Best-first over subtree maxima, so only the
+     * branches that can still beat the limit-th match are expanded.
+     */
+    public List<Match> withPrefix(String prefix, int limit) {
+        Node start = find(prefix);
+        List<Match> matches = new ArrayList<>(Math.min(limit, size));
+        if (start == null || limit <= 0) {
+            return matches;
+        }
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(
+                Comparator.comparingInt(Candidate::priority).reversed());
+        frontier.add(new Candidate(start, false, start.max));
+        while (!frontier.isEmpty() && matches.size() < limit) {
+            Candidate candidate = frontier.poll();
+            Node node = candidate.node();
+            if (candidate.terminal()) {
+                matches.add(new Match(node.value, node.count, 0));
+                continue;
+            }
+            if (node.count > 0) {
+                frontier.add(new Candidate(node, true, node.count));
+            }
+            for (Node child : node.children.values()) {
+                frontier.add(new Candidate(child, false, child.max));
+            }
+        }
+        return matches;
+    }
+
+    /** Keys within maxEdits Levenshtein distance of key, closest then most frequent first. */
+    public List<Match> withinDistance(String key, int maxEdits, int limit) {
+        int[] firstRow = new int[key.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        List<Match> matches = new ArrayList<>();
+        for (Map.Entry<Character, Node> child : root.children.entrySet()) {
+            searchDistance(child.getValue(), child.getKey(), key, firstRow, maxEdits, matches);
+        }
+        matches.sort(Comparator.comparingInt(Match::distance)
+                .thenComparing(Comparator.comparingInt(Match::count).reversed()));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    private void searchDistance(Node node, char letter, String key, int[] previousRow, int maxEdits,
+            List<Match> matches) {
+        int columns = key.length() + 1;
+        int[] currentRow = new int[columns];
+        currentRow[0] = previousRow[0] + 1;
+        int rowMin = currentRow[0];
+        for (int i = 1; i < columns; i++) {
+            int insert = currentRow[i - 1] + 1;
+            int delete = previousRow[i] + 1;
+            int replace = previousRow[i - 1] + (key.charAt(i - 1) == letter ? 0 : 1);
+            currentRow[i] = Math.min(insert, Math.min(delete, replace));
+            rowMin = Math.min(rowMin, currentRow[i]);
+        }
+
+        if (node.count > 0 && currentRow[columns - 1] <= maxEdits) {
+            matches.add(new Match(node.value, node.count, currentRow[columns - 1]));
+        }
+        if (rowMin <= maxEdits) {
+            for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                searchDistance(child.getValue(), child.getKey(), key, currentRow, maxEdits, matches);
+            }
+        }
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    public record Match(String value, int count, int distance) {
+    }
+
+    // A whole subtree (priority = its max count) or just the key ending at node
+    private record Candidate(Node node, boolean terminal, int priority) {
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private int count;
+        // Highest count anywhere in this subtree, including this node
+        private int max;
+        private String value;
+    }
+}
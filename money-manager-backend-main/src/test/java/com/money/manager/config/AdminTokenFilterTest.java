@@ -0,0 +1,59 @@
+package com.money.manager.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AdminTokenFilterTest {
+
+    @Test
+    void adminRouteRequiresTheToken() throws Exception {
+        AdminTokenFilter filter = new AdminTokenFilter("s3cret");
+
+        assertEquals(401, call(filter, "/api/fx/reload", null).getStatus());
+        assertEquals(401, call(filter, "/api/fx/reload", "Bearer wrong").getStatus());
+        MockHttpServletResponse allowed = call(filter, "/api/fx/reload", "Bearer s3cret");
+        assertEquals(200, allowed.getStatus());
+    }
+
+    @Test
+    void tenantUsageIsAnAdminRoute() throws Exception {
+        AdminTokenFilter filter = new AdminTokenFilter("s3cret");
+
+        assertEquals(401, call(filter, "/api/admin/tenants/usage", null).getStatus());
+        assertEquals(200, call(filter, "/api/admin/tenants/usage", "Bearer s3cret").getStatus());
+    }
+
+    @Test
+    void adminRoutesAreDisabledWithoutAConfiguredToken() throws Exception {
+        assertEquals(403, call(new AdminTokenFilter(""), "/api/fx/reload", "Bearer ").getStatus());
+    }
+
+    @Test
+    void otherRoutesPassThrough() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/fx/rates");
+        new AdminTokenFilter("").doFilter(request, new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest());
+    }
+
+    private static MockHttpServletResponse call(AdminTokenFilter filter, String path, String authorization)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        if (response.getStatus() != 200) {
+            assertNull(chain.getRequest());
+        }
+        return response;
+    }
+}
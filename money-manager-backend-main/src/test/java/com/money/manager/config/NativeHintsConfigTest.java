@@ -0,0 +1,45 @@
+package com.money.manager.config;
+
+import com.money.manager.dto.TransactionResponse;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsConfigTest() {
+        new NativeHintsConfig.Hints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void journalAndDocumentTypesAreReflectable() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Transaction.class)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TransactionType.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TransactionResponse.class).test(hints));
+    }
+
+    @Test
+    void aggregationResultTypesAreReflectable() {
+        for (String type : new String[] {"com.money.manager.service.impl.TransactionServiceImpl$DocumentWrapper",
+                "com.money.manager.service.impl.TransactionServiceImpl$GroupKey"}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))
+                    .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS)
+                    .test(hints), type);
+        }
+    }
+
+    @Test
+    void bundledFxTableIsIncluded() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("fx/rates.csv").test(hints));
+    }
+}
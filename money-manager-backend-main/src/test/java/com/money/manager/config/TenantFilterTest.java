@@ -0,0 +1,113 @@
+package com.money.manager.config;
+
+import com.money.manager.util.TenantContext;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TenantFilterTest {
+
+    // Tenant bound while the chain ran, one entry per call that reached it
+    private final List<String> bound = new ArrayList<>();
+    private final FilterChain chain = (request, response) -> bound.add(TenantContext.currentOrNull());
+
+    @Test
+    void multiTenantDeploymentsRequireATenant() throws Exception {
+        MockHttpServletResponse response = call(new TenantFilter("default", true), "/api/transactions", null);
+
+        assertEquals(400, response.getStatus());
+        assertEquals(List.of(), bound);
+    }
+
+    @Test
+    void headerBindsTheTenantForTheRequestOnly() throws Exception {
+        call(new TenantFilter("default", true), "/api/transactions", "household-1");
+
+        assertEquals(List.of("household-1"), bound);
+        assertNull(TenantContext.currentOrNull());
+    }
+
+    @Test
+    void singleHouseholdDeploymentsFallBackToTheDefaultTenant() throws Exception {
+        call(new TenantFilter("default", false), "/api/transactions", null);
+
+        assertEquals(List.of("default"), bound);
+    }
+
+    @Test
+    void dashboardStreamNamesItsTenantInTheQuery() throws Exception {
+        // EventSource cannot send X-Tenant-Id, so the stream takes ?tenant= even when a tenant is required
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dashboard/stream");
+        request.setParameter(TenantFilter.STREAM_PARAMETER, "household-1");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new TenantFilter("default", true).doFilter(request, response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(List.of("household-1"), bound);
+    }
+
+    @Test
+    void dashboardStreamWithoutATenantUsesTheDefault() throws Exception {
+        call(new TenantFilter("default", false), "/api/dashboard/stream", null);
+
+        assertEquals(List.of("default"), bound);
+    }
+
+    @Test
+    void tenantQueryIsIgnoredOutsideTheDashboardStream() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions");
+        request.setParameter(TenantFilter.STREAM_PARAMETER, "household-1");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new TenantFilter("default", true).doFilter(request, response, chain);
+
+        assertEquals(400, response.getStatus());
+        assertEquals(List.of(), bound);
+    }
+
+    @Test
+    void invalidStreamTenantsAreRejected() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dashboard/stream");
+        request.setParameter(TenantFilter.STREAM_PARAMETER, "a/b");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new TenantFilter("default", false).doFilter(request, response, chain);
+
+        assertEquals(400, response.getStatus());
+        assertEquals(List.of(), bound);
+    }
+
+    @Test
+    void invalidTenantIdsAreRejected() throws Exception {
+        assertEquals(400, call(new TenantFilter("default", false), "/api/transactions", "a/b").getStatus());
+        assertEquals(List.of(), bound);
+    }
+
+    @Test
+    void adminRoutesAreNotBoundToATenant() throws Exception {
+        call(new TenantFilter("default", true), "/api/admin/tenants/usage", null);
+        call(new TenantFilter("default", true), "/api/fx/reload", "household-1");
+
+        assertEquals(2, bound.size());
+        assertNull(bound.get(0));
+        assertNull(bound.get(1));
+    }
+
+    private MockHttpServletResponse call(TenantFilter filter, String path, String tenant) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (tenant != null) {
+            request.addHeader(TenantFilter.HEADER, tenant);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,52 @@
+package com.money.manager.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-bucketed latency histogram: bucket i covers [1.01^i, 1.01^(i+1)) microseconds,
+ * so every reported percentile is within ~1% of the true value, from 1 us up to ~20 minutes.
+ */
+class LatencyHistogram {
+
+    private static final double BASE = 1.01;
+    private static final double LOG_BASE = Math.log(BASE);
+    private static final int BUCKETS = 2100;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    void record(long micros) {
+        long value = Math.max(1, micros);
+        int bucket = (int) Math.min(BUCKETS - 1, Math.floor(Math.log(value) / LOG_BASE));
+        counts.incrementAndGet(bucket);
+        total.incrementAndGet();
+        maxMicros.accumulateAndGet(value, Math::max);
+    }
+
+    long count() {
+        return total.get();
+    }
+
+    double percentileMillis(double percentile) {
+        long count = total.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                // Upper edge of the bucket, capped by the observed max
+                return Math.min(Math.pow(BASE, i + 1), maxMicros.get()) / 1000.0;
+            }
+        }
+        return maxMicros.get() / 1000.0;
+    }
+
+    double maxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+}
@@ -0,0 +1,168 @@
+package com.money.manager.loadtest;
+
+import com.money.manager.util.CategoryPath;
+import org.bson.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic ledger: Zipf-skewed categories, log-normal amounts per category,
+ * 70/30 personal/office split, dates skewed toward the anchor instant. The same seed and
+ * anchor always produce the same ledger. Documents carry the managed categoryPath and the
+ * currency, so the app has nothing to backfill when it starts on a seeded database.
+ */
+class LedgerGenerator {
+
+    private static final String[] EXPENSE_CATEGORIES = {
+            "Groceries", "Food", "Fuel", "Shopping", "Utilities", "Rent", "Travel", "Entertainment",
+            "Health", "Subscriptions", "Education", "Office Supplies", "Insurance", "Gifts"};
+    private static final double[] EXPENSE_MEDIANS = {
+            45, 18, 40, 60, 90, 1200, 250, 30, 70, 12, 150, 35, 110, 50};
+    private static final String[] INCOME_CATEGORIES = {"Salary", "Freelance", "Refund", "Interest", "Dividends"};
+    private static final double[] INCOME_MEDIANS = {4200, 600, 40, 15, 120};
+    private static final String[] MERCHANTS = {
+            "Amazon", "Walmart", "Shell", "Starbucks", "Netflix", "Uber", "Costco", "Target", "Spotify",
+            "Apple", "Whole Foods", "Airbnb", "Delta", "CVS", "Home Depot", "IKEA", "Zomato", "Swiggy"};
+    private static final String[] ACCOUNTS = {"Checking", "Savings", "Credit Card", "Cash", "Wallet"};
+    private static final String TRANSFER_CATEGORY = "Transfer";
+
+    private final SplittableRandom random;
+    private final double[] expenseCdf = zipfCdf(EXPENSE_CATEGORIES.length);
+    private final double[] incomeCdf = zipfCdf(INCOME_CATEGORIES.length);
+    private final Instant now;
+    private final long spanSeconds;
+    private final String currency;
+
+    LedgerGenerator(long seed, int years, Instant anchor, String currency) {
+        this.random = new SplittableRandom(seed);
+        this.spanSeconds = years * 365L * 24 * 3600;
+        this.now = anchor;
+        this.currency = currency;
+    }
+
+    /** Every category the generator can emit, for seeding the categories collection. */
+    static List<String> categories() {
+        List<String> categories = new ArrayList<>(List.of(EXPENSE_CATEGORIES));
+        categories.addAll(List.of(INCOME_CATEGORIES));
+        categories.add(TRANSFER_CATEGORY);
+        return categories;
+    }
+
+    /** A document shaped like the Transaction mapping, for bulk seeding. */
+    Document nextDocument() {
+        Map<String, Object> fields = nextFields(randomPastDate());
+        Document doc = new Document(fields);
+        doc.put("categoryPath", CategoryPath.of(List.of((String) fields.get("category"))));
+        doc.put("transactionDate", Date.from((Instant) fields.get("transactionDate")));
+        doc.put("createdAt", Date.from((Instant) fields.get("transactionDate")));
+        doc.put("updatedAt", Date.from((Instant) fields.get("transactionDate")));
+        return doc;
+    }
+
+    /** A TransactionRequest-shaped payload dated within the last week, for create traffic. */
+    Map<String, Object> nextRequest() {
+        Instant date = now.minusSeconds(random.nextLong(7L * 24 * 3600));
+        Map<String, Object> fields = nextFields(date);
+        fields.put("transactionDate", date.toString());
+        return fields;
+    }
+
+    String randomCategory() {
+        return EXPENSE_CATEGORIES[pick(expenseCdf)];
+    }
+
+    String randomDivision() {
+        return random.nextDouble() < 0.7 ? "PERSONAL" : "OFFICE";
+    }
+
+    /** Start of a random window of the given length within the seeded span. */
+    Instant randomWindowStart(long windowDays) {
+        return now.minusSeconds(windowDays * 24 * 3600 + random.nextLong(Math.max(1, spanSeconds)));
+    }
+
+    int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    double nextDouble() {
+        return random.nextDouble();
+    }
+
+    private Map<String, Object> nextFields(Instant date) {
+        double roll = random.nextDouble();
+        String type;
+        String category;
+        double median;
+        if (roll < 0.80) {
+            type = "EXPENSE";
+            int index = pick(expenseCdf);
+            category = EXPENSE_CATEGORIES[index];
+            median = EXPENSE_MEDIANS[index];
+        } else if (roll < 0.98) {
+            type = "INCOME";
+            int index = pick(incomeCdf);
+            category = INCOME_CATEGORIES[index];
+            median = INCOME_MEDIANS[index];
+        } else {
+            type = "TRANSFER";
+            category = TRANSFER_CATEGORY;
+            median = 300;
+        }
+        // Log-normal around the category median, sigma 0.8
+        double amount = Math.round(median * Math.exp(0.8 * gaussian()) * 100) / 100.0;
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("type", type);
+        fields.put("amount", Math.max(0.01, amount));
+        fields.put("category", category);
+        fields.put("currency", currency);
+        fields.put("division", randomDivision());
+        fields.put("description", MERCHANTS[random.nextInt(MERCHANTS.length)] + " " + category.toLowerCase()
+                + " #" + random.nextInt(100_000));
+        fields.put("transactionDate", date);
+        fields.put("sourceAccount", ACCOUNTS[random.nextInt(ACCOUNTS.length)]);
+        return fields;
+    }
+
+    /** Recent dates are denser: squared uniform biases toward "now". */
+    private Instant randomPastDate() {
+        double u = random.nextDouble();
+        return now.minusSeconds((long) (u * u * spanSeconds));
+    }
+
+    private int pick(double[] cdf) {
+        double u = random.nextDouble();
+        for (int i = 0; i < cdf.length; i++) {
+            if (u < cdf[i]) {
+                return i;
+            }
+        }
+        return cdf.length - 1;
+    }
+
+    private double gaussian() {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        double u1 = Math.max(Double.MIN_VALUE, random.nextDouble());
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    private static double[] zipfCdf(int n) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / (i + 1);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+}
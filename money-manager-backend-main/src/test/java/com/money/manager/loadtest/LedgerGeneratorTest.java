@@ -0,0 +1,38 @@
+package com.money.manager.loadtest;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LedgerGeneratorTest {
+
+    private static final Instant ANCHOR = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void sameSeedAndAnchorProduceTheSameLedger() {
+        LedgerGenerator first = new LedgerGenerator(42, 3, ANCHOR, "INR");
+        LedgerGenerator second = new LedgerGenerator(42, 3, ANCHOR, "INR");
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(first.nextDocument(), second.nextDocument());
+            assertEquals(first.nextRequest(), second.nextRequest());
+        }
+    }
+
+    @Test
+    void documentsCarryPathAndCurrencyAndEndAtTheAnchor() {
+        LedgerGenerator generator = new LedgerGenerator(7, 1, ANCHOR, "USD");
+        for (int i = 0; i < 1000; i++) {
+            Document doc = generator.nextDocument();
+            assertEquals(doc.getString("category") + ">", doc.getString("categoryPath"));
+            assertEquals("USD", doc.getString("currency"));
+            assertTrue(LedgerGenerator.categories().contains(doc.getString("category")));
+            Instant date = ((Date) doc.get("transactionDate")).toInstant();
+            assertTrue(!date.isAfter(ANCHOR) && date.isAfter(ANCHOR.minusSeconds(366L * 24 * 3600)));
+        }
+    }
+}
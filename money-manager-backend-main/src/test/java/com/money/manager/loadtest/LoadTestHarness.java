@@ -0,0 +1,297 @@
+package com.money.manager.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.money.manager.MoneyManagerBackendApplication;
+import com.money.manager.service.TransactionService;
+import com.money.manager.util.CategoryPath;
+import com.money.manager.util.TenantContext;
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Seeded load generator. Not a unit test; run with the loadtest profile, e.g.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java -Dexec.args="--mode=all --documents=1000000 --rate=500 --duration=120"
+ * </pre>
+ *
+ * Modes: seed (bulk-insert a synthetic ledger), run (replay the traffic mix), all (both).
+ * Targets: http (a running server at --base-url) or in-process (boots the app in this JVM
+ * against --mongo-uri and calls TransactionService directly, taking HTTP out of the numbers).
+ *
+ * The run is open-loop: requests are scheduled at a fixed rate and latency is measured from the
+ * scheduled start, so a stalled server shows up as queueing delay instead of a slower send rate.
+ * The report is JSON on stdout (and in --output if given).
+ *
+ * Seeding appends to the transactions collection; --drop=true empties it first (never point that
+ * at a database you care about). Start the server after seeding so auto-index-creation rebuilds
+ * the indexes. Seeded data and traffic belong to --tenant (default "default", the default
+ * tenant.default-id), sent as X-Tenant-Id, and are in --currency (default INR, the default
+ * fx.base-currency). Generated dates end at --anchor (default now, or an ISO instant), so the
+ * same seed and anchor replay the same ledger and traffic. Dashboard and summary calls resolve
+ * their periods against the server clock, so only an anchor in the current week keeps them on
+ * populated ranges; a fixed anchor is for replaying writes and filters.
+ */
+public class LoadTestHarness {
+
+    private static final int SEED_BATCH = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String mode = options.getOrDefault("mode", "all");
+        String mongoUri = options.getOrDefault("mongo-uri", "mongodb://localhost:27017/money-manager-loadtest");
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        String tenant = options.getOrDefault("tenant", "default");
+        String anchorOption = options.getOrDefault("anchor", "now");
+        Instant anchor = anchorOption.equals("now") ? Instant.now().truncatedTo(ChronoUnit.SECONDS)
+                : Instant.parse(anchorOption);
+        if (anchor.isBefore(Instant.now().minus(7, ChronoUnit.DAYS))) {
+            System.err.println("warning: --anchor is in the past; dashboard and summary periods end at the server"
+                    + " clock and will aggregate little or no seeded data");
+        }
+        String currency = options.getOrDefault("currency", "INR");
+        int years = Integer.parseInt(options.getOrDefault("years", "3"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("seed", seed);
+        report.put("anchor", anchor.toString());
+        if (mode.equals("seed") || mode.equals("all")) {
+            long documents = Long.parseLong(options.getOrDefault("documents", "1000000"));
+            boolean drop = Boolean.parseBoolean(options.getOrDefault("drop", "false"));
+            LedgerGenerator generator = new LedgerGenerator(seed, years, anchor, currency);
+            report.put("seeding", seed(mongoUri, tenant, documents, years, generator, drop));
+        }
+        if (mode.equals("run") || mode.equals("all")) {
+            // Different stream from the seeder so create traffic never collides with seeded data
+            LedgerGenerator generator = new LedgerGenerator(seed + 1, years, anchor, currency);
+            report.put("run", run(options, mongoUri, tenant, generator));
+        }
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        String json = mapper.writeValueAsString(report);
+        System.out.println(json);
+        if (options.containsKey("output")) {
+            Files.writeString(Paths.get(options.get("output")), json);
+        }
+        System.exit(0);
+    }
+
+    private static Map<String, Object> seed(String mongoUri, String tenant, long documents, int years,
+            LedgerGenerator generator, boolean drop) {
+        long started = System.nanoTime();
+        try (MongoClient client = MongoClients.create(mongoUri)) {
+            String database = new ConnectionString(mongoUri).getDatabase();
+            MongoDatabase db = client.getDatabase(database == null ? "test" : database);
+            MongoCollection<Document> collection = db.getCollection("transactions");
+            if (drop) {
+                collection.drop();
+            }
+            seedCategories(db.getCollection("categories"), tenant);
+            List<Document> batch = new ArrayList<>(SEED_BATCH);
+            InsertManyOptions unordered = new InsertManyOptions().ordered(false);
+            for (long i = 1; i <= documents; i++) {
+                batch.add(generator.nextDocument().append(TenantContext.FIELD, tenant));
+                if (batch.size() == SEED_BATCH || i == documents) {
+                    collection.insertMany(batch, unordered);
+                    batch.clear();
+                }
+                if (i % 1_000_000 == 0) {
+                    System.err.printf("seeded %,d / %,d%n", i, documents);
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("documents", documents);
+        result.put("years", years);
+        result.put("seconds", round(seconds));
+        result.put("docsPerSecond", round(documents / seconds));
+        return result;
+    }
+
+    /** Root categories for every generated categoryPath, so CategoryService finds the tree it expects. */
+    private static void seedCategories(MongoCollection<Document> categories, String tenant) {
+        Date now = new Date();
+        for (String name : LedgerGenerator.categories()) {
+            String path = CategoryPath.of(List.of(name));
+            categories.updateOne(Filters.and(Filters.eq(TenantContext.FIELD, tenant), Filters.eq("path", path)),
+                    Updates.combine(Updates.setOnInsert("name", name), Updates.setOnInsert("createdAt", now),
+                            Updates.setOnInsert("updatedAt", now)),
+                    new UpdateOptions().upsert(true));
+        }
+    }
+
+    private static Map<String, Object> run(Map<String, String> options, String mongoUri, String tenant,
+            LedgerGenerator generator) throws InterruptedException {
+        String target = options.getOrDefault("target", "http");
+        double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        long durationSec = Long.parseLong(options.getOrDefault("duration", "60"));
+        long warmupSec = Long.parseLong(options.getOrDefault("warmup", "10"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8081");
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        TrafficMix mix = new TrafficMix(options.getOrDefault("mix", TrafficMix.DEFAULT_MIX), generator, objectMapper);
+
+        ConfigurableApplicationContext context = null;
+        TransactionService service = null;
+        HttpClient http = null;
+        if (target.equals("in-process")) {
+            context = new SpringApplicationBuilder(MoneyManagerBackendApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties("spring.data.mongodb.uri=" + mongoUri)
+                    .run();
+            service = context.getBean(TransactionService.class);
+        } else {
+            http = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(Executors.newFixedThreadPool(4))
+                    .build();
+        }
+
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        Map<String, AtomicLong> errors = new HashMap<>();
+        for (String endpoint : mix.endpoints()) {
+            histograms.put(endpoint, new LatencyHistogram());
+            errors.put(endpoint, new AtomicLong());
+        }
+        LatencyHistogram overall = new LatencyHistogram();
+        AtomicLong overallErrors = new AtomicLong();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long intervalNanos = (long) (1e9 / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSec);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSec);
+        long sent = 0;
+
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            TrafficMix.Call call = mix.next();
+            long scheduledAt = intended;
+            boolean measured = intended >= measureFrom;
+            TransactionService inProcess = service;
+            HttpClient client = http;
+            workers.execute(() -> {
+                boolean ok = execute(call, tenant, inProcess, client, baseUrl);
+                if (measured) {
+                    long micros = (System.nanoTime() - scheduledAt) / 1000;
+                    histograms.get(call.endpoint()).record(micros);
+                    overall.record(micros);
+                    if (!ok) {
+                        errors.get(call.endpoint()).incrementAndGet();
+                        overallErrors.incrementAndGet();
+                    }
+                }
+            });
+            sent++;
+        }
+        workers.shutdown();
+        workers.awaitTermination(2, TimeUnit.MINUTES);
+        double elapsedSec = (System.nanoTime() - measureFrom) / 1e9;
+        if (context != null) {
+            context.close();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("target", target);
+        result.put("targetRate", rate);
+        result.put("durationSeconds", durationSec);
+        result.put("warmupSeconds", warmupSec);
+        result.put("concurrency", concurrency);
+        result.put("requestsSent", sent);
+        result.put("overall", summarize(overall, overallErrors.get(), elapsedSec));
+        Map<String, Object> perEndpoint = new LinkedHashMap<>();
+        histograms.forEach((endpoint, histogram) ->
+                perEndpoint.put(endpoint, summarize(histogram, errors.get(endpoint).get(), elapsedSec)));
+        result.put("endpoints", perEndpoint);
+        return result;
+    }
+
+    private static boolean execute(TrafficMix.Call call, String tenant, TransactionService service, HttpClient http,
+            String baseUrl) {
+        try {
+            if (service != null) {
+                TenantContext.runAs(tenant, () -> call.inProcess().run(service));
+                return true;
+            }
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + call.path()))
+                    .header("X-Tenant-Id", tenant)
+                    .timeout(Duration.ofSeconds(60));
+            if ("POST".equals(call.method())) {
+                request.header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(call.body()));
+            } else {
+                request.GET();
+            }
+            HttpResponse<Void> response = http.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 400;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static Map<String, Object> summarize(LatencyHistogram histogram, long errors, double elapsedSec) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", histogram.count());
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", round(histogram.count() / elapsedSec));
+        summary.put("p50Ms", round(histogram.percentileMillis(50)));
+        summary.put("p99Ms", round(histogram.percentileMillis(99)));
+        summary.put("p999Ms", round(histogram.percentileMillis(99.9)));
+        summary.put("maxMs", round(histogram.maxMillis()));
+        return summary;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,142 @@
+package com.money.manager.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.money.manager.dto.TransactionRequest;
+import com.money.manager.enums.Division;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.service.TransactionService;
+
+import java.io.UncheckedIOException;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weighted mix of the TransactionController endpoints. Each call is prepared up front (on the
+ * single dispatcher thread, so the sequence is reproducible from the seed) and can then be
+ * executed either over HTTP or directly against the in-process TransactionService.
+ */
+class TrafficMix {
+
+    static final String DEFAULT_MIX = "create=20,list=25,filter=20,dashboard-weekly=5,dashboard-monthly=15,"
+            + "dashboard-yearly=5,summary=10";
+
+    interface InProcessCall {
+        void run(TransactionService service);
+    }
+
+    record Call(String endpoint, String method, String path, String body, InProcessCall inProcess) {
+    }
+
+    private final List<String> endpoints = new ArrayList<>();
+    private final double[] cdf;
+    private final LedgerGenerator generator;
+    private final ObjectMapper objectMapper;
+
+    TrafficMix(String spec, LedgerGenerator generator, ObjectMapper objectMapper) {
+        this.generator = generator;
+        this.objectMapper = objectMapper;
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Bad mix entry: " + part);
+            }
+            weights.put(kv[0].trim(), Double.parseDouble(kv[1].trim()));
+        }
+        double sum = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        this.cdf = new double[weights.size()];
+        double running = 0;
+        int i = 0;
+        for (Map.Entry<String, Double> entry : weights.entrySet()) {
+            endpoints.add(entry.getKey());
+            running += entry.getValue() / sum;
+            cdf[i++] = running;
+        }
+    }
+
+    List<String> endpoints() {
+        return endpoints;
+    }
+
+    Call next() {
+        double u = generator.nextDouble();
+        int index = 0;
+        while (index < cdf.length - 1 && u >= cdf[index]) {
+            index++;
+        }
+        return prepare(endpoints.get(index));
+    }
+
+    private Call prepare(String endpoint) {
+        switch (endpoint) {
+            case "create": {
+                Map<String, Object> request = generator.nextRequest();
+                String body = toJson(request);
+                TransactionRequest dto = toRequest(request);
+                return new Call(endpoint, "POST", "/api/transactions", body, service -> service.createTransaction(dto));
+            }
+            case "list": {
+                int page = generator.nextInt(50);
+                return new Call(endpoint, "GET", "/api/transactions?page=" + page + "&size=10", null,
+                        service -> service.getAllTransactions(page, 10));
+            }
+            case "filter": {
+                Instant start = generator.randomWindowStart(30).truncatedTo(ChronoUnit.DAYS);
+                Instant end = start.plus(30, ChronoUnit.DAYS);
+                String category = generator.nextDouble() < 0.5 ? generator.randomCategory() : null;
+                String division = generator.nextDouble() < 0.5 ? generator.randomDivision() : null;
+                StringBuilder path = new StringBuilder("/api/transactions/filter?startDate=").append(start)
+                        .append("&endDate=").append(end);
+                if (category != null) {
+                    path.append("&category=").append(category.replace(" ", "%20"));
+                }
+                if (division != null) {
+                    path.append("&division=").append(division);
+                }
+                Division divisionEnum = division == null ? null : Division.valueOf(division);
+                return new Call(endpoint, "GET", path.toString(), null,
+                        service -> service.filterTransactions(start, end, category, divisionEnum));
+            }
+            case "dashboard-weekly":
+            case "dashboard-monthly":
+            case "dashboard-yearly": {
+                String period = endpoint.substring("dashboard-".length());
+                return new Call(endpoint, "GET", "/api/dashboard/" + period, null,
+                        service -> service.getDashboardStats(period, null));
+            }
+            case "summary": {
+                String period = generator.nextDouble() < 0.7 ? "monthly" : "yearly";
+                return new Call(endpoint, "GET", "/api/summary/categories?period=" + period, null,
+                        service -> service.getCategorySummary(period, null));
+            }
+            default:
+                throw new IllegalArgumentException("Unknown endpoint in mix: " + endpoint);
+        }
+    }
+
+    private String toJson(Map<String, Object> request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static TransactionRequest toRequest(Map<String, Object> fields) {
+        TransactionRequest request = new TransactionRequest();
+        request.setType(TransactionType.valueOf((String) fields.get("type")));
+        request.setAmount((Double) fields.get("amount"));
+        request.setCategory((String) fields.get("category"));
+        request.setCurrency((String) fields.get("currency"));
+        request.setDivision(Division.valueOf((String) fields.get("division")));
+        request.setDescription((String) fields.get("description"));
+        request.setTransactionDate(Instant.parse((String) fields.get("transactionDate")));
+        request.setSourceAccount((String) fields.get("sourceAccount"));
+        return request;
+    }
+}
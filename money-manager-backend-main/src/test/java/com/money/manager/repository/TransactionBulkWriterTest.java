@@ -0,0 +1,48 @@
+package com.money.manager.repository;
+
+import com.money.manager.model.Transaction;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionBulkWriterTest {
+
+    @Test
+    void keyedTransactionsGetTheSameIdEveryTime() {
+        String id = TransactionBulkWriter.keyedId(occurrence("a", "t1@1700000000000"));
+
+        assertTrue(ObjectId.isValid(id));
+        assertEquals(id, TransactionBulkWriter.keyedId(occurrence("a", "t1@1700000000000")));
+        assertNotEquals(id, TransactionBulkWriter.keyedId(occurrence("a", "t1@1700086400000")));
+        // The same key in another tenant is another document
+        assertNotEquals(id, TransactionBulkWriter.keyedId(occurrence("b", "t1@1700000000000")));
+    }
+
+    @Test
+    void fingerprintsAndOccurrenceKeysDoNotCollide() {
+        Transaction imported = new Transaction();
+        imported.setTenantId("a");
+        imported.setFingerprint("t1@1700000000000");
+
+        assertNotEquals(TransactionBulkWriter.keyedId(occurrence("a", "t1@1700000000000")),
+                TransactionBulkWriter.keyedId(imported));
+    }
+
+    @Test
+    void unkeyedTransactionsGetFreshIds() {
+        Transaction manual = new Transaction();
+        manual.setTenantId("a");
+
+        assertNotEquals(TransactionBulkWriter.keyedId(manual), TransactionBulkWriter.keyedId(manual));
+    }
+
+    private static Transaction occurrence(String tenantId, String recurrenceKey) {
+        Transaction transaction = new Transaction();
+        transaction.setTenantId(tenantId);
+        transaction.setRecurrenceKey(recurrenceKey);
+        return transaction;
+    }
+}
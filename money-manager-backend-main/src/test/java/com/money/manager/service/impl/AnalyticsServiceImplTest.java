@@ -0,0 +1,109 @@
+package com.money.manager.service.impl;
+
+import com.money.manager.dto.SpendingAnalytics;
+import com.money.manager.dto.TopExpense;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.event.TransactionChangedEvent;
+import com.money.manager.model.Transaction;
+import com.money.manager.service.FxRateService;
+import com.money.manager.util.FxRateTable;
+import com.money.manager.util.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalyticsServiceImplTest {
+
+    private static final String MONTH = "2020-01";
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final FxRateService fxRateService = mock(FxRateService.class);
+    private final AnalyticsServiceImpl service = new AnalyticsServiceImpl(mongoTemplate, fxRateService, 2, 100, 24);
+
+    AnalyticsServiceImplTest() {
+        when(fxRateService.getTable()).thenReturn(FxRateTable.builder("test", "USD").build());
+        when(fxRateService.toBase(anyDouble(), any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void deletesAreAppliedToTheLoadedMonthWithoutARescan() {
+        List<Transaction> month = List.of(expense("1", "Food", 10), expense("2", "Food", 20),
+                expense("3", "Food", 30), expense("4", "Rent", 500), expense("5", "Food", 40));
+        when(mongoTemplate.stream(any(Query.class), eq(Transaction.class))).thenAnswer(invocation -> month.stream());
+        analytics();
+
+        service.onTransactionChanged(TransactionChangedEvent.deleted(month.get(3)));
+        service.onTransactionChanged(TransactionChangedEvent.deleted(month.get(4)));
+        SpendingAnalytics analytics = analytics();
+
+        verify(mongoTemplate, times(1)).stream(any(Query.class), eq(Transaction.class));
+        assertEquals(List.of("3", "2"), analytics.getLargestExpenses().stream().map(TopExpense::getId).toList());
+        assertEquals(1, analytics.getCategories().size());
+        assertEquals(3, analytics.getCategories().get(0).getCount());
+        assertEquals(60.0, analytics.getCategories().get(0).getTotal());
+        assertEquals(20.0, analytics.getCategories().get(0).getMedian(), 1);
+    }
+
+    @Test
+    void theScanDoesNotBlockWritersAndTheirChangesAreReplayedOnce() throws Exception {
+        Transaction first = expense("1", "Food", 10);
+        Transaction second = expense("2", "Food", 20);
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mongoTemplate.stream(any(Query.class), eq(Transaction.class))).thenAnswer(invocation -> {
+            scanning.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            // The cursor sees the first transaction after its edit and the second before its delete
+            return Stream.of(expense("1", "Food", 15), second);
+        });
+        CompletableFuture<SpendingAnalytics> report = CompletableFuture.supplyAsync(this::analytics);
+        assertTrue(scanning.await(5, TimeUnit.SECONDS));
+
+        Transaction edited = expense("1", "Food", 15);
+        CompletableFuture.runAsync(() -> {
+            service.onTransactionChanged(TransactionChangedEvent.updated(first, edited));
+            service.onTransactionChanged(TransactionChangedEvent.deleted(second));
+            service.onTransactionChanged(TransactionChangedEvent.created(expense("3", "Rent", 100)));
+        }).get(5, TimeUnit.SECONDS);
+        release.countDown();
+        SpendingAnalytics analytics = report.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("3", "1"), analytics.getLargestExpenses().stream().map(TopExpense::getId).toList());
+        assertEquals(2, analytics.getCategories().size());
+        assertEquals(100.0, analytics.getCategories().get(0).getTotal());
+        assertEquals(15.0, analytics.getCategories().get(1).getTotal());
+        assertEquals(1, analytics.getCategories().get(1).getCount());
+    }
+
+    private SpendingAnalytics analytics() {
+        return TenantContext.callAs("a", () -> service.getSpendingAnalytics(MONTH, 10));
+    }
+
+    private static Transaction expense(String id, String category, double amount) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setTenantId("a");
+        transaction.setType(TransactionType.EXPENSE);
+        transaction.setCategory(category);
+        transaction.setAmount(amount);
+        transaction.setTransactionDate(Instant.parse("2020-01-15T10:00:00Z"));
+        return transaction;
+    }
+}
@@ -0,0 +1,209 @@
+package com.money.manager.service.impl;
+
+import com.money.manager.enums.Division;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.mapper.TransactionMapper;
+import com.money.manager.model.Transaction;
+import com.money.manager.repository.AnomalyBaselineRepository;
+import com.money.manager.service.FxRateService;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AnomalyServiceImplTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final AnomalyBaselineRepository baselineRepository = mock(AnomalyBaselineRepository.class);
+    private final FxRateService fxRateService = mock(FxRateService.class);
+
+    AnomalyServiceImplTest() {
+        when(fxRateService.toBase(anyDouble(), any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(baselineRepository.findAll()).thenReturn(List.of());
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("transactions"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class)))
+                .thenReturn(mock(BulkOperations.class, RETURNS_SELF));
+    }
+
+    @Test
+    void flagsOnlyOnceTheBaselineHasMinSamples() {
+        AnomalyServiceImpl service = service();
+        Transaction early = expense(1000);
+        for (int i = 0; i < 9; i++) {
+            record(service, expense(i % 2 == 0 ? 90 : 110));
+        }
+        record(service, early);
+        assertNull(early.getAnomalyScore());
+        assertNull(early.getAnomalous());
+
+        Transaction usual = expense(105);
+        Transaction outlier = expense(1000);
+        record(service, usual);
+        record(service, outlier);
+
+        assertTrue(usual.getAnomalyScore() < 3);
+        assertNull(usual.getAnomalous());
+        assertTrue(outlier.getAnomalous());
+    }
+
+    @Test
+    void anEditWithdrawsThePreviousAmountFromTheBaseline() {
+        AnomalyServiceImpl edited = trained();
+        Transaction before = expense(120);
+        record(edited, before);
+        edit(edited, before, expense(100));
+
+        AnomalyServiceImpl direct = trained();
+        record(direct, expense(100));
+
+        assertEquals(probe(direct), probe(edited), 0.01);
+    }
+
+    @Test
+    void editingAFlaggedAmountDownClearsTheFlag() {
+        AnomalyServiceImpl edited = trained();
+        Transaction typo = expense(10_000);
+        record(edited, typo);
+        assertTrue(typo.getAnomalous());
+
+        Transaction fixed = expense(100);
+        fixed.setAnomalous(true);
+        fixed.setAnomalyScore(typo.getAnomalyScore());
+        edit(edited, typo, fixed);
+
+        assertNull(fixed.getAnomalous());
+        assertTrue(fixed.getAnomalyScore() < 3);
+        AnomalyServiceImpl direct = trained();
+        record(direct, expense(100));
+        assertEquals(probe(direct), probe(edited), 0.01);
+    }
+
+    @Test
+    void scoringAloneLeavesTheBaselineUnchanged() {
+        AnomalyServiceImpl service = trained();
+        double untouched = probe(service);
+
+        // A write rejected after scoring, then its retries
+        for (int i = 0; i < 5; i++) {
+            service.score(expense(10_000));
+        }
+
+        assertEquals(untouched, probe(service), 0.0);
+    }
+
+    @Test
+    void deletingTheLatestExpenseRestoresTheBaseline() {
+        AnomalyServiceImpl deleted = trained();
+        Transaction outlier = expense(10_000);
+        record(deleted, outlier);
+        deleted.unobserve(outlier);
+
+        assertEquals(probe(trained()), probe(deleted), 0.01);
+    }
+
+    @Test
+    void deletingAnOlderExpenseWithdrawsItsDecayedWeight() {
+        AnomalyServiceImpl deleted = trained();
+        Transaction mistake = expense(400);
+        record(deleted, mistake);
+        AnomalyServiceImpl direct = trained();
+        for (int i = 0; i < 5; i++) {
+            record(deleted, expense(100));
+            record(direct, expense(100));
+        }
+        double withMistake = probe(deleted);
+
+        deleted.unobserve(mistake);
+
+        // Renormalizing the other weights is not an exact replay, but far closer than keeping it
+        double target = probe(direct);
+        assertTrue(Math.abs(probe(deleted) - target) < Math.abs(withMistake - target) / 2,
+                probe(deleted) + " vs " + target + " (was " + withMistake + ")");
+    }
+
+    @Test
+    void missingBaselinesAreSeededFromExistingExpenses() {
+        Document group = new Document("_id", new Document("tenantId", "a").append("category", "Food")
+                .append("division", Division.PERSONAL.name()));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("transactions"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(group), new Document()));
+        List<Transaction> history = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            history.add(expense(i % 2 == 0 ? 90 : 110));
+        }
+        when(mongoTemplate.find(any(Query.class), eq(Transaction.class))).thenAnswer(invocation -> {
+            assertEquals(80, ((Query) invocation.getArgument(0)).getLimit());
+            return new ArrayList<>(history);
+        });
+        AnomalyServiceImpl service = service();
+
+        Transaction outlier = expense(1000);
+        service.score(outlier);
+
+        assertTrue(outlier.getAnomalous());
+        assertEquals(21L, outlier.getAnomalySample());
+    }
+
+    private AnomalyServiceImpl service() {
+        AnomalyServiceImpl service = new AnomalyServiceImpl(baselineRepository, mongoTemplate, fxRateService,
+                mock(TransactionMapper.class), 0.05, 3.0, 10);
+        service.loadBaselines();
+        return service;
+    }
+
+    private AnomalyServiceImpl trained() {
+        AnomalyServiceImpl service = service();
+        for (int i = 0; i < 30; i++) {
+            record(service, expense(i % 3 == 0 ? 80 : i % 3 == 1 ? 100 : 125));
+        }
+        return service;
+    }
+
+    /** What a successful create does: score, save, then observe. */
+    private static void record(AnomalyServiceImpl service, Transaction transaction) {
+        service.score(transaction);
+        service.observe(transaction);
+    }
+
+    /** What a successful edit does: rescore, save, then swap the versions in the baseline. */
+    private static void edit(AnomalyServiceImpl service, Transaction before, Transaction after) {
+        service.rescore(before, after);
+        service.unobserve(before);
+        service.observe(after);
+    }
+
+    private static double probe(AnomalyServiceImpl service) {
+        Transaction probe = expense(200);
+        service.score(probe);
+        return probe.getAnomalyScore();
+    }
+
+    private static Transaction expense(double amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTenantId("a");
+        transaction.setType(TransactionType.EXPENSE);
+        transaction.setCategory("Food");
+        transaction.setDivision(Division.PERSONAL);
+        transaction.setAmount(amount);
+        transaction.setTransactionDate(Instant.parse("2020-01-15T10:00:00Z"));
+        return transaction;
+    }
+}
@@ -0,0 +1,269 @@
+package com.money.manager.service.impl;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.money.manager.dto.BudgetAlert;
+import com.money.manager.dto.BudgetRequest;
+import com.money.manager.dto.BudgetStatus;
+import com.money.manager.enums.Division;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.event.CategoryMovedEvent;
+import com.money.manager.event.TransactionChangedEvent;
+import com.money.manager.model.Budget;
+import com.money.manager.model.Category;
+import com.money.manager.model.Transaction;
+import com.money.manager.repository.BudgetRepository;
+import com.money.manager.service.CategoryService;
+import com.money.manager.service.FxRateService;
+import com.money.manager.util.CategoryPath;
+import com.money.manager.util.FxRateTable;
+import com.money.manager.util.TenantContext;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BudgetServiceImplTest {
+
+    private static final String MONTH = "2020-01";
+
+    private final BudgetRepository budgetRepository = mock(BudgetRepository.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final FxRateService fxRateService = mock(FxRateService.class);
+    private final CategoryService categoryService = mock(CategoryService.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    // budget id -> $inc of spent, per flush
+    private final List<Map<String, Double>> flushes = new ArrayList<>();
+    private Map<String, Double> currentFlush = new HashMap<>();
+
+    private final BudgetServiceImpl service = new BudgetServiceImpl(budgetRepository, mongoTemplate, fxRateService,
+            categoryService, new int[] {80, 100});
+
+    BudgetServiceImplTest() {
+        when(fxRateService.getTable()).thenReturn(FxRateTable.builder("test", "USD").build());
+        when(fxRateService.toBase(anyDouble(), any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("transactions"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+        when(categoryService.resolve(any())).thenAnswer(invocation -> {
+            Category category = new Category();
+            category.setPath(CategoryPath.of(CategoryPath.segments(invocation.getArgument(0))));
+            return category;
+        });
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(Budget.class))).thenAnswer(invocation -> {
+            currentFlush = new HashMap<>();
+            flushes.add(currentFlush);
+            return bulk;
+        });
+        when(bulk.updateOne(any(Query.class), any(Update.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            Update update = invocation.getArgument(1);
+            Document inc = (Document) update.getUpdateObject().get("$inc");
+            currentFlush.put(query.getQueryObject().getString("_id"), inc.getDouble("spent"));
+            return bulk;
+        });
+    }
+
+    @Test
+    void failedFlushKeepsItsDeltaForTheNextOne() {
+        load(budget("b1", "a", "Food", 100.0));
+        when(bulk.execute()).thenThrow(new DataAccessResourceFailureException("down")).thenReturn(null);
+
+        service.onTransactionChanged(TransactionChangedEvent.created(expense("a", "Food", 30.0)));
+        service.persistDirtyBudgets();
+        service.onTransactionChanged(TransactionChangedEvent.created(expense("a", "Food", 5.0)));
+        service.persistDirtyBudgets();
+        service.persistDirtyBudgets();
+
+        assertEquals(2, flushes.size());
+        assertEquals(Map.of("b1", 30.0), flushes.get(0));
+        assertEquals(Map.of("b1", 35.0), flushes.get(1));
+    }
+
+    @Test
+    void partialBulkFailureRetriesOnlyTheFailedBudgets() {
+        load(budget("b1", "a", "Food", 100.0), budget("b2", "a", "Rent", 100.0));
+        service.onTransactionChanged(TransactionChangedEvent.created(expense("a", "Food", 10.0)));
+        service.onTransactionChanged(TransactionChangedEvent.created(expense("a", "Rent", 20.0)));
+
+        when(bulk.execute()).thenAnswer(invocation -> {
+            BulkWriteError error = mock(BulkWriteError.class);
+            // Fail whichever budget was queued second
+            when(error.getIndex()).thenReturn(1);
+            BulkOperationException failure = mock(BulkOperationException.class);
+            when(failure.getErrors()).thenReturn(List.of(error));
+            throw failure;
+        }).thenReturn(null);
+        List<String> queued = new ArrayList<>();
+        doAnswer(invocation -> {
+            queued.add(((Query) invocation.getArgument(0)).getQueryObject().getString("_id"));
+            Update update = invocation.getArgument(1);
+            currentFlush.put(queued.get(queued.size() - 1),
+                    ((Document) update.getUpdateObject().get("$inc")).getDouble("spent"));
+            return bulk;
+        }).when(bulk).updateOne(any(Query.class), any(Update.class));
+
+        service.persistDirtyBudgets();
+        service.persistDirtyBudgets();
+
+        String failed = queued.get(1);
+        assertEquals(Map.of(failed, failed.equals("b1") ? 10.0 : 20.0), flushes.get(1));
+    }
+
+    @Test
+    void alertsAreBufferedPerTenant() {
+        load(budget("b1", "a", "Food", 100.0), budget("b2", "noisy", "Food", 100.0));
+
+        Transaction noisy = expense("noisy", "Food", 100.0);
+        for (int i = 0; i < 1500; i++) {
+            service.onTransactionChanged(TransactionChangedEvent.created(noisy));
+            service.onTransactionChanged(TransactionChangedEvent.deleted(noisy));
+        }
+        service.onTransactionChanged(TransactionChangedEvent.created(expense("a", "Food", 85.0)));
+
+        List<BudgetAlert> alerts = TenantContext.callAs("a", () -> service.getAlerts(0));
+        assertEquals(1, alerts.size());
+        assertEquals(80, alerts.get(0).getThreshold());
+        assertEquals(1000, TenantContext.callAs("noisy", () -> service.getAlerts(0)).size());
+    }
+
+    @Test
+    void expenseCountsTowardItsCategoryAndEveryAncestor() {
+        load(budget("food", "a", "Food", 1000.0), budget("groceries", "a", "Food > Groceries", 1000.0),
+                budget("rent", "a", "Rent", 1000.0));
+
+        service.onTransactionChanged(TransactionChangedEvent.created(expense("a", "Food > Groceries > Produce", 40.0)));
+        service.onTransactionChanged(TransactionChangedEvent.created(expense("a", "Food", 10.0)));
+
+        assertEquals(50.0, spent("a", "food"));
+        assertEquals(40.0, spent("a", "groceries"));
+        assertEquals(0.0, spent("a", "rent"));
+    }
+
+    @Test
+    void moveKeepsTheSubtreeBudgetAndShiftsSpendBetweenAncestors() {
+        load(budget("food", "a", "Food", 1000.0), budget("groceries", "a", "Food > Groceries", 1000.0),
+                budget("home", "a", "Home", 1000.0));
+        Transaction before = expense("a", "Food > Groceries", 40.0);
+        service.onTransactionChanged(TransactionChangedEvent.created(before));
+
+        // Food > Groceries becomes Home > Supplies; then the rewriter re-paths the transaction
+        service.onCategoryMoved(new CategoryMovedEvent("a", "Food>Groceries>", "Home>Supplies>"));
+        Transaction after = expense("a", "Home > Supplies", 40.0);
+        service.onTransactionChanged(TransactionChangedEvent.moved(before, after, "Food>Groceries>", "Home>Supplies>"));
+
+        assertEquals(0.0, spent("a", "food"));
+        assertEquals(40.0, spent("a", "groceries"));
+        assertEquals("Home > Supplies", TenantContext.callAs("a", () -> service.getBudgetStatus("groceries")).getCategory());
+        assertEquals(40.0, spent("a", "home"));
+
+        // New spending under the new path reaches the moved budget
+        service.onTransactionChanged(TransactionChangedEvent.created(expense("a", "Home > Supplies", 5.0)));
+        assertEquals(45.0, spent("a", "groceries"));
+    }
+
+    @Test
+    void expenseWrittenWhileTheBudgetIsSeededIsNotLost() {
+        // The write lands after the aggregation read the month, so only its event carries it
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("transactions"), eq(Document.class))).thenAnswer(invocation -> {
+            service.onTransactionChanged(TransactionChangedEvent.created(expense("a", "Food", 5.0)));
+            return new AggregationResults<>(List.of(new Document("_id",
+                    new Document("currency", "USD").append("day", "2020-01-10")).append("total", 40.0)), new Document());
+        });
+        when(budgetRepository.insert(any(Budget.class))).thenAnswer(invocation -> {
+            Budget budget = invocation.getArgument(0);
+            assertEquals(45.0, budget.getSpent());
+            service.onTransactionChanged(TransactionChangedEvent.created(expense("a", "Food", 1.0)));
+            budget.setId("b1");
+            return budget;
+        });
+
+        BudgetStatus status = TenantContext.callAs("a", () -> service.saveBudget(request("Food", 100.0)));
+        service.persistDirtyBudgets();
+
+        assertEquals(46.0, status.getSpent());
+        // Only the event that arrived after the document was built is added to it
+        assertEquals(Map.of("b1", 1.0), flushes.get(0));
+    }
+
+    @Test
+    void budgetCreatedConcurrentlyElsewhereIsAdopted() {
+        Budget stored = budget("other", "a", "Food", 50.0);
+        stored.setSpent(70.0);
+        when(budgetRepository.insert(any(Budget.class))).thenThrow(new DuplicateKeyException("exists"));
+        when(budgetRepository.findByTenantIdAndCategoryPathAndDivisionAndMonth("a", stored.getCategoryPath(),
+                Division.PERSONAL, MONTH)).thenReturn(Optional.of(stored));
+
+        BudgetStatus status = TenantContext.callAs("a", () -> service.saveBudget(request("Food", 100.0)));
+
+        assertEquals("other", status.getId());
+        assertEquals(70.0, status.getSpent());
+        assertEquals(100.0, status.getLimitAmount());
+        assertEquals(Map.of("other", 0.0), flushes.get(0));
+        service.onTransactionChanged(TransactionChangedEvent.created(expense("a", "Food", 5.0)));
+        assertEquals(75.0, spent("a", "other"));
+    }
+
+    private static BudgetRequest request(String category, double limit) {
+        BudgetRequest request = new BudgetRequest();
+        request.setCategory(category);
+        request.setDivision(Division.PERSONAL);
+        request.setMonth(MONTH);
+        request.setLimitAmount(limit);
+        return request;
+    }
+
+    private double spent(String tenantId, String budgetId) {
+        return TenantContext.callAs(tenantId, () -> service.getBudgetStatus(budgetId)).getSpent();
+    }
+
+    private void load(Budget... budgets) {
+        when(budgetRepository.findAll()).thenReturn(List.of(budgets));
+        service.loadBudgets();
+    }
+
+    private static Budget budget(String id, String tenantId, String category, double limit) {
+        Budget budget = new Budget();
+        budget.setId(id);
+        budget.setTenantId(tenantId);
+        budget.setCategoryPath(CategoryPath.of(CategoryPath.segments(category)));
+        budget.setCategory(category);
+        budget.setDivision(Division.PERSONAL);
+        budget.setMonth(MONTH);
+        budget.setLimitAmount(limit);
+        budget.setSpent(0.0);
+        return budget;
+    }
+
+    private static Transaction expense(String tenantId, String category, double amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTenantId(tenantId);
+        transaction.setType(TransactionType.EXPENSE);
+        transaction.setCategoryPath(CategoryPath.of(CategoryPath.segments(category)));
+        transaction.setCategory(category);
+        transaction.setDivision(Division.PERSONAL);
+        transaction.setAmount(amount);
+        transaction.setTransactionDate(Instant.parse("2020-01-15T10:00:00Z"));
+        return transaction;
+    }
+}
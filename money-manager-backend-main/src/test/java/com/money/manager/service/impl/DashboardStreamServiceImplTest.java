@@ -0,0 +1,175 @@
+package com.money.manager.service.impl;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.money.manager.dto.DashboardStats;
+import com.money.manager.event.TransactionChangedEvent;
+import com.money.manager.mapper.TransactionMapper;
+import com.money.manager.model.Transaction;
+import com.money.manager.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardStreamServiceImplTest {
+
+    private static final int SENDER_THREADS = 4;
+
+    private final TransactionService transactionService = mock(TransactionService.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private DashboardStreamServiceImpl service;
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void stalledSubscriberDoesNotDelayOthersAndIsDroppedWhenItFallsBehind() throws Exception {
+        service = service(4, 60_000);
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        RecordingEmitter healthy = new RecordingEmitter(null);
+        service.subscribe("t1", stalled);
+        service.subscribe("t1", healthy);
+
+        // Paced so only the stalled subscriber can fall behind, however slow the test machine
+        for (int i = 1; i <= 10; i++) {
+            publishChange("t1");
+            assertTrue(healthy.awaitSent(i), "healthy subscriber received " + healthy.sent.get());
+        }
+
+        assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+        assertFalse(healthy.completed.await(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void sendExceedingTheTimeoutDropsTheSubscriber() throws Exception {
+        service = service(16, 50);
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        service.subscribe("t1", stalled);
+
+        publishChange("t1");
+        Thread.sleep(200);
+        service.flushDeltas();
+
+        assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void broadcastToManySubscribersUsesABoundedNumberOfThreads() throws Exception {
+        service = service(16, 60_000);
+        Set<Thread> senders = ConcurrentHashMap.newKeySet();
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            RecordingEmitter emitter = new RecordingEmitter(null, senders);
+            emitters.add(emitter);
+            service.subscribe("t1", emitter);
+        }
+
+        service.heartbeat();
+
+        for (RecordingEmitter emitter : emitters) {
+            assertTrue(emitter.awaitSent(1));
+        }
+        assertTrue(senders.size() <= SENDER_THREADS, senders.size() + " sender threads");
+    }
+
+    @Test
+    void subscribersBeyondTheSenderBacklogAreDropped() throws Exception {
+        service = service(16, 60_000, 50);
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < SENDER_THREADS + 50 + 10; i++) {
+            RecordingEmitter emitter = new RecordingEmitter(release);
+            emitters.add(emitter);
+            service.subscribe("t1", emitter);
+        }
+
+        service.heartbeat();
+        release.countDown();
+
+        long dropped = emitters.stream().filter(emitter -> emitter.completed.getCount() == 0).count();
+        assertTrue(dropped >= 10, dropped + " dropped");
+    }
+
+    private void publishChange(String tenantId) {
+        Transaction transaction = new Transaction();
+        transaction.setTenantId(tenantId);
+        transaction.setId("tx");
+        transaction.setTransactionDate(Instant.now());
+        service.onTransactionChanged(TransactionChangedEvent.created(transaction));
+        service.flushDeltas();
+    }
+
+    private DashboardStreamServiceImpl service(int subscriberQueue, long sendTimeoutMs) {
+        return service(subscriberQueue, sendTimeoutMs, 10_000);
+    }
+
+    private DashboardStreamServiceImpl service(int subscriberQueue, long sendTimeoutMs, int senderQueue) {
+        when(transactionService.getDashboardStats(any(), any())).thenReturn(new DashboardStats());
+        return new DashboardStreamServiceImpl(transactionService, mock(TransactionMapper.class),
+                JsonMapper.builder().findAndAddModules().build(), 60_000, 100, subscriberQueue, sendTimeoutMs,
+                SENDER_THREADS, senderQueue);
+    }
+
+    /** Counts sends and the threads making them; blocks every send until released when given a latch. */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch block;
+        private final Set<Thread> threads;
+        private final AtomicInteger sent = new AtomicInteger();
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        RecordingEmitter(CountDownLatch block) {
+            this(block, ConcurrentHashMap.newKeySet());
+        }
+
+        RecordingEmitter(CountDownLatch block, Set<Thread> threads) {
+            this.block = block;
+            this.threads = threads;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            threads.add(Thread.currentThread());
+            if (block != null) {
+                try {
+                    block.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.incrementAndGet();
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            completed.countDown();
+        }
+
+        boolean awaitSent(int count) throws InterruptedException {
+            for (int i = 0; i < 500 && sent.get() < count; i++) {
+                Thread.sleep(10);
+            }
+            return sent.get() >= count;
+        }
+    }
+}
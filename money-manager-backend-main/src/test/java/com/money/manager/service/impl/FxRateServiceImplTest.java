@@ -0,0 +1,79 @@
+package com.money.manager.service.impl;
+
+import com.money.manager.exception.BusinessRuleException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FxRateServiceImplTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reloadThatDropsACurrencyInUseKeepsTheCurrentTable() throws Exception {
+        Path rates = directory.resolve("rates.csv");
+        Files.writeString(rates, "# version: v1\n# base: INR\ndate,currency,rate\n2025-01-01,USD,85\n2025-01-01,EUR,90\n");
+        FxRateServiceImpl service = service(rates);
+        when(mongoTemplate.findDistinct(any(Query.class), eq("currency"), eq("transactions"), eq(String.class)))
+                .thenReturn(List.of("INR", "EUR"));
+        when(mongoTemplate.findDistinct(any(Query.class), eq("currency"), eq("recurring_templates"), eq(String.class)))
+                .thenReturn(List.of());
+        service.load();
+
+        Files.writeString(rates, "# version: v2\n# base: INR\ndate,currency,rate\n2025-01-01,USD,86\n");
+        BusinessRuleException error = assertThrows(BusinessRuleException.class, service::reload);
+
+        assertTrue(error.getMessage().contains("EUR"), error.getMessage());
+        assertEquals("v1", service.getTable().getVersion());
+        assertEquals(900.0, service.toBase(10, "EUR", Instant.parse("2025-06-01T00:00:00Z")));
+    }
+
+    @Test
+    void reloadKeepingEveryCurrencyInUseSwapsTheTable() throws Exception {
+        Path rates = directory.resolve("rates.csv");
+        Files.writeString(rates, "# version: v1\n# base: INR\ndate,currency,rate\n2025-01-01,USD,85\n");
+        FxRateServiceImpl service = service(rates);
+        when(mongoTemplate.findDistinct(any(Query.class), eq("currency"), any(String.class), eq(String.class)))
+                .thenReturn(List.of("USD"));
+        service.load();
+
+        Files.writeString(rates, "# version: v2\n# base: INR\ndate,currency,rate\n2025-01-01,USD,86\n");
+
+        assertEquals("v2", service.reload().getVersion());
+        assertEquals(86.0, service.toBase(1, "USD", Instant.parse("2025-06-01T00:00:00Z")));
+    }
+
+    @Test
+    void unsupportedRequestedCurrencyIsABusinessRuleError() throws Exception {
+        Path rates = directory.resolve("rates.csv");
+        Files.writeString(rates, "# version: v1\n# base: INR\ndate,currency,rate\n2025-01-01,USD,85\n");
+        FxRateServiceImpl service = service(rates);
+        service.load();
+
+        assertEquals("INR", service.resolveCurrency(null));
+        assertEquals("USD", service.resolveCurrency(" usd "));
+        assertThrows(BusinessRuleException.class, () -> service.resolveCurrency("JPY"));
+    }
+
+    private FxRateServiceImpl service(Path rates) {
+        return new FxRateServiceImpl(new DefaultResourceLoader(), mongoTemplate, rates.toUri().toString(), "INR");
+    }
+}
@@ -0,0 +1,88 @@
+package com.money.manager.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.money.manager.config.NativeHintsConfig;
+import com.money.manager.enums.Division;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.model.Transaction;
+import org.bson.Document;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The reflection-dependent paths that Spring's AOT processing cannot see. Tagged "native" so
+ * mvn -Pnative test runs them again in a native image built with NativeHintsConfig's hints;
+ * on the JVM they pass without hints.
+ */
+@Tag("native")
+@SpringJUnitConfig(NativeHintsConfig.class)
+class NativeMappingTest {
+
+    // Configured like the application's ObjectMapper (ISO-8601 instants)
+    private final ObjectMapper objectMapper = JsonMapper.builder().addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    @Test
+    void journalEntryRoundTripsThroughJackson() throws Exception {
+        Transaction transaction = new Transaction();
+        transaction.setId("65a1f0c2e4b0a1b2c3d4e5f6");
+        transaction.setTenantId("household");
+        transaction.setType(TransactionType.EXPENSE);
+        transaction.setAmount(42.5);
+        transaction.setCurrency("EUR");
+        transaction.setCategory("Food > Groceries");
+        transaction.setCategoryPath("Food>Groceries>");
+        transaction.setDivision(Division.PERSONAL);
+        transaction.setDescription("Weekly shop, \"organic\"");
+        transaction.setTransactionDate(Instant.parse("2024-03-01T10:15:30Z"));
+        transaction.setCreatedAt(Instant.parse("2024-03-01T10:16:00.123Z"));
+        transaction.setAnomalyScore(1.25);
+        transaction.setAnomalous(true);
+
+        String line = objectMapper.writeValueAsString(transaction);
+        Transaction replayed = objectMapper.readValue(line, Transaction.class);
+
+        assertTrue(line.contains("\"transactionDate\":\"2024-03-01T10:15:30Z\""));
+        assertEquals(transaction.getId(), replayed.getId());
+        assertEquals(transaction.getTenantId(), replayed.getTenantId());
+        assertEquals(TransactionType.EXPENSE, replayed.getType());
+        assertEquals(42.5, replayed.getAmount());
+        assertEquals("EUR", replayed.getCurrency());
+        assertEquals("Food>Groceries>", replayed.getCategoryPath());
+        assertEquals(Division.PERSONAL, replayed.getDivision());
+        assertEquals(transaction.getDescription(), replayed.getDescription());
+        assertEquals(transaction.getTransactionDate(), replayed.getTransactionDate());
+        assertEquals(transaction.getCreatedAt(), replayed.getCreatedAt());
+        assertEquals(true, replayed.getAnomalous());
+    }
+
+    @Test
+    void aggregationResultMapsToDocumentWrapper() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+        // Shape of the dashboard's group stage: _id is the (type, currency, day) key
+        Document result = new Document("_id", new Document("type", "INCOME").append("currency", "USD")
+                .append("day", "2024-03-01")).append("total", 1250.75);
+
+        TransactionServiceImpl.DocumentWrapper wrapper =
+                converter.read(TransactionServiceImpl.DocumentWrapper.class, result);
+
+        assertEquals(TransactionType.INCOME, wrapper.getId().getType());
+        assertEquals("USD", wrapper.getId().getCurrency());
+        assertEquals("2024-03-01", wrapper.getId().getDay());
+        assertEquals(1250.75, wrapper.getTotal());
+    }
+}
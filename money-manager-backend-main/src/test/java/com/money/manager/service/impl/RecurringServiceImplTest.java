@@ -0,0 +1,139 @@
+package com.money.manager.service.impl;
+
+import com.money.manager.dto.RecurringRunResult;
+import com.money.manager.dto.RecurringTemplateRequest;
+import com.money.manager.enums.Division;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.exception.BusinessRuleException;
+import com.money.manager.mapper.TransactionMapper;
+import com.money.manager.model.RecurringTemplate;
+import com.money.manager.model.Transaction;
+import com.money.manager.repository.RecurringTemplateRepository;
+import com.money.manager.repository.TransactionBulkWriter;
+import com.money.manager.util.TenantContext;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecurringServiceImplTest {
+
+    private final RecurringTemplateRepository templateRepository = mock(RecurringTemplateRepository.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final TransactionBulkWriter bulkWriter = mock(TransactionBulkWriter.class);
+    private final BulkOperations advance = mock(BulkOperations.class, RETURNS_SELF);
+    // template id -> update applied by the run
+    private final Map<String, Document> updates = new HashMap<>();
+
+    private final RecurringServiceImpl service = new RecurringServiceImpl(templateRepository, mongoTemplate,
+            mock(TransactionMapper.class), bulkWriter, mock(ApplicationEventPublisher.class), 1000, 100, 1000);
+
+    RecurringServiceImplTest() {
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(RecurringTemplate.class)))
+                .thenReturn(advance);
+        when(advance.updateOne(any(Query.class), any(Update.class))).thenAnswer(invocation -> {
+            Query guard = invocation.getArgument(0);
+            Update update = invocation.getArgument(1);
+            updates.put(guard.getQueryObject().getString("_id"), (Document) update.getUpdateObject().get("$set"));
+            return advance;
+        });
+        when(bulkWriter.insertIgnoringDuplicates(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(templateRepository.save(any(RecurringTemplate.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void aBadTemplateIsDeactivatedAndTheRestOfTheBatchIsPosted() {
+        Instant due = Instant.now().minus(1, ChronoUnit.HOURS);
+        RecurringTemplate broken = template("broken", "every other tuesday", due);
+        RecurringTemplate good = template("good", "0 0 * * * *", due);
+        when(mongoTemplate.find(any(Query.class), eq(RecurringTemplate.class)))
+                .thenReturn(List.of(broken, good))
+                .thenReturn(List.of());
+
+        RecurringRunResult result = TenantContext.callAs("a", service::materializeDue);
+
+        assertEquals(1, result.getFailed());
+        assertEquals(1, result.getTemplates());
+        assertTrue(result.getCreated() >= 1);
+        assertEquals(false, updates.get("broken").get("active"));
+        assertTrue(updates.get("broken").getString("lastError").contains("every other tuesday"));
+        assertFalse(updates.get("good").containsKey("active"));
+        assertTrue(((Instant) updates.get("good").get("nextRun")).isAfter(due));
+    }
+
+    @Test
+    void fiveFieldCronGetsASecondsField() {
+        assertEquals("0 0 9 1 * *", RecurringServiceImpl.normalizeCron("0 9 1 * *"));
+        assertEquals("0 0 9 1 * *", RecurringServiceImpl.normalizeCron("  0   9 1 * *  "));
+        assertEquals("30 0 9 1 * *", RecurringServiceImpl.normalizeCron("30 0 9 1 * *"));
+        assertEquals("@monthly", RecurringServiceImpl.normalizeCron(" @monthly "));
+    }
+
+    @Test
+    void savingATemplateNormalizesItsCronAndClearsTheLastError() {
+        RecurringTemplate existing = template("t1", "0 0 9 1 * *", Instant.now());
+        existing.setActive(false);
+        existing.setLastError("Category not found");
+        when(templateRepository.findByIdAndTenantId("t1", "a")).thenReturn(Optional.of(existing));
+
+        TenantContext.callAs("a", () -> service.updateTemplate("t1", request("0 9 1 * *")));
+
+        assertEquals("0 0 9 1 * *", existing.getCron());
+        assertTrue(existing.isActive());
+        assertNull(existing.getLastError());
+    }
+
+    @Test
+    void invalidCronIsRejected() {
+        assertThrows(BusinessRuleException.class,
+                () -> TenantContext.callAs("a", () -> service.createTemplate(request("61 * * * *"))));
+    }
+
+    private static RecurringTemplateRequest request(String cron) {
+        RecurringTemplateRequest request = new RecurringTemplateRequest();
+        request.setName("Rent");
+        request.setCron(cron);
+        request.setType(TransactionType.EXPENSE);
+        request.setAmount(1000.0);
+        request.setCategory("Rent");
+        request.setDivision(Division.PERSONAL);
+        return request;
+    }
+
+    private static RecurringTemplate template(String id, String cron, Instant nextRun) {
+        RecurringTemplate template = new RecurringTemplate();
+        template.setId(id);
+        template.setTenantId("a");
+        template.setName(id);
+        template.setCron(cron);
+        template.setType(TransactionType.EXPENSE);
+        template.setAmount(10.0);
+        template.setCategory("Food");
+        template.setDivision(Division.PERSONAL);
+        template.setNextRun(nextRun);
+        template.setActive(true);
+        return template;
+    }
+}
@@ -0,0 +1,153 @@
+package com.money.manager.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.money.manager.dto.ReportRequest;
+import com.money.manager.enums.ReportFormat;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.event.TransactionChangedEvent;
+import com.money.manager.model.Transaction;
+import com.money.manager.service.FxRateService;
+import com.money.manager.util.FxRateTable;
+import com.money.manager.util.TenantContext;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReportServiceImplTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final FxRateService fxRateService = mock(FxRateService.class);
+    // ledger_versions: "tenantId|yyyy-MM" -> version, shared by every instance
+    private final TreeMap<String, Long> stored = new TreeMap<>();
+    private final AtomicBoolean down = new AtomicBoolean();
+    private ReportServiceImpl service;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void start() {
+        when(fxRateService.resolveCurrency(any())).thenReturn("USD");
+        when(fxRateService.getTable()).thenReturn(FxRateTable.builder("test", "USD").build());
+        when(mongoTemplate.stream(any(Query.class), eq(Transaction.class))).thenAnswer(invocation -> Stream.empty());
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("ledger_versions"))).thenAnswer(invocation -> {
+            Document id = (Document) invocation.<Query>getArgument(0).getQueryObject().get("_id");
+            return stored.subMap(id.getString("$gte"), true, id.getString("$lte"), true)
+                    .values().stream().map(version -> new Document("version", version)).toList();
+        });
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq("ledger_versions"))).thenAnswer(invocation -> {
+            if (down.get()) {
+                throw new DataAccessResourceFailureException("down");
+            }
+            String key = invocation.<Query>getArgument(0).getQueryObject().getString("_id");
+            Document inc = (Document) invocation.<Update>getArgument(1).getUpdateObject().get("$inc");
+            stored.merge(key, inc.getLong("version"), Long::sum);
+            return null;
+        });
+        service = newInstance();
+    }
+
+    @AfterEach
+    void stop() {
+        service.shutdown();
+    }
+
+    @Test
+    void anyChangeToTheTenantsLedgerGivesANewJobId() {
+        String first = submit(service, "a");
+        assertEquals(first, submit(service, "a"));
+
+        service.onTransactionChanged(TransactionChangedEvent.deleted(transaction("a", "2020-01-15T10:00:00Z")));
+        String afterDelete = submit(service, "a");
+
+        assertNotEquals(first, afterDelete);
+        // Another tenant's writes do not touch this tenant's version
+        service.onTransactionChanged(TransactionChangedEvent.created(transaction("b", "2020-01-15T10:00:00Z")));
+        assertEquals(afterDelete, submit(service, "a"));
+    }
+
+    @Test
+    void instancesAndRestartsAgreeOnTheVersion() {
+        service.onTransactionChanged(TransactionChangedEvent.created(transaction("a", "2020-01-15T10:00:00Z")));
+        String id = submit(service, "a");
+
+        ReportServiceImpl other = newInstance();
+        try {
+            assertEquals(id, submit(other, "a"));
+            other.onTransactionChanged(TransactionChangedEvent.created(transaction("a", "2020-01-20T10:00:00Z")));
+            assertNotEquals(id, submit(service, "a"));
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    void writesOutsideTheRangeKeepItsReportsCached() {
+        String january = submit(service, "a");
+
+        service.onTransactionChanged(TransactionChangedEvent.created(transaction("a", "2020-03-01T00:00:00Z")));
+        assertEquals(january, submit(service, "a"));
+
+        // Moving a March expense into January changes January
+        service.onTransactionChanged(TransactionChangedEvent.updated(transaction("a", "2020-03-01T00:00:00Z"),
+                transaction("a", "2020-01-31T23:59:59Z")));
+        assertNotEquals(january, submit(service, "a"));
+    }
+
+    @Test
+    void aFailedIncrementIsRetried() {
+        String before = submit(service, "a");
+        down.set(true);
+        service.onTransactionChanged(TransactionChangedEvent.created(transaction("a", "2020-01-15T10:00:00Z")));
+        service.retryLedgerIncrements();
+        assertEquals(before, submit(service, "a"));
+
+        down.set(false);
+        service.retryLedgerIncrements();
+
+        assertEquals(Map.of("a|2020-01", 1L), stored);
+        assertNotEquals(before, submit(service, "a"));
+    }
+
+    private ReportServiceImpl newInstance() {
+        return new ReportServiceImpl(mongoTemplate, fxRateService, new ObjectMapper(), directory.toString(), 1, 10, 24);
+    }
+
+    private static String submit(ReportServiceImpl service, String tenantId) {
+        ReportRequest request = new ReportRequest();
+        request.setStartDate(Instant.parse("2020-01-01T00:00:00Z"));
+        request.setEndDate(Instant.parse("2020-02-01T00:00:00Z"));
+        request.setFormat(ReportFormat.CSV);
+        return TenantContext.callAs(tenantId, () -> service.submit(request)).getId();
+    }
+
+    private static Transaction transaction(String tenantId, String date) {
+        Transaction transaction = new Transaction();
+        transaction.setTenantId(tenantId);
+        transaction.setType(TransactionType.EXPENSE);
+        transaction.setAmount(10.0);
+        transaction.setTransactionDate(Instant.parse(date));
+        return transaction;
+    }
+}
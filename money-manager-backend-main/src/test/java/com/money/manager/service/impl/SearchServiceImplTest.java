@@ -0,0 +1,66 @@
+package com.money.manager.service.impl;
+
+import com.money.manager.event.TransactionChangedEvent;
+import com.money.manager.mapper.TransactionMapper;
+import com.money.manager.model.Transaction;
+import com.money.manager.util.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class SearchServiceImplTest {
+
+    private final SearchServiceImpl service = new SearchServiceImpl(mock(MongoTemplate.class),
+            mock(TransactionMapper.class));
+
+    @AfterEach
+    void stop() {
+        service.shutdown();
+    }
+
+    @Test
+    void categoriesAreIndexedPerTenant() {
+        service.apply(TransactionChangedEvent.created(transaction("a", "Groceries")));
+        service.apply(TransactionChangedEvent.created(transaction("b", "Gym")));
+
+        assertEquals(List.of("Groceries"), TenantContext.callAs("a", () -> service.autocompleteCategories("g", 10)));
+        assertEquals(List.of("Gym"), TenantContext.callAs("b", () -> service.autocompleteCategories("g", 10)));
+    }
+
+    @Test
+    void updateMovesTheCategory() {
+        Transaction before = transaction("a", "Groceries");
+        service.apply(TransactionChangedEvent.created(before));
+        service.apply(TransactionChangedEvent.updated(before, transaction("a", "Gifts")));
+
+        assertEquals(List.of("Gifts"), TenantContext.callAs("a", () -> service.autocompleteCategories("g", 10)));
+    }
+
+    @Test
+    void indexingFailureNeverReachesTheWriter() throws Exception {
+        // No tenant: the per-tenant map rejects the null key on the indexer thread
+        assertDoesNotThrow(() -> service.onTransactionChanged(
+                TransactionChangedEvent.created(transaction(null, "Broken"))));
+        service.onTransactionChanged(TransactionChangedEvent.created(transaction("a", "Rent")));
+
+        for (int i = 0; i < 100 && TenantContext.callAs("a", () -> service.autocompleteCategories("r", 10)).isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(TenantContext.callAs("a", () -> service.autocompleteCategories("r", 10)).contains("Rent"));
+    }
+
+    private static Transaction transaction(String tenantId, String category) {
+        Transaction transaction = new Transaction();
+        transaction.setTenantId(tenantId);
+        transaction.setCategory(category);
+        transaction.setDescription(category + " purchase");
+        return transaction;
+    }
+}
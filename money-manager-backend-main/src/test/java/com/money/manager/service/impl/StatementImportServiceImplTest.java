@@ -0,0 +1,198 @@
+package com.money.manager.service.impl;
+
+import com.money.manager.dto.ImportMapping;
+import com.money.manager.dto.ImportResult;
+import com.money.manager.dto.TransactionRequest;
+import com.money.manager.enums.Division;
+import com.money.manager.enums.StatementFormat;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.exception.BusinessRuleException;
+import com.money.manager.mapper.TransactionMapper;
+import com.money.manager.model.Transaction;
+import com.money.manager.repository.TransactionBulkWriter;
+import com.money.manager.service.FxRateService;
+import com.money.manager.util.TenantContext;
+import jakarta.validation.Validation;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StatementImportServiceImplTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final TransactionMapper transactionMapper = mock(TransactionMapper.class);
+    private final FxRateService fxRateService = mock(FxRateService.class);
+    private final TransactionBulkWriter bulkWriter = mock(TransactionBulkWriter.class);
+    private final List<Transaction> written = new ArrayList<>();
+
+    private final StatementImportServiceImpl service = new StatementImportServiceImpl(mongoTemplate, transactionMapper,
+            fxRateService, bulkWriter, mock(ApplicationEventPublisher.class),
+            Validation.buildDefaultValidatorFactory().getValidator(), 1000, 1000, 0.01);
+
+    StatementImportServiceImplTest() {
+        when(fxRateService.resolveCurrency(any())).thenReturn("USD");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString())).thenReturn(List.of());
+        when(bulkWriter.insertIgnoringDuplicates(anyList())).thenAnswer(invocation -> {
+            List<Transaction> batch = invocation.getArgument(0);
+            written.addAll(batch);
+            return batch;
+        });
+        doAnswer(invocation -> {
+            TransactionRequest request = invocation.getArgument(0);
+            Transaction transaction = invocation.getArgument(1);
+            transaction.setType(request.getType());
+            transaction.setAmount(request.getAmount());
+            transaction.setDescription(request.getDescription());
+            return null;
+        }).when(transactionMapper).mapToEntity(any(), any());
+    }
+
+    @Test
+    void quotedFieldsMayContainDelimitersQuotesAndLineBreaks() {
+        ImportResult result = importCsv(mapping('.'), """
+                date,amount,description
+                2026-01-02,-12.50,"Coffee, ""large""\"
+                2026-01-03,100.00,"Refund
+                second line"
+                """);
+
+        assertEquals(2, result.getImported());
+        assertEquals("Coffee, \"large\"", written.get(0).getDescription());
+        assertEquals(TransactionType.EXPENSE, written.get(0).getType());
+        assertEquals("Refund\nsecond line", written.get(1).getDescription());
+    }
+
+    @Test
+    void unbalancedQuoteRejectsOneRecordInsteadOfReadingTheWholeFile() {
+        StringBuilder csv = new StringBuilder("date,amount,description\n2026-01-02,1.00,\"never closed\n");
+        String filler = "x".repeat(1000) + "\n";
+        for (int i = 0; i < 200; i++) {
+            csv.append(filler);
+        }
+
+        ImportResult result = importCsv(mapping('.'), csv.toString());
+
+        assertEquals(0, result.getImported());
+        assertTrue(result.getRejected() >= 1);
+        assertTrue(result.getErrors().get(0).startsWith("line 2: record longer than"), result.getErrors().get(0));
+    }
+
+    @Test
+    void amountsUseTheMappingsDecimalSeparator() {
+        ImportResult result = importCsv(mapping(','), """
+                date;amount;description
+                2026-01-02;-1.234,56;Rent
+                2026-01-03;€ 1 000,5;Salary
+                """);
+
+        assertEquals(2, result.getImported());
+        assertEquals(1234.56, written.get(0).getAmount());
+        assertEquals(TransactionType.EXPENSE, written.get(0).getType());
+        assertEquals(1000.5, written.get(1).getAmount());
+        assertEquals(TransactionType.INCOME, written.get(1).getType());
+    }
+
+    @Test
+    void unparseableAmountRejectsTheRow() {
+        ImportResult result = importCsv(mapping('.'), """
+                date,amount,description
+                2026-01-02,"1.234,56",Ambiguous
+                2026-01-03,n/a,Nothing
+                2026-01-04,5.00,Fine
+                """);
+
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertTrue(result.getErrors().get(0).startsWith("line 2: invalid amount"), result.getErrors().get(0));
+    }
+
+    @Test
+    void unsupportedDecimalSeparatorIsRejected() {
+        assertThrows(BusinessRuleException.class, () -> importCsv(mapping(';'), "date,amount,description\n"));
+    }
+
+    @Test
+    void parsesAccountingAndCreditDebitNotation() {
+        assertEquals(new BigDecimal("-12.00"), StatementImportServiceImpl.parseAmount("(12.00)", '.'));
+        assertEquals(new BigDecimal("-12.00"), StatementImportServiceImpl.parseAmount("12.00 DR", '.'));
+        assertEquals(new BigDecimal("12.00"), StatementImportServiceImpl.parseAmount("12.00 CR", '.'));
+        assertEquals(new BigDecimal("-12.00"), StatementImportServiceImpl.parseAmount("12.00-", '.'));
+        assertEquals(new BigDecimal("-1234.56"), StatementImportServiceImpl.parseAmount("($1,234.56)", '.'));
+        assertEquals(new BigDecimal("1234.56"), StatementImportServiceImpl.parseAmount("1'234.56 CHF", '.'));
+        assertEquals(new BigDecimal("1234.56"), StatementImportServiceImpl.parseAmount("+1.234,56", ','));
+        assertThrows(IllegalArgumentException.class, () -> StatementImportServiceImpl.parseAmount("1.2.3", '.'));
+        assertThrows(IllegalArgumentException.class, () -> StatementImportServiceImpl.parseAmount("12.00 USD", ','));
+        assertThrows(IllegalArgumentException.class, () -> StatementImportServiceImpl.parseAmount("CR", '.'));
+    }
+
+    @Test
+    void ofxAmountsAcceptACommaDecimal() {
+        ImportMapping mapping = mapping('.');
+        mapping.setFormat(StatementFormat.OFX);
+        ImportResult result = TenantContext.callAs("t1", () -> service.importStatement(stream("""
+                <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                <STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20260102<TRNAMT>-42,10<FITID>1<NAME>Groceries</STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+                """), mapping));
+
+        assertEquals(1, result.getImported(), String.valueOf(result.getErrors()));
+        assertEquals(42.10, written.get(0).getAmount());
+    }
+
+    @Test
+    void reimportedRowsAreDroppedBeforeTheyAreMapped() {
+        String csv = """
+                date,amount,description
+                2026-01-02,-12.50,Coffee
+                2026-01-03,-40.00,Groceries
+                """;
+        importCsv(mapping('.'), csv);
+        List<Document> stored = written.stream().map(t -> new Document("fingerprint", t.getFingerprint())).toList();
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString())).thenReturn(stored);
+        clearInvocations(transactionMapper);
+
+        ImportResult result = importCsv(mapping('.'), csv);
+
+        assertEquals(0, result.getImported());
+        assertEquals(2, result.getDuplicates());
+        verify(transactionMapper, never()).mapToEntity(any(), any());
+    }
+
+    private ImportResult importCsv(ImportMapping mapping, String csv) {
+        return TenantContext.callAs("t1", () -> service.importStatement(stream(csv), mapping));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ImportMapping mapping(char decimalSeparator) {
+        ImportMapping mapping = new ImportMapping();
+        mapping.setDivision(Division.PERSONAL);
+        mapping.setDecimalSeparator(decimalSeparator);
+        mapping.setDelimiter(decimalSeparator == ',' ? ';' : ',');
+        return mapping;
+    }
+}
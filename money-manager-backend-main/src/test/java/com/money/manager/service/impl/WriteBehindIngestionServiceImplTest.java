@@ -0,0 +1,192 @@
+package com.money.manager.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.money.manager.dto.IngestionAck;
+import com.money.manager.dto.TransactionRequest;
+import com.money.manager.enums.Division;
+import com.money.manager.enums.TransactionType;
+import com.money.manager.mapper.TransactionMapper;
+import com.money.manager.model.Transaction;
+import com.money.manager.repository.TransactionBulkWriter;
+import com.money.manager.service.AnomalyService;
+import com.money.manager.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WriteBehindIngestionServiceImplTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    private final TransactionMapper transactionMapper = mock(TransactionMapper.class);
+    private final TransactionBulkWriter bulkWriter = mock(TransactionBulkWriter.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final List<Transaction> written = new CopyOnWriteArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    private WriteBehindIngestionServiceImpl service;
+
+    @AfterEach
+    void stop() throws Exception {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void replaysJournalAfterCrashSkippingTornLastLine() throws Exception {
+        Transaction legacy = transaction("a1");
+        legacy.setTenantId(null);
+        writeJournal(line(transaction("a0")) + line(legacy) + "{\"id\":\"a2\",\"amou");
+        writesSucceed();
+
+        service = service(5);
+        service.start();
+
+        assertEquals(List.of("a0", "a1"), written.stream().map(Transaction::getId).toList());
+        assertEquals("household", written.get(0).getTenantId());
+        // Journaled before tenants existed
+        assertEquals("default", written.get(1).getTenantId());
+        assertEquals(0, Files.size(journal()));
+        verify(eventPublisher, atLeastOnce()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void poisonDocumentIsDeadLetteredAndTheRestIsWritten() throws Exception {
+        writeJournal(line(transaction("good")) + line(transaction("poison")));
+        doAnswer(invocation -> {
+            List<Transaction> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(t -> t.getId().equals("poison"))) {
+                throw new DataIntegrityViolationException("document failed validation");
+            }
+            written.addAll(batch);
+            return batch;
+        }).when(bulkWriter).insertIgnoringDuplicates(anyList());
+
+        service = service(2);
+        service.start();
+
+        assertEquals(List.of("good"), written.stream().map(Transaction::getId).toList());
+        String deadLetters = Files.readString(directory.resolve("ingestion.deadletter"));
+        assertTrue(deadLetters.contains("\"poison\""));
+        assertFalse(deadLetters.contains("\"good\""));
+    }
+
+    @Test
+    void unreachableDatabaseIsRetriedNotDeadLettered() throws Exception {
+        writeJournal(line(transaction("b0")));
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (calls.incrementAndGet() <= 3) {
+                throw new DataAccessResourceFailureException("connection refused");
+            }
+            List<Transaction> batch = invocation.getArgument(0);
+            written.addAll(batch);
+            return batch;
+        }).when(bulkWriter).insertIgnoringDuplicates(anyList());
+
+        service = service(1);
+        service.start();
+
+        assertEquals(List.of("b0"), written.stream().map(Transaction::getId).toList());
+        assertFalse(Files.exists(directory.resolve("ingestion.deadletter")));
+    }
+
+    @Test
+    void acceptedRequestIsJournaledBeforeTheAck() throws Exception {
+        CountDownLatch flushAllowed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            flushAllowed.await();
+            List<Transaction> batch = invocation.getArgument(0);
+            written.addAll(batch);
+            return batch;
+        }).when(bulkWriter).insertIgnoringDuplicates(anyList());
+        doAnswer(invocation -> {
+            Transaction target = invocation.getArgument(1);
+            target.setTenantId("household");
+            target.setType(TransactionType.EXPENSE);
+            target.setAmount(12.5);
+            return null;
+        }).when(transactionMapper).mapToEntity(any(TransactionRequest.class), any(Transaction.class));
+
+        service = service(5);
+        service.start();
+        IngestionAck ack = service.accept(new TransactionRequest());
+
+        assertEquals("ACCEPTED", ack.getStatus());
+        // The flusher is held back, so the journal is the only copy when the ack is returned
+        assertTrue(Files.readString(journal(), StandardCharsets.UTF_8).contains(ack.getId()));
+
+        flushAllowed.countDown();
+        service.stop();
+        service = null;
+        assertEquals(List.of(ack.getId()), written.stream().map(Transaction::getId).toList());
+        assertEquals(0, Files.size(journal()));
+    }
+
+    private WriteBehindIngestionServiceImpl service(int maxAttempts) {
+        return new WriteBehindIngestionServiceImpl(mock(TransactionService.class), transactionMapper,
+                mock(AnomalyService.class), bulkWriter, eventPublisher, objectMapper, true, 100, 10, 5, true,
+                journal().toString(), directory.resolve("ingestion.deadletter").toString(), maxAttempts, "default");
+    }
+
+    private void writesSucceed() {
+        when(bulkWriter.insertIgnoringDuplicates(anyList())).thenAnswer(invocation -> {
+            List<Transaction> batch = invocation.getArgument(0);
+            written.addAll(batch);
+            return batch;
+        });
+    }
+
+    private Path journal() {
+        return directory.resolve("ingestion.journal");
+    }
+
+    private void writeJournal(String content) throws Exception {
+        Files.writeString(journal(), content, StandardCharsets.UTF_8);
+    }
+
+    private String line(Transaction transaction) throws Exception {
+        return objectMapper.writeValueAsString(transaction) + "\n";
+    }
+
+    private static Transaction transaction(String id) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setTenantId("household");
+        transaction.setType(TransactionType.EXPENSE);
+        transaction.setAmount(42.0);
+        transaction.setCategory("Food");
+        transaction.setDivision(Division.PERSONAL);
+        transaction.setDescription("Lunch");
+        transaction.setTransactionDate(Instant.parse("2024-03-01T12:00:00Z"));
+        return transaction;
+    }
+}
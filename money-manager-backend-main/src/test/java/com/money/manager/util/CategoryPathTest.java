@@ -0,0 +1,68 @@
+package com.money.manager.util;
+
+import com.money.manager.exception.BusinessRuleException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CategoryPathTest {
+
+    @Test
+    void userInputIsTrimmedIntoAPathWithATrailingSeparator() {
+        assertEquals(List.of("Food", "Groceries"), CategoryPath.segments("  Food >Groceries  "));
+        assertEquals("Food>Groceries>", CategoryPath.of(CategoryPath.segments("Food > Groceries")));
+        assertEquals("Rent>", CategoryPath.of(CategoryPath.segments("Rent")));
+    }
+
+    @Test
+    void emptySegmentsAreRejected() {
+        assertThrows(BusinessRuleException.class, () -> CategoryPath.segments(" "));
+        assertThrows(BusinessRuleException.class, () -> CategoryPath.segments("Food > > Produce"));
+        assertThrows(BusinessRuleException.class, () -> CategoryPath.segments("Food >"));
+    }
+
+    @Test
+    void parentDepthAndDisplay() {
+        assertEquals("Food>", CategoryPath.parent("Food>Groceries>"));
+        assertNull(CategoryPath.parent("Food>"));
+        assertEquals(3, CategoryPath.depth("Food>Groceries>Produce>"));
+        assertEquals("Food > Groceries", CategoryPath.display("Food>Groceries>"));
+        assertEquals("Food>Groceries>", CategoryPath.child("Food>", "Groceries"));
+        assertEquals("Food>", CategoryPath.child(null, "Food"));
+    }
+
+    @Test
+    void subtreeRegexMatchesDescendantsButNotSiblingsWithTheSamePrefix() {
+        Pattern food = Pattern.compile(CategoryPath.subtreeRegex("Food>"));
+        assertTrue(food.matcher("Food>").find());
+        assertTrue(food.matcher("Food>Groceries>Produce>").find());
+        assertFalse(food.matcher("Foodstuff>").find());
+        assertFalse(food.matcher("Home>Food>").find());
+    }
+
+    @Test
+    void subtreeRegexQuotesMetacharacters() {
+        Pattern odd = Pattern.compile(CategoryPath.subtreeRegex("C++ (books)>"));
+        assertTrue(odd.matcher("C++ (books)>Used>").find());
+        assertFalse(odd.matcher("CCC (books)>").find());
+    }
+
+    @Test
+    void renamingAPrefixRepathsTheWholeSubtree() {
+        String oldRoot = "Food>";
+        String newRoot = CategoryPath.child(null, "Eating");
+        String descendant = "Food>Groceries>Produce>";
+        String moved = newRoot + descendant.substring(oldRoot.length());
+
+        assertEquals("Eating>Groceries>Produce>", moved);
+        assertEquals("Eating > Groceries > Produce", CategoryPath.display(moved));
+        assertEquals(CategoryPath.depth(descendant), CategoryPath.depth(moved));
+    }
+}
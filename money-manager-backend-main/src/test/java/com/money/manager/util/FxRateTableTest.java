@@ -0,0 +1,63 @@
+package com.money.manager.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FxRateTableTest {
+
+    private final FxRateTable table = FxRateTable.builder("v1", "INR")
+            .rate("USD", LocalDate.parse("2025-01-01"), 85.0)
+            .rate("USD", LocalDate.parse("2025-07-01"), 86.0)
+            .rate("EUR", LocalDate.parse("2025-01-01"), 90.0)
+            .build();
+
+    @Test
+    void usesTheLatestRateOnOrBeforeTheDate() {
+        assertEquals(85.0, table.rateToBase("USD", day("2025-06-30")));
+        assertEquals(86.0, table.rateToBase("USD", day("2025-07-01")));
+        assertEquals(86.0, table.rateToBase("USD", day("2030-01-01")));
+    }
+
+    @Test
+    void datesBeforeTheFirstRateUseTheEarliest() {
+        assertEquals(85.0, table.rateToBase("USD", day("2000-01-01")));
+    }
+
+    @Test
+    void baseCurrencyIsAlwaysOne() {
+        assertEquals(1.0, table.rateToBase("INR", day("2025-03-01")));
+        assertEquals(Set.of("INR", "USD", "EUR"), table.getCurrencies());
+    }
+
+    @Test
+    void convertsBetweenTwoForeignCurrenciesThroughTheBase() {
+        // 90 USD = 7650 INR = 85 EUR
+        assertEquals(85.0, table.convert(90.0, "USD", "EUR", day("2025-03-01")), 1e-9);
+        assertEquals(42.0, table.convert(42.0, "EUR", "EUR", day("2025-03-01")));
+    }
+
+    @Test
+    void unknownCurrencyIsRejected() {
+        assertFalse(table.supports("JPY"));
+        assertFalse(table.supports(null));
+        assertTrue(table.supports("USD"));
+        assertThrows(IllegalArgumentException.class, () -> table.rateToBase("JPY", day("2025-03-01")));
+    }
+
+    @Test
+    void nonPositiveRateIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> FxRateTable.builder("v1", "INR").rate("USD", LocalDate.parse("2025-01-01"), 0));
+    }
+
+    private static long day(String date) {
+        return LocalDate.parse(date).toEpochDay();
+    }
+}
@@ -0,0 +1,87 @@
+package com.money.manager.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TDigestTest {
+
+    @Test
+    void emptyDigestHasNoQuantiles() {
+        TDigest digest = new TDigest(100);
+
+        assertEquals(0, digest.count());
+        assertTrue(Double.isNaN(digest.quantile(0.5)));
+        assertTrue(Double.isNaN(digest.cdf(1.0)));
+        assertTrue(Double.isNaN(TDigest.quantile(digest, new TDigest(100), 0.5)));
+    }
+
+    @Test
+    void quantilesOfAShuffledUniformStreamAreClose() {
+        TDigest digest = shuffled(1, 10_000);
+
+        assertEquals(10_000, digest.count());
+        assertEquals(5_000, digest.quantile(0.5), 100);
+        assertEquals(9_000, digest.quantile(0.9), 50);
+        assertEquals(9_900, digest.quantile(0.99), 10);
+        assertEquals(1, digest.quantile(0), 0);
+        assertEquals(10_000, digest.quantile(1), 0);
+    }
+
+    @Test
+    void cdfIsTheInverseOfQuantile() {
+        TDigest digest = shuffled(1, 10_000);
+
+        assertEquals(0.5, digest.cdf(digest.quantile(0.5)), 0.01);
+        assertEquals(0.9, digest.cdf(digest.quantile(0.9)), 0.01);
+        assertEquals(0, digest.cdf(0), 0);
+        assertEquals(1, digest.cdf(10_000), 0);
+    }
+
+    @Test
+    void singleValueDigest() {
+        TDigest digest = new TDigest(100);
+        digest.add(42);
+
+        assertEquals(42, digest.quantile(0.5), 0);
+        assertEquals(1, digest.cdf(42), 0);
+    }
+
+    @Test
+    void mergedDigestsMatchOneDigestOfBothStreams() {
+        TDigest low = shuffled(1, 5_000);
+        TDigest high = shuffled(5_001, 10_000);
+        low.merge(high);
+
+        assertEquals(10_000, low.count());
+        assertEquals(5_000, low.quantile(0.5), 100);
+        assertEquals(10_000, low.quantile(1), 0);
+    }
+
+    @Test
+    void removedValuesAreSubtractedFromQuantiles() {
+        TDigest kept = shuffled(1, 1_000);
+        TDigest removed = shuffled(501, 1_000);
+
+        assertEquals(250, TDigest.quantile(kept, removed, 0.5), 15);
+        assertEquals(450, TDigest.quantile(kept, removed, 0.9), 15);
+        assertTrue(Double.isNaN(TDigest.quantile(kept, shuffled(1, 1_000), 0.5)));
+    }
+
+    private static TDigest shuffled(int from, int to) {
+        List<Integer> values = new ArrayList<>();
+        for (int value = from; value <= to; value++) {
+            values.add(value);
+        }
+        Collections.shuffle(values, new Random(7));
+        TDigest digest = new TDigest(100);
+        values.forEach(digest::add);
+        return digest;
+    }
+}
@@ -0,0 +1,93 @@
+package com.money.manager.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrieTest {
+
+    @Test
+    void prefixMatchesComeMostFrequentFirst() {
+        Trie trie = new Trie();
+        trie.add("groceries", "Groceries", 5);
+        trie.add("gym", "Gym", 9);
+        trie.add("gifts", "Gifts", 1);
+        trie.add("rent", "Rent", 20);
+
+        assertEquals(List.of("Gym", "Groceries", "Gifts"), values(trie.withPrefix("g", 10)));
+        assertEquals(List.of("Gym"), values(trie.withPrefix("g", 1)));
+        assertTrue(trie.withPrefix("x", 10).isEmpty());
+    }
+
+    @Test
+    void frequentKeysAreFoundBehindLargeRareSubtrees() {
+        Trie trie = new Trie();
+        for (int i = 0; i < 5000; i++) {
+            trie.add("a" + i, "a" + i);
+        }
+        trie.add("zz", "zz", 7);
+        trie.add("b", "b", 3);
+
+        assertEquals(List.of("zz", "b"), values(trie.withPrefix("", 2)));
+        assertEquals(5002, trie.withPrefix("", 10_000).size());
+
+        // Removing the top key hands its place back to the next-highest subtree
+        for (int i = 0; i < 7; i++) {
+            trie.remove("zz");
+        }
+        assertEquals(List.of("b"), values(trie.withPrefix("", 1)));
+    }
+
+    @Test
+    void keyDisappearsWhenItsCountReachesZero() {
+        Trie trie = new Trie();
+        trie.add("coffee", "coffee");
+        trie.add("coffee", "coffee");
+        trie.add("cof", "cof");
+
+        trie.remove("coffee");
+        assertTrue(trie.contains("coffee"));
+        trie.remove("coffee");
+        assertFalse(trie.contains("coffee"));
+        assertTrue(trie.contains("cof"));
+        assertEquals(1, trie.size());
+
+        // Removing an absent key is a no-op
+        trie.remove("coffee");
+        trie.remove("tea");
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    void withinDistanceFindsTyposClosestFirst() {
+        Trie trie = new Trie();
+        trie.add("grocery", "grocery", 3);
+        trie.add("groceries", "groceries", 10);
+        trie.add("gallery", "gallery", 1);
+
+        List<Trie.Match> oneEdit = trie.withinDistance("grocey", 1, 10);
+        assertEquals(List.of("grocery"), values(oneEdit));
+        assertEquals(1, oneEdit.get(0).distance());
+
+        List<Trie.Match> twoEdits = trie.withinDistance("grocerie", 2, 10);
+        assertEquals(List.of("groceries", "grocery"), values(twoEdits));
+        assertEquals(1, twoEdits.get(0).distance());
+    }
+
+    @Test
+    void exactMatchHasDistanceZero() {
+        Trie trie = new Trie();
+        trie.add("rent", "rent");
+
+        assertEquals(0, trie.withinDistance("rent", 2, 10).get(0).distance());
+        assertTrue(trie.withinDistance("", 1, 10).isEmpty());
+    }
+
+    private static List<String> values(List<Trie.Match> matches) {
+        return matches.stream().map(Trie.Match::value).toList();
+    }
+}